@@ -0,0 +1,116 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.aop.ApiLogAspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     &#64;ApiLog切面开销：每次调用构造新的请求并绑定到当前线程，经切面代理调用桩接口，
+ *     覆盖JSON body及表单参数两种请求，baseline为不经过切面直接调用
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiLogAspectBenchmark {
+    private static final String ID = "20261019000001";
+
+    @Param({"0", "1024", "65536"})
+    private int bodySize;
+
+    @Param({BenchmarkSupport.HANDLER_NOOP, BenchmarkSupport.HANDLER_DEFAULT})
+    private String handler;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_FORM_URLENCODED_VALUE})
+    private String contentType;
+
+    private AnnotationConfigApplicationContext context;
+    private BenchmarkController target;
+    private BenchmarkController proxy;
+    private byte[] body;
+    private String data;
+    private Date date;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext(async, Collections.emptyMap());
+        target = new BenchmarkController();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(context.getBean(ApiLogAspect.class));
+        proxy = proxyFactory.getProxy();
+        body = BenchmarkSupport.jsonBody(bodySize);
+        data = new String(body, StandardCharsets.UTF_8);
+        date = new Date();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public String aspect() {
+        bindRequest();
+        return invoke(proxy);
+    }
+
+    @Benchmark
+    public String baseline() {
+        bindRequest();
+        return invoke(target);
+    }
+
+    private String invoke(BenchmarkController controller) {
+        return BenchmarkSupport.HANDLER_NOOP.equals(handler) ? controller.noop(ID, date, data) : controller.defaults(ID, date, data);
+    }
+
+    private void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/benchmark");
+        request.setRemoteAddr("127.0.0.1");
+        request.setQueryString("from=benchmark");
+        request.addHeader("X-Request-Id", ID);
+        request.setContentType(contentType);
+        if (MediaType.APPLICATION_FORM_URLENCODED_VALUE.equals(contentType)) {
+            request.addParameter("id", ID);
+            request.addParameter("date", "2026-10-19 09:00:00");
+            request.addParameter("data", data);
+        } else {
+            request.setContent(body);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.annotation.ApiLog;
+import com.github.dc.invoke.pojo.DefaultApiLogDataHandler;
+
+import java.util.Date;
+
+/**
+ * <p>
+ *     切面基准测试的桩接口，按处理器类型区分方法
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+public class BenchmarkController {
+
+    @ApiLog(code = "benchmark-noop", desc = "基准测试", businessKey = "#id", handler = NoopApiLogDataHandler.class)
+    public String noop(String id, Date date, String data) {
+        return id;
+    }
+
+    @ApiLog(code = "benchmark-default", desc = "基准测试", businessKey = "#id", handler = DefaultApiLogDataHandler.class)
+    public String defaults(String id, Date date, String data) {
+        return id;
+    }
+}
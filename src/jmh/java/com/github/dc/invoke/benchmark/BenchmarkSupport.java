@@ -0,0 +1,136 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.config.EnableLoadBeanAutoConfiguration;
+import com.github.dc.invoke.pojo.DefaultApiLogDataHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ *     基准测试公共支持：按参数启动spring容器、进程内桩服务及请求body生成
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+public final class BenchmarkSupport {
+    public static final String HANDLER_NOOP = "noop";
+    public static final String HANDLER_DEFAULT = "default";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 启动容器
+     *
+     * @param async      是否开启日志异步投递
+     * @param properties 其他配置
+     * @return 容器
+     */
+    public static AnnotationConfigApplicationContext startContext(boolean async, Map<String, Object> properties) {
+        Map<String, Object> source = new HashMap<>(properties);
+        source.put("api-log.async.enabled", async);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", source));
+        context.register(EnableLoadBeanAutoConfiguration.class, NoopApiLogDataHandler.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * @param handler 处理器参数
+     * @return 处理器class
+     */
+    public static Class<? extends IApiLogDataHandler> handlerClass(String handler) {
+        switch (handler) {
+            case HANDLER_NOOP:
+                return NoopApiLogDataHandler.class;
+            case HANDLER_DEFAULT:
+                return DefaultApiLogDataHandler.class;
+            default:
+                throw new IllegalArgumentException("未知的处理器：" + handler);
+        }
+    }
+
+    /**
+     * @param size 字节数
+     * @return 指定大小的JSON字符串body，size为0时返回空数组
+     */
+    public static byte[] jsonBody(int size) {
+        if (size <= 0) {
+            return new byte[0];
+        }
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        char[] data = new char[Math.max(0, size - prefix.length() - suffix.length())];
+        Arrays.fill(data, 'x');
+        return (prefix + new String(data) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 进程内桩服务：/echo 原样返回请求body，/body?size=n 返回n字节的JSON
+     */
+    public static final class StubServer implements AutoCloseable {
+        private final HttpServer server;
+        private final ExecutorService executor;
+        private final Map<Integer, byte[]> bodies = new ConcurrentHashMap<>();
+
+        public StubServer(int... bodySizes) throws IOException {
+            for (int size : bodySizes) {
+                bodies.put(size, jsonBody(size));
+            }
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+            server.setExecutor(executor);
+            server.createContext("/echo", exchange -> {
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = IOUtils.toByteArray(in);
+                }
+                respond(exchange, body);
+            });
+            server.createContext("/body", exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                int size = query == null ? 0 : Integer.parseInt(query.substring(query.indexOf('=') + 1));
+                IOUtils.consume(exchange.getRequestBody());
+                respond(exchange, bodies.computeIfAbsent(size, BenchmarkSupport::jsonBody));
+            });
+            server.start();
+        }
+
+        public String url(String path) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.interceptor.DefaultClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.response.BufferedClientHttpResponse;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     dcRestTemplate日志拦截器开销：下游执行直接返回内存中的响应，只测量拦截器（日志组装、响应捕获、统计及投递）本身，
+ *     baseline为不经过拦截器直接执行并读取响应
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorBenchmark {
+
+    @Param({"0", "1024", "65536"})
+    private int bodySize;
+
+    @Param({BenchmarkSupport.HANDLER_NOOP, BenchmarkSupport.HANDLER_DEFAULT})
+    private String handler;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    @Param({"BUFFERING", "STREAMING"})
+    private RestTemplateProperty.ResponseCaptureMode captureMode;
+
+    private AnnotationConfigApplicationContext context;
+    private DefaultClientHttpRequestInterceptor interceptor;
+    private Class<? extends IApiLogDataHandler> handlerClass;
+    private MockClientHttpRequest request;
+    private byte[] requestBody;
+    private ClientHttpRequestExecution execution;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext(async,
+                Collections.singletonMap("rest-template.response-capture-mode", captureMode.name()));
+        interceptor = context.getBean(DefaultClientHttpRequestInterceptor.class);
+        handlerClass = BenchmarkSupport.handlerClass(handler);
+        requestBody = BenchmarkSupport.jsonBody(bodySize);
+        request = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://127.0.0.1:8080/echo?from=benchmark"));
+        request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        request.getHeaders().setContentLength(requestBody.length);
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+        responseHeaders.setContentLength(requestBody.length);
+        execution = (httpRequest, bytes) -> new BufferedClientHttpResponse(200, "OK", responseHeaders, bytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] intercept() throws IOException {
+        ApiLogSetupHelper.builder().apiCode("benchmark").handler(handlerClass).build();
+        return read(interceptor.intercept(request, requestBody, execution));
+    }
+
+    @Benchmark
+    public byte[] baseline() throws IOException {
+        return read(execution.execute(request, requestBody));
+    }
+
+    private static byte[] read(ClientHttpResponse response) throws IOException {
+        try (ClientHttpResponse closeable = response; InputStream body = closeable.getBody()) {
+            return IOUtils.toByteArray(body);
+        }
+    }
+}
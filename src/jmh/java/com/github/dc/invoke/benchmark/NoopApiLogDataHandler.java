@@ -0,0 +1,19 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.pojo.ApiLogData;
+
+/**
+ * <p>
+ *     不做任何处理的日志处理器，用于测量日志采集本身的开销
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+public class NoopApiLogDataHandler implements IApiLogDataHandler {
+
+    @Override
+    public void handle(ApiLogData apiLogData) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.dc.invoke.benchmark;
+
+import com.github.dc.invoke.helper.RestTemplateHelper;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     RestTemplateHelper端到端开销：经dcRestTemplate调用进程内桩服务，
+ *     baseline为使用同一OkHttpClient、不带拦截器的RestTemplate发出相同请求
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestTemplateHelperBenchmark {
+
+    @Param({"0", "1024", "65536"})
+    private int bodySize;
+
+    @Param({BenchmarkSupport.HANDLER_NOOP, BenchmarkSupport.HANDLER_DEFAULT})
+    private String handler;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    private BenchmarkSupport.StubServer server;
+    private AnnotationConfigApplicationContext context;
+    private RestTemplateHelper restTemplateHelper;
+    private RestTemplate baselineRestTemplate;
+    private String getUrl;
+    private String postUrl;
+    private String bodyJson;
+    private HttpEntity<String> postEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new BenchmarkSupport.StubServer(bodySize);
+        context = BenchmarkSupport.startContext(async, Collections.emptyMap());
+        restTemplateHelper = context.getBean(RestTemplateHelper.class);
+        baselineRestTemplate = new RestTemplate(new OkHttp3ClientHttpRequestFactory(context.getBean("dcOkHttpClient", OkHttpClient.class)));
+        getUrl = server.url("/body?size=" + bodySize);
+        postUrl = server.url("/echo");
+        bodyJson = new String(BenchmarkSupport.jsonBody(bodySize), StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        postEntity = new HttpEntity<>(bodyJson, headers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String get() {
+        ApiLogSetupHelper.builder().apiCode("benchmark-get").handler(BenchmarkSupport.handlerClass(handler)).build();
+        return restTemplateHelper.get(getUrl, String.class).getBody();
+    }
+
+    @Benchmark
+    public String getBaseline() {
+        return baselineRestTemplate.getForEntity(getUrl, String.class).getBody();
+    }
+
+    @Benchmark
+    public String postJson() {
+        ApiLogSetupHelper.builder().apiCode("benchmark-post").handler(BenchmarkSupport.handlerClass(handler)).build();
+        return restTemplateHelper.postJson(postUrl, bodyJson, String.class).getBody();
+    }
+
+    @Benchmark
+    public String postJsonBaseline() {
+        return baselineRestTemplate.exchange(postUrl, HttpMethod.POST, postEntity, String.class).getBody();
+    }
+}
@@ -3,41 +3,43 @@ package com.github.dc.invoke.aop;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
 import com.github.dc.invoke.annotation.ApiLog;
-import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
-import com.github.dc.invoke.helper.ApplicationContextHelper;
+import com.github.dc.invoke.aop.handler.ApiLogDataDispatcher;
+import com.github.dc.invoke.aop.handler.ApiLogDataHandlerRegistry;
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.metrics.CallMetricsRegistry;
 import com.github.dc.invoke.pojo.ApiLogData;
-import com.github.dc.invoke.util.ReflectUtil;
+import com.github.dc.invoke.sampling.ApiLogSampler;
+import com.github.dc.invoke.sampling.SamplingDecision;
 import com.github.dc.invoke.wrapper.ReuseHttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.beanutils.ConvertUtils;
-import org.apache.commons.beanutils.Converter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.CodeSignature;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
 import org.springframework.core.annotation.Order;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * @author PeiYuan
@@ -46,9 +48,16 @@ import java.util.Map;
 @Component
 @Slf4j
 @Order(99)
+@RequiredArgsConstructor
 public class ApiLogAspect {
     public static final String PRINT_RESPONSE = "printResponse";
     private static final String PRINT_BODY = "printBody";
+    private final ApiLogDataDispatcher apiLogDataDispatcher;
+    private final CallMetricsRegistry callMetricsRegistry;
+    private final ApiLogDataHandlerRegistry apiLogDataHandlerRegistry;
+    private final ApiLogProperty apiLogProperty;
+    private final ApiLogSampler apiLogSampler;
+    private final Map<Method, ApiLogMethodDescriptor> descriptors = new ConcurrentHashMap<>();
 
 
     /**
@@ -60,10 +69,18 @@ public class ApiLogAspect {
      */
     @Around(value = "@annotation(apiLog)")
     public Object doAround(ProceedingJoinPoint proceedingJoinPoint, ApiLog apiLog) throws Throwable {
-        String businessKey = this.getBusinessKey(proceedingJoinPoint, apiLog);
+        ApiLogMethodDescriptor descriptor = this.getDescriptor(proceedingJoinPoint, apiLog);
+        String businessKey = descriptor.getBusinessKey(proceedingJoinPoint.getArgs());
 
         // 得到 HttpServletRequest
-        HttpServletRequest request = new ReuseHttpServletRequest(((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest());
+        ApiLogProperty.RequestBody requestBody = apiLogProperty.getRequestBody();
+        HttpServletRequest servletRequest = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        // 缓存body、采集请求头之前决定是否采样，未采样的调用不做这部分开销
+        SamplingDecision sampling = apiLogSampler.sample(apiLog.code());
+        boolean capturesPayload = sampling == null || sampling == SamplingDecision.FULL;
+        ReuseHttpServletRequest reuseRequest = capturesPayload
+                ? new ReuseHttpServletRequest(servletRequest, requestBody.getSpillThreshold(), requestBody.getTempDirectory()) : null;
+        HttpServletRequest request = reuseRequest == null ? servletRequest : reuseRequest;
         Map<String, Object> context = new HashMap<>(1);
         context.put(PRINT_RESPONSE, apiLog.printResponse());
         // 获取注解信息
@@ -74,37 +91,101 @@ public class ApiLogAspect {
                 .url(request.getRequestURL().toString())
                 .method(request.getMethod())
                 .ip(request.getRemoteAddr())
-                .requestHeaders(this.getHeaders(request))
+                .requestHeaders(capturesPayload ? this.getHeaders(request) : null)
                 .requestQuery(this.getQuery(request))
-                .requestBody(this.getBody(request, proceedingJoinPoint))
+                .requestBodySupplier(capturesPayload ? this.getBody(reuseRequest, proceedingJoinPoint, descriptor) : null)
                 .requestContentType(request.getContentType())
                 .isInner(true)
                 .requestDate(new Date())
                 .context(context)
+                .sampling(sampling == null ? null : sampling.name())
                 .build();
         long startTime = System.currentTimeMillis();
+        long requestBytes = request.getContentLengthLong();
         Object result = null;
+        boolean deferred = false;
         try {
             result = proceedingJoinPoint.proceed();
-            apiLogData.setIsSuccess(true);
-            if (apiLog.printResponse()) {
-                apiLogData.setResponseContent(JSON.toJSONString(result));
+            ApiLogData started = apiLogData;
+            // 异步返回时在异步结果完成后记录耗时及返回内容
+            deferred = this.deferIfAsync(result, servletRequest, new ApiLogAsyncCompletion((value, e) ->
+                    this.complete(e == null ? this.succeeded(started, apiLog, value) : this.failed(started, e), startTime, requestBytes, descriptor)));
+            if (!deferred) {
+                apiLogData = this.succeeded(apiLogData, apiLog, result);
             }
         } catch (Throwable e) {
-            apiLogData = apiLogData.toBuilder().isSuccess(false)
-                    .exceptionStack(StringUtils.join(ExceptionUtils.getRootCauseStackTrace(e), StringUtils.LF))
-                    .build();
+            apiLogData = this.failed(apiLogData, e);
             throw e;
         } finally {
-            // 执行时间
-            apiLogData = apiLogData.toBuilder().consumeTime(System.currentTimeMillis() - startTime).build();
-            IApiLogDataHandler handler = this.getHandler(apiLog.handler());
-            handler.handle(apiLogData);
+            if (!deferred) {
+                this.complete(apiLogData, startTime, requestBytes, descriptor);
+            }
+            // 日志只引用内存中的body，可以删除临时文件
+            if (reuseRequest != null) {
+                reuseRequest.close();
+            }
         }
 
         return result;
     }
 
+    /**
+     * 返回值为异步结果时，在结果完成时回调
+     *
+     * @param result         返回值
+     * @param servletRequest 当前请求
+     * @param completion     异步结果完成回调
+     * @return 是否为异步结果
+     */
+    private boolean deferIfAsync(Object result, HttpServletRequest servletRequest, ApiLogAsyncCompletion completion) {
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete(completion::complete);
+            return true;
+        }
+        if (result instanceof ListenableFuture) {
+            ((ListenableFuture<?>) result).addCallback(value -> completion.complete(value, null), e -> completion.complete(null, e));
+            return true;
+        }
+        if (result instanceof DeferredResult) {
+            WebAsyncUtils.getAsyncManager(servletRequest).registerDeferredResultInterceptor(completion, completion);
+            return true;
+        }
+        if (result instanceof Callable || result instanceof WebAsyncTask) {
+            WebAsyncUtils.getAsyncManager(servletRequest).registerCallableInterceptor(completion, completion);
+            return true;
+        }
+        return false;
+    }
+
+    private ApiLogData succeeded(ApiLogData apiLogData, ApiLog apiLog, Object result) {
+        apiLogData.setIsSuccess(true);
+        if (apiLog.printResponse() && SamplingDecision.capturesPayload(apiLogData.getSampling())) {
+            apiLogData.setResponseContent(JSON.toJSONString(result));
+        }
+        return apiLogData;
+    }
+
+    private ApiLogData failed(ApiLogData apiLogData, Throwable e) {
+        return apiLogData.toBuilder().isSuccess(false)
+                .exceptionStack(StringUtils.join(ExceptionUtils.getRootCauseStackTrace(e), StringUtils.LF))
+                .build();
+    }
+
+    private void complete(ApiLogData apiLogData, long startTime, long requestBytes, ApiLogMethodDescriptor descriptor) {
+        try {
+            // 执行时间
+            apiLogData = apiLogData.toBuilder().consumeTime(System.currentTimeMillis() - startTime).build();
+            // 返回内容由消息转换器写出，只统计请求字节数
+            callMetricsRegistry.record(apiLogData, requestBytes, -1);
+            if (!apiLogSampler.shouldLog(apiLogData)) {
+                return;
+            }
+            apiLogDataDispatcher.dispatch(descriptor.getHandler(), apiLogData);
+        } catch (RuntimeException e) {
+            log.warn("接口日志记录异常", e);
+        }
+    }
+
     private String getHeaders(HttpServletRequest request) {
         JSONObject jsonObject = new JSONObject();
         Enumeration<String> headNames = request.getHeaderNames();
@@ -120,109 +201,51 @@ public class ApiLogAspect {
         return request.getQueryString();
     }
 
-    private String getBody(HttpServletRequest request, ProceedingJoinPoint proceedingJoinPoint) {
-        String body = null;
+    private Supplier<String> getBody(ReuseHttpServletRequest request, ProceedingJoinPoint proceedingJoinPoint, ApiLogMethodDescriptor descriptor) {
         String contentType = request.getContentType();
         if (contentType == null) {
-            return body;
+            return null;
         }
         if (contentType.contains(MediaType.MULTIPART_FORM_DATA_VALUE) || MediaType.APPLICATION_FORM_URLENCODED_VALUE.equals(contentType)) {
             // 以JSON存储
-            CodeSignature codeSignature = (CodeSignature) proceedingJoinPoint.getSignature();
             Map<String, Object> map = new HashMap<>(1);
             Enumeration<String> paramMap = request.getParameterNames();
-            String[] paramNames = codeSignature.getParameterNames();
-            Class[] paramType = codeSignature.getParameterTypes();
+            String[] paramNames = descriptor.getParameterNames();
             while (paramMap.hasMoreElements()) {
                 String name = paramMap.nextElement();
                 map.put(name, request.getParameter(name));
             }
-            ConvertUtils.register(new Converter() {
-                private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
-                private static final String SHORT_DATE_FORMAT = "yyyy-MM-dd";
-                private static final String TIME_STAMP_FORMAT = "^\\d+$";
-                @Override
-                public <T> T convert(Class<T> type, Object beforeValue) {
-                    if (!(beforeValue instanceof String)) {
-                        return null;
-                    }
-                    String value = (String) beforeValue;
-                    if(StringUtils.isEmpty(value)) {
-                        return null;
-                    }
-
-                    value = value.trim();
-
-                    try {
-                        if (value.contains("-")) {
-                            SimpleDateFormat formatter;
-                            if (value.contains(":")) {
-                                formatter = new SimpleDateFormat(DATE_FORMAT);
-                            } else {
-                                formatter = new SimpleDateFormat(SHORT_DATE_FORMAT);
-                            }
-                            return (T) formatter.parse(value);
-                        } else if (value.matches(TIME_STAMP_FORMAT)) {
-                            Long lDate = new Long(value);
-                            return (T) new Date(lDate);
-                        }
-                    } catch (Exception e) {
-                        return null;
-                    }
-                    return null;
-                }
-            }, Date.class);
             Object[] args = proceedingJoinPoint.getArgs();
             for (int i = 0; i < paramNames.length; i++) {
                 if (map.containsKey(paramNames[i])) {
-                    map.put(paramNames[i], ConvertUtils.convert(map.get(paramNames[i]), paramType[i]));
+                    map.put(paramNames[i], descriptor.convert(i, (String) map.get(paramNames[i])));
                 } else if (args[i] != null && MultipartFile.class.isAssignableFrom(args[i].getClass())) {
                     // 包含文件参数 MultipartFile，只记录文件名
                     map.put(paramNames[i], ((MultipartFile) args[i]).getOriginalFilename());
                 }
             }
-            body = JSON.toJSONString(map);
-        } else {
-            body = ((ReuseHttpServletRequest) request).getBody();
-        }
-        return body;
-    }
-
-    /**
-     * 获取处理器，优先从获取spring bean，如没有则是单纯的对象，不含注入bean
-     * @param handleClazz 处理器class
-     * @return 处理器
-     */
-    private IApiLogDataHandler getHandler(Class<? extends IApiLogDataHandler> handleClazz) {
-        IApiLogDataHandler apiLogDataHandler = ApplicationContextHelper.getBean(handleClazz);
-        if (apiLogDataHandler != null) {
-            return apiLogDataHandler;
+            String body = JSON.toJSONString(map);
+            return () -> body;
         }
-        return ReflectUtil.instance(handleClazz);
+        // 由处理器获取时才解码
+        return request.getBodySupplier();
     }
 
     /**
-     * 获取业务主键
+     * 获取方法描述，首次调用时生成并缓存
      * @param proceedingJoinPoint
      * @param apiLog
-     * @return
+     * @return 方法描述
      */
-    private String getBusinessKey(ProceedingJoinPoint proceedingJoinPoint, ApiLog apiLog) {
-        if (StringUtils.isBlank(apiLog.businessKey())) {
-            return null;
-        }
-        ExpressionParser parser = new SpelExpressionParser();
-        Expression expression = parser.parseExpression(apiLog.businessKey());
-        EvaluationContext context = new StandardEvaluationContext();
+    private ApiLogMethodDescriptor getDescriptor(ProceedingJoinPoint proceedingJoinPoint, ApiLog apiLog) {
         MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
         Method method = signature.getMethod();
-        LocalVariableTableParameterNameDiscoverer u = new LocalVariableTableParameterNameDiscoverer();
-        Object[] arguments = proceedingJoinPoint.getArgs();
-        String[] paramNames = u.getParameterNames(method);
-        for (int i = 0; i < arguments.length; i++) {
-            context.setVariable(paramNames[i], arguments[i]);
+        ApiLogMethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor != null) {
+            return descriptor;
         }
-        return expression.getValue(context, String.class);
+        return descriptors.computeIfAbsent(method, key ->
+                new ApiLogMethodDescriptor(key, apiLog, signature.getParameterNames(), apiLogDataHandlerRegistry.get(apiLog.handler())));
     }
 
 }
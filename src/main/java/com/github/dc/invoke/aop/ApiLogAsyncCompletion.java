@@ -0,0 +1,94 @@
+package com.github.dc.invoke.aop;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ *     异步返回的&#64;ApiLog接口在异步结果完成时记录日志，只记录一次。
+ *     CompletionStage、ListenableFuture在完成回调中调用{@link #complete(Object, Throwable)}；
+ *     DeferredResult、Callable、WebAsyncTask注册为当前请求WebAsyncManager的拦截器，在结果产生、出错、超时或异步请求结束时记录
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 14:00
+ */
+public class ApiLogAsyncCompletion implements DeferredResultProcessingInterceptor, CallableProcessingInterceptor {
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final BiConsumer<Object, Throwable> callback;
+
+    /**
+     * @param callback 异步结果及异常，成功时异常为null
+     */
+    public ApiLogAsyncCompletion(BiConsumer<Object, Throwable> callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 异步结果完成
+     *
+     * @param value 结果
+     * @param error 异常，成功时为null
+     */
+    public void complete(Object value, Throwable error) {
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        callback.accept(cause == null ? value : null, cause);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, DeferredResult<T> deferredResult, Object concurrentResult) {
+        this.completeWith(concurrentResult);
+    }
+
+    @Override
+    public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> deferredResult, Throwable t) {
+        this.complete(null, t);
+        return true;
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        this.complete(null, new IllegalStateException("异步请求结束时DeferredResult未返回结果"));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        this.completeWith(concurrentResult);
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        this.complete(null, new AsyncRequestTimeoutException());
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        this.complete(null, t);
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        this.complete(null, new IllegalStateException("异步请求结束时Callable未返回结果"));
+    }
+
+    private void completeWith(Object concurrentResult) {
+        if (concurrentResult instanceof Throwable) {
+            this.complete(null, (Throwable) concurrentResult);
+        } else {
+            this.complete(concurrentResult, null);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.dc.invoke.aop;
+
+import com.github.dc.invoke.annotation.ApiLog;
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * <p>
+ *     &#64;ApiLog方法描述，每个方法首次调用时生成并缓存：参数名、编译后的业务主键SpEL、表单参数转换器及日志处理器，
+ *     调用时只需按参数求值，不再重复解析表达式、读取参数名或注册转换器
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 10:00
+ */
+@Slf4j
+public class ApiLogMethodDescriptor {
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    private static final Converter DATE_CONVERTER = new DateConverter();
+
+    private final Method method;
+    private final ApiLog apiLog;
+    private final String[] parameterNames;
+    private final Class<?>[] parameterTypes;
+    private final Converter[] converters;
+    private final Expression businessKeyExpression;
+    private final Expression interpretedBusinessKeyExpression;
+    private final IApiLogDataHandler handler;
+    private volatile boolean compileFailed;
+
+    /**
+     * @param method             被调用方法
+     * @param apiLog             注解
+     * @param fallbackParamNames 无法从class读取参数名时使用的参数名（切点签名中的参数名）
+     * @param handler            日志处理器
+     */
+    public ApiLogMethodDescriptor(Method method, ApiLog apiLog, String[] fallbackParamNames, IApiLogDataHandler handler) {
+        this.method = method;
+        this.apiLog = apiLog;
+        this.parameterTypes = method.getParameterTypes();
+        this.parameterNames = parameterNames(method, fallbackParamNames, parameterTypes.length);
+        this.converters = new Converter[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            // 表单参数值均为String，与ConvertUtils.convert(String, Class)查找的转换器一致
+            converters[i] = Date.class == parameterTypes[i] ? DATE_CONVERTER : ConvertUtils.lookup(String.class, parameterTypes[i]);
+        }
+        if (StringUtils.isBlank(apiLog.businessKey())) {
+            this.businessKeyExpression = null;
+            this.interpretedBusinessKeyExpression = null;
+        } else {
+            ClassLoader classLoader = method.getDeclaringClass().getClassLoader();
+            this.businessKeyExpression = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, classLoader))
+                    .parseExpression(apiLog.businessKey());
+            this.interpretedBusinessKeyExpression = new SpelExpressionParser().parseExpression(apiLog.businessKey());
+        }
+        this.handler = handler;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public ApiLog getApiLog() {
+        return apiLog;
+    }
+
+    public String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    public IApiLogDataHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * 求值业务主键
+     *
+     * @param arguments 调用参数
+     * @return 业务主键，未配置时为null
+     */
+    public String getBusinessKey(Object[] arguments) {
+        if (businessKeyExpression == null) {
+            return null;
+        }
+        EvaluationContext context = new StandardEvaluationContext();
+        for (int i = 0; i < arguments.length; i++) {
+            context.setVariable(parameterNames[i], arguments[i]);
+        }
+        if (compileFailed) {
+            return interpretedBusinessKeyExpression.getValue(context, String.class);
+        }
+        try {
+            return businessKeyExpression.getValue(context, String.class);
+        } catch (EvaluationException | IllegalStateException | ClassCastException e) {
+            // 编译后的表达式按首次求值的参数类型生成，参数运行时类型变化时回退为解释执行
+            log.debug("业务主键表达式编译执行失败，改为解释执行：{}，{}", apiLog.businessKey(), e.getMessage());
+            compileFailed = true;
+            return interpretedBusinessKeyExpression.getValue(context, String.class);
+        }
+    }
+
+    /**
+     * 按参数类型转换表单参数值
+     *
+     * @param index 参数下标
+     * @param value 表单参数值
+     * @return 转换后的值
+     */
+    public Object convert(int index, String value) {
+        Converter converter = converters[index];
+        return converter == null ? value : converter.convert(parameterTypes[index], value);
+    }
+
+    /**
+     * 参数名，class中没有参数名信息时按下标命名为p0、p1...
+     */
+    private static String[] parameterNames(Method method, String[] fallbackParamNames, int count) {
+        String[] discovered = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+        if (discovered != null) {
+            return discovered;
+        }
+        if (fallbackParamNames != null && fallbackParamNames.length == count) {
+            return fallbackParamNames;
+        }
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = "p" + i;
+        }
+        return names;
+    }
+
+    /**
+     * 表单日期参数转换，支持 yyyy-MM-dd HH:mm:ss、yyyy-MM-dd 及时间戳
+     */
+    private static class DateConverter implements Converter {
+        private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+        private static final String SHORT_DATE_FORMAT = "yyyy-MM-dd";
+        private static final String TIME_STAMP_FORMAT = "^\\d+$";
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T convert(Class<T> type, Object beforeValue) {
+            if (!(beforeValue instanceof String)) {
+                return null;
+            }
+            String value = (String) beforeValue;
+            if (StringUtils.isEmpty(value)) {
+                return null;
+            }
+
+            value = value.trim();
+
+            try {
+                if (value.contains("-")) {
+                    SimpleDateFormat formatter;
+                    if (value.contains(":")) {
+                        formatter = new SimpleDateFormat(DATE_FORMAT);
+                    } else {
+                        formatter = new SimpleDateFormat(SHORT_DATE_FORMAT);
+                    }
+                    return (T) formatter.parse(value);
+                } else if (value.matches(TIME_STAMP_FORMAT)) {
+                    return (T) new Date(Long.parseLong(value));
+                }
+            } catch (Exception e) {
+                return null;
+            }
+            return null;
+        }
+    }
+}
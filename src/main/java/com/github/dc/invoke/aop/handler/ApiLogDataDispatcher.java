@@ -0,0 +1,263 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.compress.ApiLogBodyCompressor;
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import com.github.dc.invoke.util.BoundedRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ *     接口日志投递器。
+ *     未开启异步时在调用线程直接调用处理器；开启后日志写入无锁环形缓冲区，由消费线程批量调用{@link IApiLogDataHandler#handleBatch(List)}，
+ *     应用关闭时会把缓冲区剩余日志处理完。
+ *     {@link CompositeApiLogDataHandler}按其中各处理器的{@link DeliveryMode}分别投递，配置了ASYNC处理器时即使未开启异步也会启动消费线程。
+ *     开启body压缩时，在交给支持压缩的处理器前压缩，异步投递时在消费线程压缩，不占用调用线程
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:50
+ */
+@Slf4j
+@Component
+public class ApiLogDataDispatcher implements SmartLifecycle {
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ApiLogProperty.Async asyncProperty;
+    private final ApiLogBodyCompressor apiLogBodyCompressor;
+    private final BoundedRingBuffer<Event> ringBuffer;
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+
+    public ApiLogDataDispatcher(ApiLogProperty apiLogProperty, ApiLogBodyCompressor apiLogBodyCompressor) {
+        this.asyncProperty = apiLogProperty.getAsync();
+        this.apiLogBodyCompressor = apiLogBodyCompressor;
+        boolean asyncSinks = apiLogProperty.getChains().stream()
+                .flatMap(chain -> chain.getSinks().stream())
+                .anyMatch(sink -> sink.getMode() == DeliveryMode.ASYNC);
+        this.ringBuffer = asyncProperty.isEnabled() || asyncSinks ? new BoundedRingBuffer<>(asyncProperty.getBufferSize()) : null;
+    }
+
+    /**
+     * 投递日志
+     *
+     * @param handler    处理器
+     * @param apiLogData 日志数据
+     */
+    public void dispatch(IApiLogDataHandler handler, ApiLogData apiLogData) {
+        if (handler instanceof CompositeApiLogDataHandler) {
+            for (CompositeApiLogDataHandler.Sink sink : ((CompositeApiLogDataHandler) handler).getSinks()) {
+                try {
+                    this.dispatch(sink.getHandler(), apiLogData, sink.getMode());
+                } catch (Exception e) {
+                    log.warn("接口日志记录异常，处理器：{}", sink.getHandler().getClass().getName(), e);
+                }
+            }
+            return;
+        }
+        this.dispatch(handler, apiLogData, DeliveryMode.DEFAULT);
+    }
+
+    private void dispatch(IApiLogDataHandler handler, ApiLogData apiLogData, DeliveryMode mode) {
+        boolean async = mode == DeliveryMode.ASYNC || (mode == DeliveryMode.DEFAULT && asyncProperty.isEnabled());
+        if (!async || !running) {
+            this.handle(handler, apiLogData);
+            return;
+        }
+        Event event = new Event(handler, apiLogData);
+        if (ringBuffer.offer(event)) {
+            this.published();
+            return;
+        }
+        switch (asyncProperty.getOverflowPolicy()) {
+            case BLOCK:
+                while (!ringBuffer.offer(event)) {
+                    if (!running) {
+                        this.handle(handler, apiLogData);
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                this.published();
+                break;
+            case DROP_OLDEST:
+                while (!ringBuffer.offer(event)) {
+                    if (ringBuffer.poll() != null) {
+                        droppedCount.increment();
+                    }
+                }
+                this.published();
+                break;
+            case DROP_NEWEST:
+                droppedCount.increment();
+                break;
+            case CALLER_RUNS:
+            default:
+                callerRunsCount.increment();
+                this.handle(handler, apiLogData);
+                break;
+        }
+    }
+
+    /**
+     * 写入缓冲区后再检查一次是否已关闭：关闭线程可能已完成最后一次drain，此时由投递线程自行处理缓冲区剩余日志
+     */
+    private void published() {
+        publishedCount.increment();
+        if (!running) {
+            this.drain();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (ringBuffer == null || running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < Math.max(1, asyncProperty.getConsumers()); i++) {
+            Thread consumer = new Thread(this::consume, "dc-invoke-api-log-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+        log.info("接口日志异步投递已开启，缓冲区容量：{}，消费线程数：{}，溢出策略：{}", ringBuffer.capacity(), consumers.size(), asyncProperty.getOverflowPolicy());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + asyncProperty.getShutdownTimeoutMillis();
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        consumers.clear();
+        // 消费线程超时未处理完的日志在关闭线程处理
+        this.drain();
+        log.info("接口日志异步投递已关闭，已投递：{}，已处理：{}，已丢弃：{}，调用线程处理：{}",
+                getPublishedCount(), getDeliveredCount(), getDroppedCount(), getCallerRunsCount());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 先于其他bean关闭，保证关闭时处理器仍可用
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 100;
+    }
+
+    private void consume() {
+        List<Event> batch = new ArrayList<>(asyncProperty.getBatchSize());
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(asyncProperty.getIdleWaitMillis());
+        while (running) {
+            if (ringBuffer.drainTo(batch, asyncProperty.getBatchSize()) == 0) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            this.deliver(batch);
+            batch.clear();
+        }
+        this.drain();
+    }
+
+    private void drain() {
+        List<Event> batch = new ArrayList<>(asyncProperty.getBatchSize());
+        while (ringBuffer.drainTo(batch, asyncProperty.getBatchSize()) > 0) {
+            this.deliver(batch);
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<Event> batch) {
+        Map<IApiLogDataHandler, List<ApiLogData>> groups = new IdentityHashMap<>(2);
+        for (Event event : batch) {
+            groups.computeIfAbsent(event.handler, k -> new ArrayList<>(batch.size())).add(event.apiLogData);
+        }
+        for (Map.Entry<IApiLogDataHandler, List<ApiLogData>> group : groups.entrySet()) {
+            try {
+                group.getKey().handleBatch(this.compress(group.getKey(), group.getValue()));
+            } catch (Exception e) {
+                log.warn("接口日志记录异常", e);
+            }
+            deliveredCount.add(group.getValue().size());
+        }
+    }
+
+    private void handle(IApiLogDataHandler handler, ApiLogData apiLogData) {
+        handler.handle(this.compress(handler, apiLogData));
+    }
+
+    private ApiLogData compress(IApiLogDataHandler handler, ApiLogData apiLogData) {
+        return apiLogBodyCompressor.isEnabled() && handler.supportsCompressedBody() ? apiLogBodyCompressor.compress(apiLogData) : apiLogData;
+    }
+
+    private List<ApiLogData> compress(IApiLogDataHandler handler, List<ApiLogData> apiLogDataList) {
+        if (!apiLogBodyCompressor.isEnabled() || !handler.supportsCompressedBody()) {
+            return apiLogDataList;
+        }
+        List<ApiLogData> compressed = new ArrayList<>(apiLogDataList.size());
+        for (ApiLogData apiLogData : apiLogDataList) {
+            compressed.add(apiLogBodyCompressor.compress(apiLogData));
+        }
+        return compressed;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getCallerRunsCount() {
+        return callerRunsCount.sum();
+    }
+
+    public int getPendingCount() {
+        return ringBuffer == null ? 0 : ringBuffer.size();
+    }
+
+    private static final class Event {
+        private final IApiLogDataHandler handler;
+        private final ApiLogData apiLogData;
+
+        private Event(IApiLogDataHandler handler, ApiLogData apiLogData) {
+            this.handler = handler;
+            this.apiLogData = apiLogData;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.helper.ApplicationContextHelper;
+import com.github.dc.invoke.pojo.DefaultApiLogDataHandler;
+import com.github.dc.invoke.util.ReflectUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ *     日志处理器注册表。每个处理器class只解析一次并缓存：优先取spring bean，如没有则反射实例化（不含注入bean）；
+ *     配置了处理器链（api-log.chains）的class解析为{@link CompositeApiLogDataHandler}，{@link #getDirect(Class)}不展开处理器链。
+ *     处理器按单例使用，需线程安全
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 11:00
+ */
+@Slf4j
+@Component
+public class ApiLogDataHandlerRegistry {
+    private final Map<Class<? extends IApiLogDataHandler>, IApiLogDataHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<Class<? extends IApiLogDataHandler>, IApiLogDataHandler> directHandlers = new ConcurrentHashMap<>();
+    private final Map<Class<? extends IApiLogDataHandler>, List<ApiLogProperty.Sink>> chains = new HashMap<>();
+
+    public ApiLogDataHandlerRegistry(ApiLogProperty apiLogProperty) {
+        for (ApiLogProperty.Chain chain : apiLogProperty.getChains()) {
+            if (chain.getHandler() != null && !chain.getSinks().isEmpty()) {
+                chains.put(chain.getHandler(), chain.getSinks());
+            }
+        }
+        this.checkJournalDownstream(apiLogProperty.getJournal().getDownstream());
+    }
+
+    /**
+     * 获取处理器
+     *
+     * @param handlerClass 处理器class，为null时使用DefaultApiLogDataHandler
+     * @return 处理器
+     */
+    public IApiLogDataHandler get(Class<? extends IApiLogDataHandler> handlerClass) {
+        Class<? extends IApiLogDataHandler> key = handlerClass == null ? DefaultApiLogDataHandler.class : handlerClass;
+        IApiLogDataHandler handler = handlers.get(key);
+        if (handler != null) {
+            return handler;
+        }
+        // 不在computeIfAbsent中解析，获取bean时可能再次进入注册表
+        handler = this.resolve(key);
+        IApiLogDataHandler existing = handlers.putIfAbsent(key, handler);
+        return existing != null ? existing : handler;
+    }
+
+    /**
+     * 获取处理器，不展开处理器链，用于本地日志文件的下游等不能再经过处理器链的场景
+     *
+     * @param handlerClass 处理器class，为null时使用DefaultApiLogDataHandler
+     * @return 处理器
+     */
+    public IApiLogDataHandler getDirect(Class<? extends IApiLogDataHandler> handlerClass) {
+        Class<? extends IApiLogDataHandler> key = handlerClass == null ? DefaultApiLogDataHandler.class : handlerClass;
+        IApiLogDataHandler handler = directHandlers.get(key);
+        if (handler != null) {
+            return handler;
+        }
+        handler = chains.containsKey(key) ? this.instance(key) : this.get(key);
+        IApiLogDataHandler existing = directHandlers.putIfAbsent(key, handler);
+        return existing != null ? existing : handler;
+    }
+
+    /**
+     * 手动注册处理器，覆盖已缓存的处理器
+     *
+     * @param handlerClass 处理器class
+     * @param handler      处理器
+     */
+    public void register(Class<? extends IApiLogDataHandler> handlerClass, IApiLogDataHandler handler) {
+        handlers.put(handlerClass, handler);
+    }
+
+    /**
+     * 本地日志文件转发给下游时，下游如果是含本地日志文件处理器的处理器链，转发的日志会再次写入本地日志文件并无限转发
+     */
+    private void checkJournalDownstream(Class<? extends IApiLogDataHandler> downstream) {
+        Class<? extends IApiLogDataHandler> key = downstream == null ? DefaultApiLogDataHandler.class : downstream;
+        List<ApiLogProperty.Sink> sinks = chains.get(key);
+        if (sinks == null) {
+            return;
+        }
+        boolean journalSink = sinks.stream().anyMatch(sink -> sink.getHandler() != null && JournalApiLogDataHandler.class.isAssignableFrom(sink.getHandler()));
+        if (downstream != null || journalSink) {
+            throw new IllegalStateException("api-log.journal.downstream不能是处理器链的handler：" + key.getName());
+        }
+    }
+
+    private IApiLogDataHandler resolve(Class<? extends IApiLogDataHandler> handlerClass) {
+        List<ApiLogProperty.Sink> sinks = chains.get(handlerClass);
+        if (sinks == null) {
+            return this.instance(handlerClass);
+        }
+        List<CompositeApiLogDataHandler.Sink> resolved = new ArrayList<>(sinks.size());
+        for (ApiLogProperty.Sink sink : sinks) {
+            // 处理器链中的处理器不再展开为处理器链，避免循环引用
+            Class<? extends IApiLogDataHandler> sinkClass = sink.getHandler() == null ? DefaultApiLogDataHandler.class : sink.getHandler();
+            resolved.add(new CompositeApiLogDataHandler.Sink(this.instance(sinkClass), sink.getMode()));
+        }
+        log.info("接口日志处理器链：{} -> {}", handlerClass.getName(), resolved);
+        return new CompositeApiLogDataHandler(resolved);
+    }
+
+    private IApiLogDataHandler instance(Class<? extends IApiLogDataHandler> handlerClass) {
+        IApiLogDataHandler handler = ApplicationContextHelper.getBean(handlerClass);
+        if (handler != null) {
+            return handler;
+        }
+        handler = ReflectUtil.instance(handlerClass);
+        if (handler == null) {
+            log.warn("日志处理器实例化失败，改用DefaultApiLogDataHandler：{}", handlerClass.getName());
+            return new DefaultApiLogDataHandler();
+        }
+        return handler;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ *     组合处理器，把同一条日志依次交给多个处理器（如 统计 + 本地日志文件 + 落库），
+ *     各处理器相互隔离，其中一个异常不影响其他处理器。
+ *     经{@link ApiLogDataDispatcher}投递时按各处理器的{@link DeliveryMode}分别同步或异步处理
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 11:00
+ */
+@Slf4j
+public class CompositeApiLogDataHandler implements IApiLogDataHandler {
+    private final List<Sink> sinks;
+
+    public CompositeApiLogDataHandler(List<Sink> sinks) {
+        this.sinks = Collections.unmodifiableList(new ArrayList<>(sinks));
+    }
+
+    /**
+     * @return 处理器链
+     */
+    public List<Sink> getSinks() {
+        return sinks;
+    }
+
+    @Override
+    public void handle(ApiLogData apiLogData) {
+        for (Sink sink : sinks) {
+            try {
+                sink.getHandler().handle(apiLogData);
+            } catch (Exception e) {
+                log.warn("接口日志记录异常，处理器：{}", sink.getHandler().getClass().getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void handleBatch(List<ApiLogData> apiLogDataList) {
+        for (Sink sink : sinks) {
+            try {
+                sink.getHandler().handleBatch(apiLogDataList);
+            } catch (Exception e) {
+                log.warn("接口日志记录异常，处理器：{}", sink.getHandler().getClass().getName(), e);
+            }
+        }
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Sink {
+        private final IApiLogDataHandler handler;
+        private final DeliveryMode mode;
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.dc.invoke.aop.handler;
+
+/**
+ * <p>
+ *     处理器链中单个处理器的投递方式
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 11:00
+ */
+public enum DeliveryMode {
+    /**
+     * 跟随api-log.async.enabled
+     */
+    DEFAULT,
+    /**
+     * 始终在调用线程处理
+     */
+    SYNC,
+    /**
+     * 始终经环形缓冲区由消费线程批量处理
+     */
+    ASYNC
+}
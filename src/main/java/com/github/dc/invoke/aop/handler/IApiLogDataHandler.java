@@ -3,6 +3,8 @@ package com.github.dc.invoke.aop.handler;
 
 import com.github.dc.invoke.pojo.ApiLogData;
 
+import java.util.List;
+
 /**
  * api日志数据处理器
  * @author PeiYuan
@@ -14,4 +16,24 @@ public interface IApiLogDataHandler {
      * @param apiLogData 日志数据
      */
     void handle(ApiLogData apiLogData);
+
+    /**
+     * 日志数据批量处理，异步投递模式下由消费线程调用，默认逐条调用{@link #handle(ApiLogData)}。
+     * 落库等支持批量写入的处理器建议重写该方法
+     * 处理失败时应抛出异常，本地日志文件转发器据此保留检查点并重试
+     * @param apiLogDataList 日志数据
+     */
+    default void handleBatch(List<ApiLogData> apiLogDataList) {
+        for (ApiLogData apiLogData : apiLogDataList) {
+            this.handle(apiLogData);
+        }
+    }
+
+    /**
+     * 是否接收压缩后的body，开启api-log.compression时，投递器只对返回true的处理器压缩body，默认false
+     * @return 是否接收压缩后的body
+     */
+    default boolean supportsCompressedBody() {
+        return false;
+    }
 }
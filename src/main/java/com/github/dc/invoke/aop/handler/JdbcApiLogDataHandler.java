@@ -0,0 +1,269 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ *     JDBC批量落库日志处理器，写入init-sql下的DC_API_LOG表。
+ *     单条日志先进入缓存，达到批量条数或到达刷新间隔时以JDBC批量插入写库；异步投递模式下直接按批写入。
+ *     {@link #handleBatch(List)}写库失败时抛出异常，由调用方（如本地日志文件转发器）决定重试；缓存中的日志写库失败时只记录日志。
+ *     CLOB字段以字符流绑定，避免大报文在驱动层再复制一次；开启body压缩时，压缩后的body写入BLOB字段
+ *     REQUEST_BODY_COMPRESSED、RESPONSE_CONTENT_COMPRESSED（见init-sql下的log-compressed.sql），未达到压缩阈值的仍写入CLOB字段
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 10:30
+ */
+@Slf4j
+public class JdbcApiLogDataHandler implements IApiLogDataHandler, DisposableBean {
+    private static final String[] COLUMNS = {"BUSINESS_KEY", "API_CODE", "API_DESC", "URL", "METHOD", "IP",
+            "REQUEST_HEADERS", "REQUEST_QUERY", "REQUEST_BODY", "IS_SUCCESS", "RESPONSE_CONTENT", "EXCEPTION_STACK",
+            "CONSUME_TIME", "IS_INNER", "REQUEST_CONTENT_TYPE", "REQUEST_DATE", "RESPONSE_CODE", "RESPONSE_HEADERS"};
+    private static final String[] COMPRESSED_COLUMNS = {"REQUEST_BODY_COMPRESSED", "RESPONSE_CONTENT_COMPRESSED", "BODY_CODEC"};
+
+    private final DataSource dataSource;
+    private final ApiLogProperty.Jdbc jdbcProperty;
+    private final boolean compressed;
+    private final String insertSql;
+    private final BlockingQueue<ApiLogData> pending;
+    private final ScheduledExecutorService flushScheduler;
+
+    private final LongAdder insertedRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final LongAdder insertNanos = new LongAdder();
+
+    public JdbcApiLogDataHandler(DataSource dataSource, ApiLogProperty.Jdbc jdbcProperty) {
+        this(dataSource, jdbcProperty, false);
+    }
+
+    /**
+     * @param dataSource   数据源
+     * @param jdbcProperty JDBC处理器配置
+     * @param compressed   是否写入压缩后的body，表中需有log-compressed.sql增加的字段
+     */
+    public JdbcApiLogDataHandler(DataSource dataSource, ApiLogProperty.Jdbc jdbcProperty, boolean compressed) {
+        this.dataSource = dataSource;
+        this.jdbcProperty = jdbcProperty;
+        this.compressed = compressed;
+        this.insertSql = buildInsertSql(jdbcProperty, compressed);
+        this.pending = new LinkedBlockingQueue<>(Math.max(jdbcProperty.getBufferSize(), jdbcProperty.getBatchSize()));
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dc-invoke-api-log-jdbc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushScheduler.scheduleWithFixedDelay(this::flushQuietly, jdbcProperty.getFlushIntervalMillis(),
+                jdbcProperty.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void handle(ApiLogData apiLogData) {
+        while (!pending.offer(apiLogData)) {
+            this.flush();
+        }
+        if (pending.size() >= jdbcProperty.getBatchSize()) {
+            this.flush();
+        }
+    }
+
+    /**
+     * 按批写库，任一批失败时抛出{@link IllegalStateException}，此前已提交的批不回滚，重试时可能重复写入
+     */
+    @Override
+    public void handleBatch(List<ApiLogData> apiLogDataList) {
+        int batchSize = Math.max(1, jdbcProperty.getBatchSize());
+        for (int from = 0; from < apiLogDataList.size(); from += batchSize) {
+            List<ApiLogData> batch = apiLogDataList.subList(from, Math.min(from + batchSize, apiLogDataList.size()));
+            try {
+                this.insert(batch);
+            } catch (SQLException e) {
+                throw new IllegalStateException("接口日志写库失败，未写入" + (apiLogDataList.size() - from) + "条", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsCompressedBody() {
+        return compressed;
+    }
+
+    /**
+     * 把缓存中的日志全部写库
+     */
+    public void flush() {
+        List<ApiLogData> batch = new ArrayList<>(jdbcProperty.getBatchSize());
+        while (pending.drainTo(batch, jdbcProperty.getBatchSize()) > 0) {
+            try {
+                this.insert(batch);
+            } catch (SQLException e) {
+                log.warn("接口日志写库异常，丢失{}条", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flushScheduler.shutdown();
+        this.flushQuietly();
+        log.info("接口日志JDBC处理器已关闭，共写入：{}条，失败：{}条，平均吞吐：{}条/秒", getInsertedRows(), getFailedRows(), String.format("%.1f", getThroughput()));
+    }
+
+    /**
+     * @return 累计写入条数
+     */
+    public long getInsertedRows() {
+        return insertedRows.sum();
+    }
+
+    /**
+     * @return 累计写入失败条数
+     */
+    public long getFailedRows() {
+        return failedRows.sum();
+    }
+
+    /**
+     * @return 写库吞吐，单位：条/秒（按实际写库耗时计算）
+     */
+    public double getThroughput() {
+        long nanos = insertNanos.sum();
+        return nanos == 0 ? 0 : insertedRows.sum() * 1e9 / nanos;
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (Exception e) {
+            log.warn("接口日志定时写库异常", e);
+        }
+    }
+
+    private void insert(List<ApiLogData> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
+                for (ApiLogData apiLogData : batch) {
+                    this.bind(ps, apiLogData);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            long nanos = System.nanoTime() - start;
+            insertedRows.add(batch.size());
+            insertNanos.add(nanos);
+            if (log.isDebugEnabled()) {
+                log.debug("接口日志写库{}条，耗时：{}ms，吞吐：{}条/秒", batch.size(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                        String.format("%.1f", batch.size() * 1e9 / Math.max(1, nanos)));
+            }
+        } catch (SQLException e) {
+            failedRows.add(batch.size());
+            throw e;
+        }
+    }
+
+    private void bind(PreparedStatement ps, ApiLogData apiLogData) throws SQLException {
+        int i = 1;
+        ps.setString(i++, apiLogData.getBusinessKey() == null ? null : String.valueOf(apiLogData.getBusinessKey()));
+        ps.setString(i++, apiLogData.getApiCode());
+        ps.setString(i++, apiLogData.getApiDesc());
+        ps.setString(i++, apiLogData.getUrl());
+        ps.setString(i++, apiLogData.getMethod());
+        ps.setString(i++, apiLogData.getIp());
+        setClob(ps, i++, apiLogData.getRequestHeaders());
+        setClob(ps, i++, apiLogData.getRequestQuery());
+        setClob(ps, i++, apiLogData.getRequestBody());
+        setFlag(ps, i++, apiLogData.getIsSuccess());
+        setClob(ps, i++, apiLogData.getResponseContent());
+        setClob(ps, i++, apiLogData.getExceptionStack());
+        if (apiLogData.getConsumeTime() == null) {
+            ps.setNull(i++, Types.NUMERIC);
+        } else {
+            ps.setLong(i++, apiLogData.getConsumeTime());
+        }
+        setFlag(ps, i++, apiLogData.getIsInner());
+        ps.setString(i++, apiLogData.getRequestContentType());
+        ps.setTimestamp(i++, apiLogData.getRequestDate() == null ? null : new Timestamp(apiLogData.getRequestDate().getTime()));
+        ps.setString(i++, apiLogData.getResponseCode());
+        setClob(ps, i++, apiLogData.getResponseHeaders());
+        if (compressed) {
+            setBlob(ps, i++, apiLogData.getCompressedRequestBody());
+            setBlob(ps, i++, apiLogData.getCompressedResponseContent());
+            ps.setString(i, apiLogData.getBodyCodec());
+        }
+    }
+
+    private static void setClob(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            // PostgreSQL驱动把CLOB/BLOB类型的null当作oid，写入TEXT/BYTEA字段会失败，VARCHAR/VARBINARY各数据库均可用
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setCharacterStream(index, new StringReader(value), value.length());
+        }
+    }
+
+    private static void setBlob(PreparedStatement ps, int index, byte[] value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARBINARY);
+        } else {
+            ps.setBytes(index, value);
+        }
+    }
+
+    private static void setFlag(PreparedStatement ps, int index, Boolean value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.NUMERIC);
+        } else {
+            ps.setInt(index, value ? 1 : 0);
+        }
+    }
+
+    private static String buildInsertSql(ApiLogProperty.Jdbc jdbcProperty, boolean compressed) {
+        boolean withId = StringUtils.isNotBlank(jdbcProperty.getIdExpression());
+        String[] columns = compressed ? ArrayUtils.addAll(COLUMNS, COMPRESSED_COLUMNS) : COLUMNS;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(jdbcProperty.getTableName()).append(" (");
+        if (withId) {
+            sql.append("ID, ");
+        }
+        sql.append(String.join(", ", columns)).append(") VALUES (");
+        if (withId) {
+            sql.append(jdbcProperty.getIdExpression()).append(", ");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.journal.ApiLogJournal;
+import com.github.dc.invoke.journal.ApiLogJournalShipper;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ *     本地日志文件处理器。
+ *     请求线程只把日志追加到内存映射的本地日志文件，后台线程定时把日志转发给下游处理器（如落库处理器），
+ *     下游慢或不可用时日志留在本地，恢复后继续转发，应用重启后从检查点继续
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 12:00
+ */
+@Slf4j
+public class JournalApiLogDataHandler implements IApiLogDataHandler, DisposableBean {
+    private final ApiLogJournal journal;
+    private final ApiLogJournalShipper shipper;
+    private final ScheduledExecutorService shipScheduler;
+
+    public JournalApiLogDataHandler(ApiLogProperty.Journal journalProperty, Supplier<IApiLogDataHandler> downstream) throws IOException {
+        this.journal = new ApiLogJournal(Paths.get(journalProperty.getDirectory()), journalProperty.getSegmentSize());
+        this.shipper = new ApiLogJournalShipper(journal, downstream, journalProperty.getShipBatchSize());
+        this.shipScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dc-invoke-api-log-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shipScheduler.scheduleWithFixedDelay(this::shipQuietly, journalProperty.getShipIntervalMillis(),
+                journalProperty.getShipIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void handle(ApiLogData apiLogData) {
+        try {
+            journal.append(apiLogData);
+        } catch (IOException e) {
+            throw new UncheckedIOException("接口日志写入本地日志文件异常", e);
+        }
+    }
+
+    @Override
+    public void handleBatch(List<ApiLogData> apiLogDataList) {
+        for (ApiLogData apiLogData : apiLogDataList) {
+            this.handle(apiLogData);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        shipScheduler.shutdown();
+        try {
+            shipScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.shipQuietly();
+        journal.close();
+    }
+
+    private void shipQuietly() {
+        try {
+            int shipped = shipper.ship();
+            if (shipped > 0 && log.isDebugEnabled()) {
+                log.debug("本地日志文件转发{}条", shipped);
+            }
+        } catch (Exception e) {
+            log.warn("本地日志文件转发异常，稍后重试", e);
+        }
+    }
+}
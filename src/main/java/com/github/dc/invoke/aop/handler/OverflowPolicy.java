@@ -0,0 +1,28 @@
+package com.github.dc.invoke.aop.handler;
+
+/**
+ * <p>
+ *     异步投递缓冲区已满时的处理策略
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:35
+ */
+public enum OverflowPolicy {
+    /**
+     * 阻塞调用线程直到缓冲区有空位
+     */
+    BLOCK,
+    /**
+     * 丢弃缓冲区中最早的日志
+     */
+    DROP_OLDEST,
+    /**
+     * 丢弃当前日志
+     */
+    DROP_NEWEST,
+    /**
+     * 在调用线程同步处理当前日志
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,91 @@
+package com.github.dc.invoke.compress;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ *     接口日志body压缩。请求body、返回内容按UTF-8编码后达到minSize字节时压缩到
+ *     {@link ApiLogData#getCompressedRequestBody()}、{@link ApiLogData#getCompressedResponseContent()}，并清空对应的文本；
+ *     小于minSize或压缩后没有变小的保持文本。
+ *     由投递器在交给支持压缩的处理器前调用，异步投递时在消费线程执行
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 16:00
+ */
+@Slf4j
+@Component
+public class ApiLogBodyCompressor {
+    private final ApiLogProperty.Compression property;
+    private final BodyCodec codec;
+
+    public ApiLogBodyCompressor(ApiLogProperty apiLogProperty, ObjectProvider<BodyCodec> bodyCodecs) {
+        this.property = apiLogProperty.getCompression();
+        bodyCodecs.orderedStream().forEach(BodyCodecs::register);
+        if (!property.isEnabled()) {
+            this.codec = null;
+        } else if (GzipBodyCodec.NAME.equals(property.getCodec())) {
+            this.codec = new GzipBodyCodec(property.getLevel());
+        } else if (DeflateBodyCodec.NAME.equals(property.getCodec())) {
+            this.codec = new DeflateBodyCodec(property.getLevel());
+        } else {
+            this.codec = BodyCodecs.get(property.getCodec());
+        }
+    }
+
+    public boolean isEnabled() {
+        return property.isEnabled();
+    }
+
+    /**
+     * 压缩body，不修改原日志（组合处理器中其他处理器可能同时使用）
+     *
+     * @param apiLogData 接口日志
+     * @return 压缩后的日志，未开启、已压缩或不需要压缩时返回原日志
+     */
+    public ApiLogData compress(ApiLogData apiLogData) {
+        if (!property.isEnabled() || apiLogData.getBodyCodec() != null) {
+            return apiLogData;
+        }
+        byte[] requestBody = this.compress(apiLogData.getRequestBody());
+        byte[] responseContent = this.compress(apiLogData.getResponseContent());
+        if (requestBody == null && responseContent == null) {
+            return apiLogData;
+        }
+        ApiLogData.ApiLogDataBuilder builder = apiLogData.toBuilder().bodyCodec(codec.name());
+        if (requestBody != null) {
+            builder.requestBody(null).requestBodySupplier(null).compressedRequestBody(requestBody);
+        }
+        if (responseContent != null) {
+            builder.responseContent(null).compressedResponseContent(responseContent);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return 压缩后的字节，不需要压缩时为null
+     */
+    private byte[] compress(String value) {
+        // UTF-8字节数不超过字符数的3倍，可以不编码就跳过明显小于阈值的body
+        if (value == null || value.length() * 3L < property.getMinSize()) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < property.getMinSize()) {
+            return null;
+        }
+        try {
+            byte[] compressed = codec.compress(bytes);
+            return compressed.length < bytes.length ? compressed : null;
+        } catch (RuntimeException e) {
+            log.warn("接口日志body压缩异常，按文本记录", e);
+            return null;
+        }
+    }
+}
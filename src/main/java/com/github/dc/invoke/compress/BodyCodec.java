@@ -0,0 +1,34 @@
+package com.github.dc.invoke.compress;
+
+/**
+ * <p>
+ *     日志body压缩算法。内置gzip、deflate，自定义算法（如lz4、zstd）实现该接口并注册为spring bean，
+ *     名称与api-log.compression.codec一致时使用
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 16:00
+ */
+public interface BodyCodec {
+
+    /**
+     * @return 算法名称，随压缩后的日志一起保存，读取时按名称解压
+     */
+    String name();
+
+    /**
+     * 压缩
+     *
+     * @param data 原始字节
+     * @return 压缩后的字节
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * 解压
+     *
+     * @param data 压缩后的字节
+     * @return 原始字节
+     */
+    byte[] decompress(byte[] data);
+}
@@ -0,0 +1,82 @@
+package com.github.dc.invoke.compress;
+
+import com.github.dc.invoke.pojo.ApiLogData;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ *     压缩算法注册表及读取工具：按日志中保存的算法名称解压body，未压缩时原样返回文本。
+ *     内置gzip、deflate，自定义算法由{@link ApiLogBodyCompressor}在启动时注册，
+ *     脱离spring读取数据库中的日志时可调用{@link #register(BodyCodec)}注册
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 16:00
+ */
+public final class BodyCodecs {
+    private static final Map<String, BodyCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        register(new GzipBodyCodec());
+        register(new DeflateBodyCodec());
+    }
+
+    private BodyCodecs() {
+    }
+
+    /**
+     * 注册压缩算法，同名时覆盖
+     *
+     * @param codec 压缩算法
+     */
+    public static void register(BodyCodec codec) {
+        CODECS.put(codec.name(), codec);
+    }
+
+    /**
+     * @param name 算法名称
+     * @return 压缩算法
+     * @throws IllegalArgumentException 未注册该算法
+     */
+    public static BodyCodec get(String name) {
+        BodyCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("未注册的压缩算法：" + name);
+        }
+        return codec;
+    }
+
+    /**
+     * @param apiLogData 接口日志
+     * @return 请求body，已压缩时解压
+     */
+    public static String requestBody(ApiLogData apiLogData) {
+        return read(apiLogData.getRequestBody(), apiLogData.getCompressedRequestBody(), apiLogData.getBodyCodec());
+    }
+
+    /**
+     * @param apiLogData 接口日志
+     * @return 返回内容，已压缩时解压
+     */
+    public static String responseContent(ApiLogData apiLogData) {
+        return read(apiLogData.getResponseContent(), apiLogData.getCompressedResponseContent(), apiLogData.getBodyCodec());
+    }
+
+    /**
+     * 读取body，用于从数据库读取时按列还原：REQUEST_BODY、REQUEST_BODY_COMPRESSED、BODY_CODEC
+     *
+     * @param text       未压缩的文本
+     * @param compressed 压缩后的字节
+     * @param codec      压缩算法名称
+     * @return 文本，都为空时返回null
+     */
+    public static String read(String text, byte[] compressed, String codec) {
+        if (compressed == null) {
+            return text;
+        }
+        return new String(get(codec).decompress(compressed), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.dc.invoke.compress;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>
+ *     gzip压缩，数据库中的压缩内容可直接用gunzip等工具解压
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 16:00
+ */
+public class GzipBodyCodec implements BodyCodec {
+    public static final String NAME = "gzip";
+
+    private final int level;
+
+    public GzipBodyCodec() {
+        this(Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param level 压缩级别，0~9，-1为默认级别
+     */
+    public GzipBodyCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return IOUtils.toByteArray(gzip);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("gzip数据格式错误", e);
+        }
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        private LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
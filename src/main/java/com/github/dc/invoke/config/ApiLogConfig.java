@@ -0,0 +1,58 @@
+package com.github.dc.invoke.config;
+
+import com.github.dc.invoke.aop.handler.ApiLogDataHandlerRegistry;
+import com.github.dc.invoke.aop.handler.JdbcApiLogDataHandler;
+import com.github.dc.invoke.aop.handler.JournalApiLogDataHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * <p>
+ * 接口日志配置类
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:42
+ */
+@Configuration
+@EnableConfigurationProperties(ApiLogProperty.class)
+public class ApiLogConfig {
+
+    /**
+     * 内置JDBC批量落库处理器，懒加载，仅在以handler = JdbcApiLogDataHandler.class记录日志时创建
+     *
+     * @param dataSource     数据源
+     * @param apiLogProperty 接口日志配置
+     * @return JDBC批量落库处理器
+     */
+    @Bean
+    @Lazy
+    public JdbcApiLogDataHandler jdbcApiLogDataHandler(ObjectProvider<DataSource> dataSource, ApiLogProperty apiLogProperty) {
+        DataSource available = dataSource.getIfUnique();
+        if (available == null) {
+            throw new IllegalStateException("JdbcApiLogDataHandler需要唯一的DataSource bean");
+        }
+        return new JdbcApiLogDataHandler(available, apiLogProperty.getJdbc(), apiLogProperty.getCompression().isEnabled());
+    }
+
+    /**
+     * 本地日志文件处理器，懒加载，仅在以handler = JournalApiLogDataHandler.class记录日志时创建
+     *
+     * @param apiLogProperty            接口日志配置
+     * @param apiLogDataHandlerRegistry 日志处理器注册表
+     * @return 本地日志文件处理器
+     * @throws IOException 日志文件目录不可用
+     */
+    @Bean
+    @Lazy
+    public JournalApiLogDataHandler journalApiLogDataHandler(ApiLogProperty apiLogProperty, ApiLogDataHandlerRegistry apiLogDataHandlerRegistry) throws IOException {
+        ApiLogProperty.Journal journal = apiLogProperty.getJournal();
+        return new JournalApiLogDataHandler(journal, () -> apiLogDataHandlerRegistry.getDirect(journal.getDownstream()));
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.dc.invoke.config;
+
+import com.github.dc.invoke.aop.handler.DeliveryMode;
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.aop.handler.OverflowPolicy;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 接口日志配置类
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:40
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log")
+public class ApiLogProperty {
+
+    /**
+     * 异步投递配置
+     */
+    private Async async = new Async();
+
+    /**
+     * 内置JDBC批量落库处理器配置
+     */
+    private Jdbc jdbc = new Jdbc();
+
+    /**
+     * 本地日志文件处理器配置
+     */
+    private Journal journal = new Journal();
+
+    /**
+     * 进程内调用统计配置
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * &#64;ApiLog接口的请求body缓存配置
+     */
+    private RequestBody requestBody = new RequestBody();
+
+    /**
+     * 处理器链，以链中handler记录日志时依次交给sinks中的处理器
+     */
+    private List<Chain> chains = new ArrayList<>();
+
+    /**
+     * 日志采样配置
+     */
+    private Sampling sampling = new Sampling();
+
+    /**
+     * 请求body、返回内容压缩配置
+     */
+    private Compression compression = new Compression();
+
+    @Data
+    public static class Async {
+        /**
+         * 是否开启异步投递，默认关闭（在调用线程同步处理日志）
+         */
+        private boolean enabled = false;
+        /**
+         * 环形缓冲区容量，向上取整为2的幂
+         */
+        private int bufferSize = 8192;
+        /**
+         * 消费线程数
+         */
+        private int consumers = 1;
+        /**
+         * 单批最大条数
+         */
+        private int batchSize = 256;
+        /**
+         * 缓冲区为空时消费线程的等待时间，单位ms
+         */
+        private long idleWaitMillis = 10;
+        /**
+         * 缓冲区已满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+        /**
+         * 应用关闭时等待缓冲区日志处理完成的最长时间，单位ms
+         */
+        private long shutdownTimeoutMillis = 10000;
+    }
+
+    @Data
+    public static class Jdbc {
+        /**
+         * 日志表名
+         */
+        private String tableName = "DC_API_LOG";
+        /**
+         * 主键取值表达式，如oracle序列：DC_API_LOG_S.NEXTVAL；为空时不插入主键，由数据库自增
+         */
+        private String idExpression;
+        /**
+         * 单批最大插入条数
+         */
+        private int batchSize = 500;
+        /**
+         * 定时刷新待插入日志的间隔，单位ms
+         */
+        private long flushIntervalMillis = 1000;
+        /**
+         * 待插入日志的最大缓存条数，超过时在调用线程刷新
+         */
+        private int bufferSize = 10000;
+    }
+
+    @Data
+    public static class Journal {
+        /**
+         * 日志文件目录
+         */
+        private String directory = "api-log-journal";
+        /**
+         * 分段文件大小，单位字节，默认64MB
+         */
+        private int segmentSize = 64 * 1024 * 1024;
+        /**
+         * 下游处理器，默认DefaultApiLogDataHandler。直接使用该处理器，不展开处理器链，也不能是处理器链的handler
+         */
+        private Class<? extends IApiLogDataHandler> downstream;
+        /**
+         * 转发间隔，单位ms
+         */
+        private long shipIntervalMillis = 1000;
+        /**
+         * 单批转发条数
+         */
+        private int shipBatchSize = 500;
+    }
+
+    @Data
+    public static class RequestBody {
+        /**
+         * 内存中最多缓存的body字节数，超过时写入临时文件，日志只记录前spillThreshold字节，默认1MB
+         */
+        private int spillThreshold = 1024 * 1024;
+        /**
+         * 临时文件目录，为空时使用java.io.tmpdir
+         */
+        private String tempDirectory;
+    }
+
+    @Data
+    public static class Chain {
+        /**
+         * &#64;ApiLog或接口日志设置中指定的处理器
+         */
+        private Class<? extends IApiLogDataHandler> handler;
+        /**
+         * 实际处理日志的处理器，按顺序调用
+         */
+        private List<Sink> sinks = new ArrayList<>();
+    }
+
+    @Data
+    public static class Sink {
+        /**
+         * 处理器，可以是链的handler本身
+         */
+        private Class<? extends IApiLogDataHandler> handler;
+        /**
+         * 投递方式：DEFAULT跟随async.enabled，SYNC在调用线程处理，ASYNC由消费线程批量处理
+         */
+        private DeliveryMode mode = DeliveryMode.DEFAULT;
+    }
+
+    @Data
+    public static class SamplingPolicy {
+        /**
+         * 完整记录的调用比例（百分比，0~100），其余调用不采集body及头
+         */
+        private double successPercent = 100;
+        /**
+         * 每秒最多完整记录的调用数，0不限制，超过的调用按未采样处理
+         */
+        private int maxPerSecond = 0;
+        /**
+         * 未采样的调用失败时是否仍记录（只有元数据及异常堆栈）
+         */
+        private boolean keepErrors = true;
+        /**
+         * 未采样的调用耗时达到该值时仍记录（只有元数据），单位ms，0不记录
+         */
+        private long slowThresholdMillis = 0;
+        /**
+         * 是否只记录元数据，开启后采样的调用也不采集body及头
+         */
+        private boolean metadataOnly = false;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Sampling extends SamplingPolicy {
+        /**
+         * 是否开启，默认关闭（全部完整记录）。调用统计不受采样影响
+         */
+        private boolean enabled = false;
+        /**
+         * 按接口代码单独配置的采样策略，未配置的项使用SamplingPolicy默认值
+         */
+        private Map<String, SamplingPolicy> apiCodes = new HashMap<>();
+    }
+
+    @Data
+    public static class Compression {
+        /**
+         * 是否开启，默认关闭。开启后交给支持压缩的处理器（JdbcApiLogDataHandler）的日志压缩body，
+         * 表结构需先执行init-sql下的log-compressed.sql
+         */
+        private boolean enabled = false;
+        /**
+         * 压缩算法：gzip、deflate或自定义BodyCodec bean的名称
+         */
+        private String codec = "gzip";
+        /**
+         * gzip、deflate的压缩级别，0~9，-1为默认级别
+         */
+        private int level = 1;
+        /**
+         * 按UTF-8编码后小于该字节数的body不压缩
+         */
+        private int minSize = 1024;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * 是否开启，默认关闭。开启后按 接口代码 + host + 方向 统计耗时分布、调用次数、失败次数、按状态码的次数及收发字节数
+         */
+        private boolean enabled = false;
+        /**
+         * 最多统计的key数，超过后新的key统一记到OTHER
+         */
+        private int maxKeys = 2000;
+        /**
+         * 存在Micrometer时是否注册到Micrometer
+         */
+        private boolean micrometer = true;
+        /**
+         * 注册到Micrometer的耗时百分位
+         */
+        private List<Double> percentiles = new ArrayList<>(Arrays.asList(50.0, 90.0, 99.0));
+    }
+}
@@ -5,9 +5,6 @@ import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import javax.net.ssl.*;
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 
@@ -20,6 +17,21 @@ import java.security.cert.X509Certificate;
  * @date 2024/1/3 17:50
  */
 public class HttpsClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+    /**
+     * 默认跳过证书认证的共享SSLContext
+     */
+    private static final SslContextHolder TRUST_ALL = new SslContextHolder(new RestTemplateProperty.Ssl());
+
+    private final SslContextHolder sslContextHolder;
+
+    public HttpsClientHttpRequestFactory() {
+        this(TRUST_ALL);
+    }
+
+    public HttpsClientHttpRequestFactory(SslContextHolder sslContextHolder) {
+        this.sslContextHolder = sslContextHolder;
+    }
+
     @Override
     protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
         if (connection instanceof HttpsURLConnection) {
@@ -29,26 +41,22 @@ public class HttpsClientHttpRequestFactory extends SimpleClientHttpRequestFactor
     }
 
     private void prepareHttpsConnection(HttpsURLConnection connection) {
-        connection.setHostnameVerifier(getHostnameVerifier());
+        HostnameVerifier hostnameVerifier = sslContextHolder.getHostnameVerifier();
+        if (hostnameVerifier != null) {
+            connection.setHostnameVerifier(hostnameVerifier);
+        }
         try {
-            connection.setSSLSocketFactory(getSocketFactory());
+            connection.setSSLSocketFactory(sslContextHolder.getSocketFactory());
         } catch (Exception ex) {
             // Ignore
         }
     }
 
+    /**
+     * @return 跳过证书认证的共享SSLSocketFactory
+     */
     public static SSLSocketFactory getSocketFactory() {
-        SSLSocketFactory socketFactory = null;
-        try {
-            SSLContext sslContext = SSLContext.getInstance("SSL");
-            sslContext.init(null, new TrustManager[]{ getX509TrustManager() }, new SecureRandom());
-            socketFactory = sslContext.getSocketFactory();
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        } catch (KeyManagementException e) {
-            e.printStackTrace();
-        }
-        return socketFactory;
+        return TRUST_ALL.getSocketFactory();
     }
 
     public static HostnameVerifier getHostnameVerifier() {
@@ -0,0 +1,44 @@
+package com.github.dc.invoke.config;
+
+import com.github.dc.invoke.metrics.CallMetricsRegistry;
+import com.github.dc.invoke.metrics.MicrometerCallMetricsBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <p>
+ * 调用统计的Micrometer桥接配置类，仅在存在Micrometer时生效
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@Configuration
+@Conditional(MicrometerMetricsConfig.OnMicrometer.class)
+public class MicrometerMetricsConfig {
+    private static final String METER_REGISTRY_CLASS = "io.micrometer.core.instrument.MeterRegistry";
+
+    /**
+     * 调用统计注册到Micrometer，使用Spring Boot Actuator时自动绑定到MeterRegistry
+     *
+     * @param callMetricsRegistry 调用统计
+     * @param apiLogProperty      接口日志配置
+     * @return MeterBinder
+     */
+    @Bean
+    public MicrometerCallMetricsBinder micrometerCallMetricsBinder(CallMetricsRegistry callMetricsRegistry, ApiLogProperty apiLogProperty) {
+        return new MicrometerCallMetricsBinder(callMetricsRegistry, apiLogProperty.getMetrics());
+    }
+
+    static class OnMicrometer implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return ClassUtils.isPresent(METER_REGISTRY_CLASS, context.getClassLoader());
+        }
+    }
+}
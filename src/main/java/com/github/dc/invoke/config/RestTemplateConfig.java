@@ -1,10 +1,22 @@
 package com.github.dc.invoke.config;
 
 import com.alibaba.fastjson2.support.spring.http.converter.FastJsonHttpMessageConverter;
+import com.github.dc.invoke.resttemplate.coalesce.RequestCoalescer;
 import com.github.dc.invoke.resttemplate.error.handler.DefaultErrorHandler;
+import com.github.dc.invoke.resttemplate.interceptor.CircuitBreakerClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.interceptor.CoalescingClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.resilience.CircuitBreakerRegistry;
 import com.github.dc.invoke.resttemplate.interceptor.DefaultClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.interceptor.TimeoutClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.timeout.CallTimeoutInterceptor;
+import com.github.dc.invoke.resttemplate.timeout.TimeoutResolver;
+import com.github.dc.invoke.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
@@ -22,6 +34,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -31,31 +48,113 @@ import java.util.List;
  *
  * @author wpyuan 2020/04/15 14:53
  */
+@Slf4j
 @Configuration
 @DependsOn({"defaultClientHttpRequestInterceptor"})
 @EnableConfigurationProperties(RestTemplateProperty.class)
 public class RestTemplateConfig {
+    private static final String HTTP_MAX_CONNECTIONS = "http.maxConnections";
 
     @Autowired
     private DefaultClientHttpRequestInterceptor defaultClientHttpRequestInterceptor;
 
+    /**
+     * 共享的SSLContext，所有RestTemplate复用，使TLS会话复用生效
+     *
+     * @param restTemplateProperty
+     * @return SSLContext持有者
+     */
+    @Bean("dcSslContextHolder")
+    public SslContextHolder dcSslContextHolder(RestTemplateProperty restTemplateProperty) {
+        return new SslContextHolder(restTemplateProperty.getSsl());
+    }
+
+    /**
+     * OkHttp客户端，连接池、调度器、超时等按rest-template配置
+     *
+     * @param restTemplateProperty
+     * @param dcSslContextHolder
+     * @param timeoutResolver 单次调用超时
+     * @return OkHttp客户端
+     */
+    @Bean("dcOkHttpClient")
+    public OkHttpClient dcOkHttpClient(RestTemplateProperty restTemplateProperty, @Qualifier("dcSslContextHolder") SslContextHolder dcSslContextHolder,
+                                       TimeoutResolver timeoutResolver) {
+        Dispatcher dispatcher = this.useVirtualThreads(restTemplateProperty) ? new Dispatcher(VirtualThreads.newThreadPerTaskExecutor("dc-invoke-okhttp-")) : new Dispatcher();
+        dispatcher.setMaxRequests(restTemplateProperty.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(restTemplateProperty.getMaxRequestsPerHost());
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .sslSocketFactory(dcSslContextHolder.getSocketFactory(), dcSslContextHolder.getTrustManager());
+        // 默认支持https请求，绕过验证
+        if (dcSslContextHolder.getHostnameVerifier() != null) {
+            builder.hostnameVerifier(dcSslContextHolder.getHostnameVerifier());
+        }
+        return builder
+                .connectionPool(new ConnectionPool(restTemplateProperty.getMaxIdleConnections(), restTemplateProperty.getKeepAliveDuration(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(restTemplateProperty.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(restTemplateProperty.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(restTemplateProperty.getWriteTimeout(), TimeUnit.MILLISECONDS)
+                .callTimeout(restTemplateProperty.getCallTimeout(), TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(restTemplateProperty.isRetryOnConnectionFailure())
+                // 按接口代码、host或单次设置的超时时间，不重建客户端
+                .addInterceptor(new CallTimeoutInterceptor(timeoutResolver))
+                .build();
+    }
+
+    /**
+     * 共享线程池，用于分段下载等需要在调用线程之外发起请求的场景，应用关闭时随容器shutdown
+     *
+     * @param restTemplateProperty RestTemplate配置
+     * @return 线程池
+     */
+    @Bean("dcInvokeExecutor")
+    public ExecutorService dcInvokeExecutor(RestTemplateProperty restTemplateProperty) {
+        if (this.useVirtualThreads(restTemplateProperty)) {
+            return VirtualThreads.newThreadPerTaskExecutor("dc-invoke-virtual-");
+        }
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(restTemplateProperty.getExecutorPoolSize(), restTemplateProperty.getExecutorPoolSize(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "dc-invoke-executor-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * 基于OkHttp3配置RestTemplate
      *
+     * @param restTemplateProperty RestTemplate配置
+     * @param dcOkHttpClient       共享的OkHttpClient
+     * @param requestCoalescer     相同请求合并
+     * @param circuitBreakerRegistry 熔断器注册表
+     * @param timeoutResolver  单次调用超时
      * @return RestTemplate okHttp客户端
      */
     @Bean("dcRestTemplate")
-    public RestTemplate restTemplate(RestTemplateProperty restTemplateProperty) {
+    public RestTemplate restTemplate(RestTemplateProperty restTemplateProperty, @Qualifier("dcOkHttpClient") OkHttpClient dcOkHttpClient,
+                                     RequestCoalescer requestCoalescer, CircuitBreakerRegistry circuitBreakerRegistry, TimeoutResolver timeoutResolver) {
         RestTemplate restTemplate = init();
-        // 支持https请求，绕过验证
-        OkHttpClient client = new OkHttpClient.Builder()
-                .sslSocketFactory(HttpsClientHttpRequestFactory.getSocketFactory(), HttpsClientHttpRequestFactory.getX509TrustManager())
-                .hostnameVerifier(HttpsClientHttpRequestFactory.getHostnameVerifier())
-                .build();
-        OkHttp3ClientHttpRequestFactory okHttp3ClientHttpRequestFactory = new OkHttp3ClientHttpRequestFactory(client);
-        okHttp3ClientHttpRequestFactory.setConnectTimeout(restTemplateProperty.getConnectTimeout());
-        okHttp3ClientHttpRequestFactory.setReadTimeout(restTemplateProperty.getReadTimeout());
-        restTemplate.setRequestFactory(new BufferingClientHttpRequestFactory(okHttp3ClientHttpRequestFactory));
+        // 位于日志拦截器之后，此时接口日志设置尚未清除
+        restTemplate.getInterceptors().add(new TimeoutClientHttpRequestInterceptor(timeoutResolver));
+        if (restTemplateProperty.getCircuitBreaker().isEnabled()) {
+            // 位于日志拦截器之后，快速失败的调用同样记录日志
+            restTemplate.getInterceptors().add(new CircuitBreakerClientHttpRequestInterceptor(circuitBreakerRegistry));
+        }
+        if (restTemplateProperty.getCoalesce().isEnabled()) {
+            // 位于日志拦截器之后，被合并的请求各自记录日志
+            restTemplate.getInterceptors().add(new CoalescingClientHttpRequestInterceptor(requestCoalescer));
+        }
+        OkHttp3ClientHttpRequestFactory okHttp3ClientHttpRequestFactory = new OkHttp3ClientHttpRequestFactory(dcOkHttpClient);
+        if (restTemplateProperty.getResponseCaptureMode() == RestTemplateProperty.ResponseCaptureMode.STREAMING) {
+            // 拦截器边读边记录响应，不需要缓存整个响应
+            restTemplate.setRequestFactory(okHttp3ClientHttpRequestFactory);
+        } else {
+            restTemplate.setRequestFactory(new BufferingClientHttpRequestFactory(okHttp3ClientHttpRequestFactory));
+        }
 
         return restTemplate;
     }
@@ -64,12 +163,14 @@ public class RestTemplateConfig {
      * 基于HttpURLConnection配置RestTemplate（不缓存请求body，不会出现大文件下载OOM）
      *
      * @param restTemplateProperty
+     * @param dcSslContextHolder
      * @return
      */
     @Bean("downBigFileRestTemplate")
-    public RestTemplate downBigFileRestTemplate(RestTemplateProperty restTemplateProperty) {
+    public RestTemplate downBigFileRestTemplate(RestTemplateProperty restTemplateProperty, @Qualifier("dcSslContextHolder") SslContextHolder dcSslContextHolder) {
         RestTemplate restTemplate = init();
-        HttpsClientHttpRequestFactory httpsClientHttpRequestFactory = new HttpsClientHttpRequestFactory();
+        this.applyUrlConnectionPool(restTemplateProperty);
+        HttpsClientHttpRequestFactory httpsClientHttpRequestFactory = new HttpsClientHttpRequestFactory(dcSslContextHolder);
         httpsClientHttpRequestFactory.setReadTimeout(restTemplateProperty.getReadTimeout());
         httpsClientHttpRequestFactory.setConnectTimeout(restTemplateProperty.getConnectTimeout());
         httpsClientHttpRequestFactory.setBufferRequestBody(false);
@@ -81,26 +182,59 @@ public class RestTemplateConfig {
      * 基于HttpURLConnection配置RestTemplate（不缓存请求body，不会出现大文件上传OOM）
      *
      * @param restTemplateProperty
+     * @param dcSslContextHolder
      * @return
      */
     @Bean("uploadBigFileRestTemplate")
-    public RestTemplate uploadBigFileRestTemplate(RestTemplateProperty restTemplateProperty) {
+    public RestTemplate uploadBigFileRestTemplate(RestTemplateProperty restTemplateProperty, @Qualifier("dcSslContextHolder") SslContextHolder dcSslContextHolder) {
         RestTemplate restTemplate = this.init();
-        HttpsClientHttpRequestFactory httpsClientHttpRequestFactory = new HttpsClientHttpRequestFactory();
+        this.applyUrlConnectionPool(restTemplateProperty);
+        HttpsClientHttpRequestFactory httpsClientHttpRequestFactory = new HttpsClientHttpRequestFactory(dcSslContextHolder);
         httpsClientHttpRequestFactory.setReadTimeout(restTemplateProperty.getReadTimeout());
         httpsClientHttpRequestFactory.setConnectTimeout(restTemplateProperty.getConnectTimeout());
         httpsClientHttpRequestFactory.setBufferRequestBody(false);
-        // 设置OutputStreaming为false，不以流模式传输文件，避免接口服务提供端不支持，导致Error writing request body to server。
-        // 如果接口服务提供端支持流的传输方式，建议设置OutputStreaming为true（默认值）且头不要指定content-length。
-        //   这样当头没有指定content-length时，以ChunkedStreamingMode分块流模式传输文件，避免OOM；
-        //   如果指定了content-length且大文件时，以FixedLengthStreamingMode一次性加载到内存的模式，会出现IOException: too many bytes written。
-        httpsClientHttpRequestFactory.setOutputStreaming(false);
+        // 以流模式传输文件，避免OOM：RestTemplateHelper按精确计算的content-length以FixedLengthStreamingMode发送，
+        // 配置rest-template.upload-chunked=true且对方服务端支持时，不指定content-length，以ChunkedStreamingMode分块发送
+        httpsClientHttpRequestFactory.setOutputStreaming(true);
         restTemplate.setRequestFactory(httpsClientHttpRequestFactory);
         // 不能有拦截器，不然等文件大过运行内存必出现OOM
         restTemplate.setInterceptors(new ArrayList<>());
         return restTemplate;
     }
 
+    /**
+     * HttpURLConnection的连接复用由JDK全局管理，只能通过JVM全局系统属性http.maxConnections调整，
+     * 仅在用户显式配置rest-template.url-connection-max-connections时设置，且只在当前JVM首次建立HTTP连接前设置才生效
+     *
+     * @param restTemplateProperty
+     */
+    private void applyUrlConnectionPool(RestTemplateProperty restTemplateProperty) {
+        Integer maxConnections = restTemplateProperty.getUrlConnectionMaxConnections();
+        if (maxConnections == null || maxConnections <= 0) {
+            return;
+        }
+        String current = System.getProperty(HTTP_MAX_CONNECTIONS);
+        if (current != null) {
+            if (!current.equals(String.valueOf(maxConnections))) {
+                log.warn("系统属性{}已指定为{}，rest-template.url-connection-max-connections配置不生效", HTTP_MAX_CONNECTIONS, current);
+            }
+            return;
+        }
+        System.setProperty(HTTP_MAX_CONNECTIONS, String.valueOf(maxConnections));
+        log.info("已设置JVM全局系统属性{}={}，仅对之后首次建立的HTTP连接生效", HTTP_MAX_CONNECTIONS, maxConnections);
+    }
+
+    private boolean useVirtualThreads(RestTemplateProperty restTemplateProperty) {
+        if (!restTemplateProperty.isVirtualThreads()) {
+            return false;
+        }
+        if (!VirtualThreads.isSupported()) {
+            log.warn("当前运行时不支持虚拟线程（需Java 21及以上），rest-template.virtual-threads配置不生效");
+            return false;
+        }
+        return true;
+    }
+
     private List<HttpMessageConverter<?>> setMessageConverter() {
         FastJsonHttpMessageConverter fastJsonHttpMessageConverter = new FastJsonHttpMessageConverter();
         fastJsonHttpMessageConverter.setSupportedMediaTypes(Arrays.asList(MediaType.APPLICATION_JSON_UTF8));
@@ -1,7 +1,20 @@
 package com.github.dc.invoke.config;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -15,8 +28,391 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class RestTemplateProperty {
     private static final int DEFAULT_CONNECT_TIMEOUT = 60000;
     private static final int DEFAULT_READ_TIMEOUT = 60000;
+    private static final int DEFAULT_WRITE_TIMEOUT = 10000;
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+    private static final int DEFAULT_EXECUTOR_POOL_SIZE = 16;
 
     private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
     private int readTimeout = DEFAULT_READ_TIMEOUT;
+    /**
+     * 写超时时间，单位ms，仅dcRestTemplate（OkHttp）生效
+     */
+    private int writeTimeout = DEFAULT_WRITE_TIMEOUT;
+    /**
+     * 整个调用（含DNS、连接、写请求、读响应）的超时时间，单位ms，0表示不限制，仅dcRestTemplate（OkHttp）生效
+     */
+    private int callTimeout = 0;
+    /**
+     * 连接池最大空闲连接数
+     */
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    /**
+     * 空闲连接保活时间，单位ms，超过后由连接池清理。
+     * 建议小于对方服务端的keep-alive超时时间，避免复用已被对方关闭的陈旧连接
+     */
+    private long keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+    /**
+     * 异步调用最大并发请求数
+     */
+    private int maxRequests = DEFAULT_MAX_REQUESTS;
+    /**
+     * 异步调用单个host最大并发请求数
+     */
+    private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    /**
+     * 连接失败（含复用的陈旧连接被对方关闭）时是否自动重试
+     */
+    private boolean retryOnConnectionFailure = true;
+    /**
+     * HttpURLConnection（downBigFileRestTemplate、uploadBigFileRestTemplate）每个host缓存的最大空闲连接数，默认不配置，使用JDK默认值（5）。
+     * 注意：对应JVM全局系统属性http.maxConnections，会影响当前JVM内所有基于HttpURLConnection的调用，
+     * 且JDK仅在首次建立HTTP连接时读取一次，之后设置不生效；已通过-D指定时不覆盖
+     */
+    private Integer urlConnectionMaxConnections;
+    /**
+     * dcRestTemplate响应内容记录方式，默认BUFFERING
+     */
+    private ResponseCaptureMode responseCaptureMode = ResponseCaptureMode.BUFFERING;
+    /**
+     * 大文件上传（uploadBigFileRestTemplate）是否以分块模式（Transfer-Encoding: chunked）发送，
+     * 默认false，按精确计算的Content-Length以固定长度流模式发送，需对方服务端支持分块传输时才可开启
+     */
+    private boolean uploadChunked = false;
+    /**
+     * 共享线程池（dcInvokeExecutor）线程数，用于分段下载等并发调用
+     */
+    private int executorPoolSize = DEFAULT_EXECUTOR_POOL_SIZE;
+    /**
+     * 是否使用虚拟线程（需Java 21及以上），开启后dcInvokeExecutor及OkHttp异步调用均为每个任务一个虚拟线程，
+     * executorPoolSize、maxRequests不再限制线程数（maxRequests仍限制异步并发请求数）
+     */
+    private boolean virtualThreads = false;
+    /**
+     * https配置
+     */
+    private Ssl ssl = new Ssl();
+    /**
+     * 分段并发下载配置
+     */
+    private RangeDownload rangeDownload = new RangeDownload();
+    /**
+     * 批量调用（RestTemplateHelper.invokeAll）默认配置
+     */
+    private Batch batch = new Batch();
+    /**
+     * GET响应缓存（RestTemplateHelper.get、getBytes）配置
+     */
+    private ResponseCache responseCache = new ResponseCache();
+    /**
+     * 相同请求合并配置
+     */
+    private Coalesce coalesce = new Coalesce();
+    /**
+     * dcRestTemplate及异步调用的熔断及舱壁隔离配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    /**
+     * RestTemplateHelper同步调用的重试及对冲请求配置
+     */
+    private Retry retry = new Retry();
+    /**
+     * dcRestTemplate及异步调用按接口代码、host单独配置的超时时间及自适应超时
+     */
+    private Timeout timeout = new Timeout();
+
+    public enum ResponseCaptureMode {
+        /**
+         * 先把整个响应缓存到内存，再读取一份记录日志
+         */
+        BUFFERING,
+        /**
+         * 消息转换器读取响应时同步记录，最多记录bodyMaxLength字节，响应关闭时记录日志
+         */
+        STREAMING
+    }
+
+    @Data
+    public static class Ssl {
+        /**
+         * 是否跳过证书认证（信任所有证书且不校验主机名），为false时使用trustStore校验，未指定trustStore时使用JDK默认cacerts
+         */
+        private boolean trustAll = true;
+        /**
+         * SSLContext协议
+         */
+        private String protocol = "TLS";
+        /**
+         * 信任库位置，支持classpath:前缀
+         */
+        private String trustStore;
+        private String trustStorePassword;
+        /**
+         * 信任库类型，默认JDK默认类型
+         */
+        private String trustStoreType;
+        /**
+         * 客户端证书库位置（双向认证），支持classpath:前缀
+         */
+        private String keyStore;
+        private String keyStorePassword;
+        private String keyStoreType;
+        /**
+         * 客户端TLS会话缓存条数，0表示使用JDK默认值
+         */
+        private int sessionCacheSize = 0;
+        /**
+         * 客户端TLS会话缓存有效期，单位s，0表示使用JDK默认值
+         */
+        private int sessionTimeout = 0;
+    }
+
+    @Data
+    public static class RangeDownload {
+        /**
+         * 并发分段数
+         */
+        private int parallelism = 4;
+        /**
+         * 每段最小字节数，文件较小时减少分段数
+         */
+        private long minRangeSize = 8L * 1024 * 1024;
+        /**
+         * 断点记录文件后缀，记录文件与目标文件同目录
+         */
+        private String stateSuffix = ".dcdl";
+        /**
+         * 每段每下载多少字节更新一次断点记录
+         */
+        private long checkpointBytes = 4L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * 最大并发数，同一host还受maxRequestsPerHost限制
+         */
+        private int maxConcurrency = 16;
+        /**
+         * 批次期限，单位ms，0表示不限制
+         */
+        private long timeoutMillis = 0;
+    }
+
+    @Data
+    public static class ResponseCache {
+        /**
+         * 是否开启，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 最大缓存条数
+         */
+        private int maxEntries = 1000;
+        /**
+         * 缓存的body最大总字节数
+         */
+        private long maxBytes = 64L * 1024 * 1024;
+        /**
+         * 单条缓存最大字节数，body更大的响应不缓存
+         */
+        private long maxEntrySize = 1024L * 1024;
+    }
+
+    @Data
+    public static class Coalesce {
+        /**
+         * 是否开启，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 参与合并的请求方法，只应配置幂等方法
+         */
+        private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD);
+        /**
+         * 参与生成合并key的请求头，这些请求头不同的请求不合并
+         */
+        private List<String> keyHeaders = new ArrayList<>(Arrays.asList(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT));
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * 是否开启，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 熔断及舱壁的粒度，默认按host
+         */
+        private Scope scope = Scope.HOST;
+        /**
+         * 统计失败率的滑动时间窗口，单位s
+         */
+        private int windowSeconds = 10;
+        /**
+         * 窗口内调用数达到该值后才计算失败率
+         */
+        private int minimumCalls = 20;
+        /**
+         * 失败率阈值（百分比），达到后打开熔断器。失败指连接、读写异常（含超时）及5xx响应
+         */
+        private int failureRateThreshold = 50;
+        /**
+         * 慢调用阈值，单位ms，耗时超过的调用也计为失败，0表示不统计慢调用
+         */
+        private long slowCallThresholdMillis = 0;
+        /**
+         * 熔断器打开后多久进入半开状态试探，单位ms
+         */
+        private long openDurationMillis = 30000;
+        /**
+         * 半开状态允许的试探调用数，全部成功后关闭熔断器，任一失败重新打开
+         */
+        private int halfOpenPermits = 3;
+        /**
+         * 舱壁隔离，每个host（或host+接口代码）的最大并发调用数，超出时快速失败，0表示不限制
+         */
+        private int maxConcurrentCalls = 0;
+
+        public enum Scope {
+            /**
+             * 按host（含端口）
+             */
+            HOST,
+            /**
+             * 按host加接口代码（ApiLogSetupHelper.apiCode）
+             */
+            API_CODE
+        }
+    }
+
+    @Data
+    public static class RetryPolicy {
+        /**
+         * 最大尝试次数（含首次）
+         */
+        private int maxAttempts = 3;
+        /**
+         * 首次重试前的等待时间，单位ms，之后按multiplier指数增长
+         */
+        private long initialBackoffMillis = 100;
+        /**
+         * 最大等待时间，单位ms
+         */
+        private long maxBackoffMillis = 2000;
+        private double multiplier = 2;
+        /**
+         * 随机抖动比例（0~1），实际等待时间在 等待时间*(1-jitter) 到 等待时间 之间随机，避免大量调用同时重试
+         */
+        private double jitter = 0.5;
+        /**
+         * 需要重试的响应状态码，连接、读写异常（含超时）总是重试
+         */
+        private Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(502, 503, 504));
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Retry extends RetryPolicy {
+        /**
+         * 是否开启，默认关闭。只对幂等方法（GET、HEAD、OPTIONS、PUT、DELETE）
+         * 或通过ApiLogSetupHelper.builder().retryable(true)标记的调用生效
+         */
+        private boolean enabled = false;
+        /**
+         * 按接口代码（ApiLogSetupHelper.apiCode）单独配置的重试策略，未配置的项使用RetryPolicy默认值
+         */
+        private Map<String, RetryPolicy> apiCodes = new HashMap<>();
+        /**
+         * 对冲请求配置
+         */
+        private Hedge hedge = new Hedge();
+    }
+
+    @Data
+    public static class Hedge {
+        /**
+         * 是否开启，默认关闭，适用范围与重试相同
+         */
+        private boolean enabled = false;
+        /**
+         * 已等待观测到的该百分位耗时仍未响应时，发出第二个请求，取先成功的响应
+         */
+        private int percentile = 95;
+        /**
+         * 观测样本数达到该值后才发出对冲请求
+         */
+        private int minSamples = 20;
+        /**
+         * 对冲等待时间下限，单位ms
+         */
+        private long minDelayMillis = 10;
+        /**
+         * 对冲请求使用的备用地址，key为原host（非默认端口时含端口），value为备用的scheme://host[:port]，未配置时发往原地址
+         */
+        private Map<String, String> alternateHosts = new HashMap<>();
+    }
+
+    @Data
+    public static class TimeoutPolicy {
+        /**
+         * 连接超时时间，单位ms，未配置时使用上一级配置
+         */
+        private Integer connectTimeout;
+        /**
+         * 读超时时间，单位ms，未配置时使用上一级配置
+         */
+        private Integer readTimeout;
+        /**
+         * 写超时时间，单位ms，未配置时使用上一级配置
+         */
+        private Integer writeTimeout;
+    }
+
+    @Data
+    public static class Timeout {
+        /**
+         * 按接口代码（ApiLogSetupHelper.apiCode）配置的超时时间
+         */
+        private Map<String, TimeoutPolicy> apiCodes = new HashMap<>();
+        /**
+         * 按host配置的超时时间，key为host或host:port，支持*通配（如*.report.example.com），按配置顺序取第一个匹配项
+         */
+        private Map<String, TimeoutPolicy> hosts = new LinkedHashMap<>();
+        /**
+         * 自适应读超时配置
+         */
+        private AdaptiveTimeout adaptive = new AdaptiveTimeout();
+    }
 
-}
\ No newline at end of file
+    @Data
+    public static class AdaptiveTimeout {
+        /**
+         * 是否开启，默认关闭。开启后未单独配置读超时的调用，按该接口（接口代码，未设置时为地址）最近耗时的百分位加余量设置读超时
+         */
+        private boolean enabled = false;
+        /**
+         * 百分位
+         */
+        private int percentile = 99;
+        /**
+         * 观测样本数达到该值后才生效，之前使用全局读超时
+         */
+        private int minSamples = 50;
+        /**
+         * 读超时 = 百分位耗时 * multiplier + headroomMillis
+         */
+        private double multiplier = 2;
+        private long headroomMillis = 200;
+        /**
+         * 读超时下限，单位ms
+         */
+        private long minMillis = 500;
+        /**
+         * 读超时上限，单位ms，0表示以全局读超时为上限
+         */
+        private long maxMillis = 0;
+    }
+}
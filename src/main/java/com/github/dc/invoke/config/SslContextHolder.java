@@ -0,0 +1,236 @@
+package com.github.dc.invoke.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.ResourceUtils;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ *     共享的SSLContext及SSLSocketFactory，首次使用时创建，之后所有连接复用，使TLS会话缓存生效（会话复用时免去完整握手）。
+ *     支持跳过证书认证或指定truststore/keystore，并统计握手次数及会话复用次数
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 14:00
+ */
+@Slf4j
+public class SslContextHolder {
+    private final RestTemplateProperty.Ssl ssl;
+    private final LongAdder handshakeCount = new LongAdder();
+    private final LongAdder resumedCount = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<SSLSession> sessions = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private volatile SSLSocketFactory socketFactory;
+    private volatile X509TrustManager trustManager;
+    private volatile SSLContext sslContext;
+
+    public SslContextHolder(RestTemplateProperty.Ssl ssl) {
+        this.ssl = ssl;
+    }
+
+    public SSLSocketFactory getSocketFactory() {
+        this.init();
+        return socketFactory;
+    }
+
+    public X509TrustManager getTrustManager() {
+        this.init();
+        return trustManager;
+    }
+
+    public SSLContext getSslContext() {
+        this.init();
+        return sslContext;
+    }
+
+    /**
+     * @return 跳过证书认证时返回不校验主机名的校验器，否则返回null（使用客户端默认校验）
+     */
+    public HostnameVerifier getHostnameVerifier() {
+        return ssl.isTrustAll() ? HttpsClientHttpRequestFactory.getHostnameVerifier() : null;
+    }
+
+    /**
+     * @return 累计TLS握手次数（含会话复用的简化握手）
+     */
+    public long getHandshakeCount() {
+        return handshakeCount.sum();
+    }
+
+    /**
+     * @return 累计复用已有会话的握手次数
+     */
+    public long getResumedCount() {
+        return resumedCount.sum();
+    }
+
+    /**
+     * @return 会话复用率
+     */
+    public double getResumptionRate() {
+        long handshakes = handshakeCount.sum();
+        return handshakes == 0 ? 0 : (double) resumedCount.sum() / handshakes;
+    }
+
+    private void init() {
+        if (socketFactory != null) {
+            return;
+        }
+        // 加载证书库涉及文件IO，使用ReentrantLock避免虚拟线程固定载体线程
+        lock.lock();
+        try {
+            if (socketFactory != null) {
+                return;
+            }
+            try {
+                X509TrustManager x509TrustManager = ssl.isTrustAll() ? HttpsClientHttpRequestFactory.getX509TrustManager() : this.loadTrustManager();
+                SSLContext context = SSLContext.getInstance(ssl.getProtocol());
+                context.init(this.loadKeyManagers(), new TrustManager[]{x509TrustManager}, new SecureRandom());
+                SSLSessionContext sessionContext = context.getClientSessionContext();
+                if (ssl.getSessionCacheSize() > 0) {
+                    sessionContext.setSessionCacheSize(ssl.getSessionCacheSize());
+                }
+                if (ssl.getSessionTimeout() > 0) {
+                    sessionContext.setSessionTimeout(ssl.getSessionTimeout());
+                }
+                this.sslContext = context;
+                this.trustManager = x509TrustManager;
+                this.socketFactory = new CountingSslSocketFactory(context.getSocketFactory());
+            } catch (GeneralSecurityException | IOException e) {
+                throw new IllegalStateException("初始化SSLContext失败", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private X509TrustManager loadTrustManager() throws GeneralSecurityException, IOException {
+        KeyStore trustStore = null;
+        if (StringUtils.isNotBlank(ssl.getTrustStore())) {
+            trustStore = loadKeyStore(ssl.getTrustStore(), ssl.getTrustStoreType(), ssl.getTrustStorePassword());
+        }
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        // trustStore为null时使用JDK默认的cacerts
+        trustManagerFactory.init(trustStore);
+        for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
+        }
+        throw new IllegalStateException("未找到X509TrustManager");
+    }
+
+    private KeyManager[] loadKeyManagers() throws GeneralSecurityException, IOException {
+        if (StringUtils.isBlank(ssl.getKeyStore())) {
+            return null;
+        }
+        KeyStore keyStore = loadKeyStore(ssl.getKeyStore(), ssl.getKeyStoreType(), ssl.getKeyStorePassword());
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, ssl.getKeyStorePassword() == null ? null : ssl.getKeyStorePassword().toCharArray());
+        return keyManagerFactory.getKeyManagers();
+    }
+
+    private static KeyStore loadKeyStore(String location, String type, String password) throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance(StringUtils.defaultIfBlank(type, KeyStore.getDefaultType()));
+        try (InputStream inputStream = ResourceUtils.getURL(location).openStream()) {
+            keyStore.load(inputStream, password == null ? null : password.toCharArray());
+        }
+        return keyStore;
+    }
+
+    private void onHandshakeCompleted(SSLSession session, long socketCreatedTime) {
+        handshakeCount.increment();
+        // 同一会话对象再次握手，或会话创建早于本连接，均视为复用
+        if (!sessions.add(session) || session.getCreationTime() < socketCreatedTime) {
+            resumedCount.increment();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("TLS握手完成 {}:{} {}，累计握手：{}，会话复用率：{}", session.getPeerHost(), session.getPeerPort(),
+                    session.getProtocol(), getHandshakeCount(), String.format("%.2f", getResumptionRate()));
+        }
+    }
+
+    /**
+     * 为创建的每个SSLSocket注册握手完成监听，用于统计
+     */
+    private class CountingSslSocketFactory extends SSLSocketFactory {
+        private final SSLSocketFactory delegate;
+
+        private CountingSslSocketFactory(SSLSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        private Socket listen(Socket socket) {
+            if (socket instanceof SSLSocket) {
+                long createdTime = System.currentTimeMillis();
+                ((SSLSocket) socket).addHandshakeCompletedListener(event -> onHandshakeCompleted(event.getSession(), createdTime));
+            }
+            return socket;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return listen(delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+            return listen(delegate.createSocket(socket, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return listen(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return listen(delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return listen(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return listen(delegate.createSocket(address, port, localAddress, localPort));
+        }
+    }
+}
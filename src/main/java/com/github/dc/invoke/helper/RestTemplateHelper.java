@@ -2,15 +2,32 @@ package com.github.dc.invoke.helper;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.github.dc.invoke.aop.handler.ApiLogDataDispatcher;
+import com.github.dc.invoke.aop.handler.ApiLogDataHandlerRegistry;
 import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.metrics.CallMetricsRegistry;
 import com.github.dc.invoke.pojo.ApiLogData;
-import com.github.dc.invoke.pojo.DefaultApiLogDataHandler;
+import com.github.dc.invoke.resttemplate.async.AsyncRestInvoker;
+import com.github.dc.invoke.resttemplate.batch.BatchInvocation;
+import com.github.dc.invoke.resttemplate.batch.InvokeRequest;
+import com.github.dc.invoke.resttemplate.batch.InvokeResult;
+import com.github.dc.invoke.resttemplate.cache.CachedResponse;
+import com.github.dc.invoke.resttemplate.cache.HttpResponseCache;
+import com.github.dc.invoke.resttemplate.download.RangeDownloader;
+import com.github.dc.invoke.resttemplate.response.BufferedClientHttpResponse;
+import com.github.dc.invoke.resttemplate.retry.RetryingRestInvoker;
+import com.github.dc.invoke.resttemplate.upload.MultipartStreamingBody;
+import com.github.dc.invoke.sampling.ApiLogSampler;
+import com.github.dc.invoke.sampling.SamplingDecision;
 import com.github.dc.invoke.util.ApiLogSetupHelper;
 import com.github.dc.invoke.util.IpAddressUtil;
-import com.github.dc.invoke.util.ReflectUtil;
+import com.github.dc.invoke.util.StreamTransferUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -20,20 +37,28 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -50,6 +75,15 @@ public class RestTemplateHelper {
     private final RestTemplate dcRestTemplate;
     private final RestTemplate downBigFileRestTemplate;
     private final RestTemplate uploadBigFileRestTemplate;
+    private final ApiLogDataDispatcher apiLogDataDispatcher;
+    private final ExecutorService dcInvokeExecutor;
+    private final RestTemplateProperty restTemplateProperty;
+    private final AsyncRestInvoker asyncRestInvoker;
+    private final HttpResponseCache httpResponseCache;
+    private final RetryingRestInvoker retryingRestInvoker;
+    private final CallMetricsRegistry callMetricsRegistry;
+    private final ApiLogDataHandlerRegistry apiLogDataHandlerRegistry;
+    private final ApiLogSampler apiLogSampler;
 
     /**
      * get请求
@@ -59,7 +93,10 @@ public class RestTemplateHelper {
      * @return
      */
     public <R> ResponseEntity<R> get(String url, Class<R> responseType) {
-        return dcRestTemplate.getForEntity(url, responseType);
+        if (httpResponseCache.isEnabled()) {
+            return this.getWithCache(url, new HttpHeaders(), responseType);
+        }
+        return retryingRestInvoker.exchange(url, HttpMethod.GET, null, responseType);
     }
 
     /**
@@ -71,8 +108,11 @@ public class RestTemplateHelper {
      * @return
      */
     public <R> ResponseEntity<R> get(String url, HttpHeaders headers, Class<R> responseType) {
+        if (httpResponseCache.isEnabled()) {
+            return this.getWithCache(url, headers, responseType);
+        }
         HttpEntity<MultiValueMap<String, Object>> httpEntity = new HttpEntity<>(headers);
-        return dcRestTemplate.exchange(url, HttpMethod.GET, httpEntity, responseType);
+        return retryingRestInvoker.exchange(url, HttpMethod.GET, httpEntity, responseType);
     }
 
     /**
@@ -82,23 +122,25 @@ public class RestTemplateHelper {
      * @return
      */
     public byte[] getBytes(String url) {
-        ResponseEntity<byte[]> response = this.getBytesForEntity(url);
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response.getBody();
-        }
-        log.warn("下载资源失败，GET {}，response: {}", url, response);
-        return null;
+        return this.getBytes(url, new HttpHeaders());
     }
 
     /**
-     * 根据下载链接获取文件字节数组
+     * 根据下载链接获取文件字节数组，开启响应缓存时按响应头缓存
      *
      * @param url
      * @param headers
      * @return
      */
     public byte[] getBytes(String url, HttpHeaders headers) {
-        ResponseEntity<byte[]> response = this.getBytesForEntity(url, headers);
+        ResponseEntity<byte[]> response;
+        if (httpResponseCache.isEnabled()) {
+            // 不记录二进制响应内容
+            ApiLogSetupHelper.setFileDownload(true);
+            response = this.getWithCache(url, headers, byte[].class);
+        } else {
+            response = this.getBytesForEntity(url, headers);
+        }
         if (response.getStatusCode().is2xxSuccessful()) {
             return response.getBody();
         }
@@ -107,34 +149,84 @@ public class RestTemplateHelper {
     }
 
     /**
-     * 根据下载链接获取文件字节数组并写入输出流
+     * 根据下载链接获取文件并写入输出流，边下载边写入，不落临时文件也不在内存中缓存完整文件
      *
      * @param url
      * @param os
      */
     public void getBytesToOutputStream(String url, OutputStream os) {
-        try {
-            os.write(this.getBytes(url));
-        } catch (IOException e) {
-            log.warn("下载资源失败，GET {}" + url, e);
-        }
+        this.getBytesToOutputStream(url, new HttpHeaders(), os);
     }
 
     /**
-     * 根据下载链接获取文件字节数组并写入输出流
+     * 根据下载链接获取文件并写入输出流，边下载边写入，不落临时文件也不在内存中缓存完整文件
      *
      * @param url
      * @param headers
      * @param os
      */
     public void getBytesToOutputStream(String url, HttpHeaders headers, OutputStream os) {
+        // 只忽略写入输出流的异常，下载失败（含读取中断）照常抛出，避免调用方拿到被截断的内容却不知情
+        WriteTrackingOutputStream trackingOs = new WriteTrackingOutputStream(os);
         try {
-            os.write(this.getBytes(url, headers));
-        } catch (IOException e) {
-            log.warn("下载资源失败，GET {}" + url, e);
+            this.getToOutputStream(url, headers, trackingOs);
+        } catch (ResourceAccessException e) {
+            if (trackingOs.failure == null) {
+                throw e;
+            }
+            log.warn("下载资源失败，GET {}", url, trackingOs.failure);
         }
     }
 
+    /**
+     * 根据下载链接获取文件并写入输出流，边下载边写入，输出流不关闭
+     *
+     * @param url     下载链接
+     * @param headers 请求头
+     * @param os      输出流，为FileOutputStream时使用文件通道写入
+     * @return 写入字节数
+     */
+    public long getToOutputStream(String url, HttpHeaders headers, OutputStream os) {
+        return this.download(url, headers, inputStream -> StreamTransferUtil.transfer(inputStream, os));
+    }
+
+    /**
+     * 根据下载链接获取文件并写入通道，边下载边写入，通道不关闭
+     *
+     * @param url     下载链接
+     * @param headers 请求头
+     * @param channel 通道，为FileChannel时使用transferFrom从当前位置写入
+     * @return 写入字节数
+     */
+    public long getToChannel(String url, HttpHeaders headers, WritableByteChannel channel) {
+        return this.download(url, headers, inputStream -> StreamTransferUtil.transfer(inputStream, channel));
+    }
+
+    /**
+     * 根据下载链接获取文件并保存到指定路径，文件已存在时覆盖
+     *
+     * @param url     下载链接
+     * @param headers 请求头
+     * @param path    保存路径
+     * @return 写入字节数
+     */
+    public long getToPath(String url, HttpHeaders headers, Path path) {
+        return this.download(url, headers, inputStream -> StreamTransferUtil.transfer(inputStream, path));
+    }
+
+    /**
+     * 分段并发下载到指定文件，服务端支持Range时按rest-template.range-download配置分段并发下载，
+     * 中断后再次调用可续传；不支持时以单连接下载
+     *
+     * @param url     下载链接
+     * @param headers 请求头
+     * @param path    保存路径
+     * @return 文件字节数
+     */
+    public long getToPathByRanges(String url, HttpHeaders headers, Path path) {
+        return new RangeDownloader(downBigFileRestTemplate, dcInvokeExecutor, restTemplateProperty.getRangeDownload()).download(url, headers, path);
+    }
+
     /**
      * 根据下载链接获取文件字节数组
      *
@@ -173,6 +265,49 @@ public class RestTemplateHelper {
      * @return
      */
     public ResponseEntity<File> getFileForEntity(String url, HttpHeaders headers) {
+        File responseFile = this.download(url, headers, inputStream -> {
+            File tempFile = File.createTempFile("download", ".tmp");
+            StreamTransferUtil.transfer(inputStream, tempFile.toPath());
+            return tempFile;
+        });
+        return ResponseEntity.ok(responseFile);
+    }
+
+    /**
+     * 根据下载链接获取文件字节数组
+     *
+     * @param url
+     * @param headers
+     * @return
+     */
+    public ResponseEntity<byte[]> getBytesForEntity(String url, HttpHeaders headers) {
+        byte[] bytes = this.download(url, headers, (inputStream, contentLength) ->
+                // 已知长度时按长度一次性分配
+                contentLength >= 0 && contentLength <= Integer.MAX_VALUE ? IOUtils.toByteArray(inputStream, contentLength) : IOUtils.toByteArray(inputStream));
+        return ResponseEntity.ok(bytes);
+    }
+
+    /**
+     * 以流的形式下载，响应body交给处理函数直接读取
+     *
+     * @param url       下载链接
+     * @param headers   请求头
+     * @param extractor 响应body处理函数
+     * @return 处理结果
+     */
+    private <T> T download(String url, HttpHeaders headers, BodyExtractor<T> extractor) {
+        return this.download(url, headers, (inputStream, contentLength) -> extractor.extract(inputStream));
+    }
+
+    /**
+     * 以流的形式下载，响应body交给处理函数直接读取
+     *
+     * @param url       下载链接
+     * @param headers   请求头
+     * @param extractor 响应body及Content-Length（未知时为-1）处理函数
+     * @return 处理结果
+     */
+    private <T> T download(String url, HttpHeaders headers, SizedBodyExtractor<T> extractor) {
         /**
          * 对响应进行流式处理而不是将其全部加载到内存中
          * 设置了请求头APPLICATION_OCTET_STREAM，表示以流的形式进行数据加载
@@ -181,32 +316,64 @@ public class RestTemplateHelper {
         HttpEntity<MultiValueMap<String, Object>> httpEntity = new HttpEntity<>(headers);
         RequestCallback requestCallback = downBigFileRestTemplate.httpEntityCallback(httpEntity);
         ApiLogSetupHelper.setFileDownload(true);
-        File responseFile = downBigFileRestTemplate.execute(url, HttpMethod.GET, requestCallback, clientHttpResponse -> {
-            File tempFile = File.createTempFile("download", ".tmp");
+        return downBigFileRestTemplate.execute(url, HttpMethod.GET, requestCallback, clientHttpResponse -> {
             try (InputStream inputStream = clientHttpResponse.getBody()) {
-                Files.copy(inputStream, Paths.get(tempFile.getAbsolutePath()), StandardCopyOption.REPLACE_EXISTING);
+                return extractor.extract(inputStream, clientHttpResponse.getHeaders().getContentLength());
             }
-            return tempFile;
         });
-        return ResponseEntity.ok(responseFile);
     }
 
     /**
-     * 根据下载链接获取文件字节数组
-     *
-     * @param url
-     * @param headers
-     * @return
+     * 记录写入异常的输出流，用于区分写入输出流失败与下载失败
      */
-    public ResponseEntity<byte[]> getBytesForEntity(String url, HttpHeaders headers) {
-        ResponseEntity<File> response = this.getFileForEntity(url, headers);
-        try {
-            return ResponseEntity.ok(FileUtils.readFileToByteArray(response.getBody()));
-        } catch (IOException e) {
-            throw new RuntimeException("文件下载成功后转存到内存发生异常", e);
+    private static final class WriteTrackingOutputStream extends FilterOutputStream {
+        private IOException failure;
+
+        private WriteTrackingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                out.write(b);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
         }
     }
 
+    @FunctionalInterface
+    private interface BodyExtractor<T> {
+        T extract(InputStream inputStream) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface SizedBodyExtractor<T> {
+        T extract(InputStream inputStream, long contentLength) throws IOException;
+    }
+
     /**
      * post x-www-form-urlencoded格式内容请求
      *
@@ -316,27 +483,7 @@ public class RestTemplateHelper {
      * @return 返回内容
      */
     public <R> ResponseEntity<R> postFormData(String url, HttpHeaders headers, LinkedMultiValueMap<String, Object> param, String fileParamName, File file, Class<R> responseType) {
-        // 此处记录日志，避免写大文件到日志拦截器出现OOM
-        FileSystemResource fileResource = new FileSystemResource(file);
-        param.add(fileParamName, fileResource);
-        RequestEntity requestEntity = RequestEntity
-                .post(URI.create(url))
-                .contentType(MediaType.MULTIPART_FORM_DATA)
-                .accept(MediaType.ALL)
-                .acceptCharset(StandardCharsets.UTF_8)
-                .headers(headers)
-                .body(param);
-        ApiLogData apiLogData = this.recordFileUploadInvokeLogBefore(param, fileParamName, file, requestEntity);
-        try {
-            ResponseEntity<R> response = uploadBigFileRestTemplate.postForEntity(url, requestEntity, responseType);
-            apiLogData = this.recordFileUploadInvokeLogReturn(apiLogData, response);
-            return response;
-        } catch (Throwable e) {
-            apiLogData = this.recordFileUploadInvokeLogException(apiLogData, e);
-            throw e;
-        } finally {
-            this.recordFileUploadInvokeLogFinally(apiLogData);
-        }
+        return this.exchangeFormData(HttpMethod.POST, url, headers, param, fileParamName, file, responseType);
     }
 
     /**
@@ -374,7 +521,7 @@ public class RestTemplateHelper {
                 .acceptCharset(StandardCharsets.UTF_8)
                 .headers(headers)
                 .body(body);
-        return dcRestTemplate.postForEntity(url, requestEntity, responseType);
+        return retryingRestInvoker.exchange(url, HttpMethod.POST, requestEntity, responseType);
     }
 
     /**
@@ -383,7 +530,7 @@ public class RestTemplateHelper {
      * @param url 请求地址
      */
     public void delete(String url) {
-        dcRestTemplate.delete(url);
+        retryingRestInvoker.exchange(url, HttpMethod.DELETE, null, Void.class);
     }
 
     /**
@@ -395,7 +542,7 @@ public class RestTemplateHelper {
      */
     public void delete(String url, HttpHeaders headers) {
         HttpEntity<MultiValueMap<String, Object>> httpEntity = new HttpEntity<>(headers);
-        dcRestTemplate.exchange(url, HttpMethod.DELETE, httpEntity, void.class);
+        retryingRestInvoker.exchange(url, HttpMethod.DELETE, httpEntity, Void.class);
     }
 
     /**
@@ -412,7 +559,7 @@ public class RestTemplateHelper {
                 .accept(MediaType.ALL)
                 .acceptCharset(StandardCharsets.UTF_8)
                 .build();
-        return dcRestTemplate.exchange(requestEntity, responseType);
+        return retryingRestInvoker.exchange(url, HttpMethod.DELETE, requestEntity, responseType);
     }
 
     /**
@@ -431,7 +578,7 @@ public class RestTemplateHelper {
                 .acceptCharset(StandardCharsets.UTF_8)
                 .headers(headers)
                 .build();
-        return dcRestTemplate.exchange(requestEntity, responseType);
+        return retryingRestInvoker.exchange(url, HttpMethod.DELETE, requestEntity, responseType);
     }
 
     /**
@@ -516,7 +663,7 @@ public class RestTemplateHelper {
     }
 
     /**
-     * put form-data格式内容请求
+     * put form-data格式内容请求(大文件上传)
      *
      * @param url           请求地址
      * @param param         请求form内容
@@ -527,13 +674,11 @@ public class RestTemplateHelper {
      * @return 返回内容
      */
     public <R> ResponseEntity<R> putFormData(String url, LinkedMultiValueMap<String, Object> param, String fileParamName, File file, Class<R> responseType) {
-        FileSystemResource fileResource = new FileSystemResource(file);
-        param.add(fileParamName, fileResource);
-        return this.put(url, MediaType.MULTIPART_FORM_DATA, null, param, responseType);
+        return this.putFormData(url, null, param, fileParamName, file, responseType);
     }
 
     /**
-     * put form-data格式内容请求
+     * put form-data格式内容请求(大文件上传)
      *
      * @param url           请求地址
      * @param headers       请求头
@@ -545,9 +690,7 @@ public class RestTemplateHelper {
      * @return 返回内容
      */
     public <R> ResponseEntity<R> putFormData(String url, HttpHeaders headers, LinkedMultiValueMap<String, Object> param, String fileParamName, File file, Class<R> responseType) {
-        FileSystemResource fileResource = new FileSystemResource(file);
-        param.add(fileParamName, fileResource);
-        return this.put(url, MediaType.MULTIPART_FORM_DATA, headers, param, responseType);
+        return this.exchangeFormData(HttpMethod.PUT, url, headers, param, fileParamName, file, responseType);
     }
 
     /**
@@ -585,7 +728,197 @@ public class RestTemplateHelper {
                 .acceptCharset(StandardCharsets.UTF_8)
                 .headers(headers)
                 .body(body);
-        return dcRestTemplate.exchange(requestEntity, responseType);
+        return retryingRestInvoker.exchange(url, HttpMethod.PUT, requestEntity, responseType);
+    }
+
+    /**
+     * 异步get请求，基于OkHttp enqueue，不阻塞调用线程，接口日志设置在调用时取快照
+     *
+     * @param url          请求地址
+     * @param responseType 返回值类型
+     * @param <R>
+     * @return 返回内容
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> getAsync(String url, Class<R> responseType) {
+        return this.getAsync(url, null, responseType);
+    }
+
+    /**
+     * 异步get请求，基于OkHttp enqueue，不阻塞调用线程，接口日志设置在调用时取快照
+     *
+     * @param url          请求地址
+     * @param headers      请求头
+     * @param responseType 返回值类型
+     * @param <R>
+     * @return 返回内容
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> getAsync(String url, HttpHeaders headers, Class<R> responseType) {
+        return asyncRestInvoker.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType);
+    }
+
+    /**
+     * 异步post json格式内容请求
+     *
+     * @param url          请求地址
+     * @param headers      请求头
+     * @param bodyJson     请求内容json字符串
+     * @param responseType 返回值类型
+     * @param <R>
+     * @return 返回内容
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> postJsonAsync(String url, HttpHeaders headers, String bodyJson, Class<R> responseType) {
+        return this.postAsync(url, MediaType.APPLICATION_JSON, headers, bodyJson, responseType);
+    }
+
+    /**
+     * 异步post请求
+     *
+     * @param url          请求地址
+     * @param contentType  请求contentType
+     * @param headers      请求头
+     * @param body         请求body 根据contenType不同，类型不同
+     * @param responseType 返回值类型
+     * @param <R>
+     * @param <B>
+     * @return 返回内容
+     */
+    public <R, B> CompletableFuture<ResponseEntity<R>> postAsync(String url, MediaType contentType, HttpHeaders headers, B body, Class<R> responseType) {
+        return this.exchangeAsync(url, HttpMethod.POST, contentType, headers, body, responseType);
+    }
+
+    /**
+     * 异步put json格式内容请求
+     *
+     * @param url          请求地址
+     * @param headers      请求头
+     * @param bodyJson     请求内容json字符串
+     * @param responseType 返回值类型
+     * @param <R>
+     * @return 返回内容
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> putJsonAsync(String url, HttpHeaders headers, String bodyJson, Class<R> responseType) {
+        return this.putAsync(url, MediaType.APPLICATION_JSON, headers, bodyJson, responseType);
+    }
+
+    /**
+     * 异步put请求
+     *
+     * @param url          请求地址
+     * @param contentType  请求contentType
+     * @param headers      请求头
+     * @param body         请求body 根据contenType不同，类型不同
+     * @param responseType 返回值类型
+     * @param <R>
+     * @param <B>
+     * @return 返回内容
+     */
+    public <R, B> CompletableFuture<ResponseEntity<R>> putAsync(String url, MediaType contentType, HttpHeaders headers, B body, Class<R> responseType) {
+        return this.exchangeAsync(url, HttpMethod.PUT, contentType, headers, body, responseType);
+    }
+
+    /**
+     * 异步delete请求
+     *
+     * @param url          请求地址
+     * @param headers      请求头
+     * @param responseType 返回值类型
+     * @param <R>
+     * @return 返回内容
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> deleteAsync(String url, HttpHeaders headers, Class<R> responseType) {
+        return this.exchangeAsync(url, HttpMethod.DELETE, null, headers, null, responseType);
+    }
+
+    /**
+     * 异步请求
+     *
+     * @param url          请求地址
+     * @param method       请求方法
+     * @param contentType  请求contentType，无body时为null
+     * @param headers      请求头
+     * @param body         请求body
+     * @param responseType 返回值类型
+     * @param <R>
+     * @param <B>
+     * @return 返回内容
+     */
+    public <R, B> CompletableFuture<ResponseEntity<R>> exchangeAsync(String url, HttpMethod method, MediaType contentType, HttpHeaders headers, B body, Class<R> responseType) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        if (contentType != null) {
+            requestHeaders.setContentType(contentType);
+        }
+        requestHeaders.setAccept(Collections.singletonList(MediaType.ALL));
+        requestHeaders.setAcceptCharset(Collections.singletonList(StandardCharsets.UTF_8));
+        if (headers != null) {
+            requestHeaders.putAll(headers);
+        }
+        return asyncRestInvoker.exchange(url, method, new HttpEntity<>(body, requestHeaders), responseType);
+    }
+
+    /**
+     * 批量调用，按rest-template.batch配置的并发数及期限执行，部分失败不影响其他请求
+     *
+     * @param requests 请求列表
+     * @param <R>
+     * @return 按请求顺序排列的结果
+     */
+    public <R> List<InvokeResult<R>> invokeAll(List<InvokeRequest<R>> requests) {
+        RestTemplateProperty.Batch batch = restTemplateProperty.getBatch();
+        return this.invokeAll(requests, batch.getMaxConcurrency(), batch.getTimeoutMillis(), null);
+    }
+
+    /**
+     * 批量调用，部分失败不影响其他请求
+     *
+     * @param requests       请求列表
+     * @param maxConcurrency 最大并发数
+     * @param timeoutMillis  批次期限，单位ms，0表示不限制，到期未完成的请求取消并以TimeoutException记为失败
+     * @param <R>
+     * @return 按请求顺序排列的结果
+     */
+    public <R> List<InvokeResult<R>> invokeAll(List<InvokeRequest<R>> requests, int maxConcurrency, long timeoutMillis) {
+        return this.invokeAll(requests, maxConcurrency, timeoutMillis, null);
+    }
+
+    /**
+     * 批量调用，部分失败不影响其他请求。基于异步调用，等待响应期间不占用线程，
+     * 每个请求以调用时的接口日志设置为基础，叠加请求自身的apiCode、businessKey等记录日志
+     *
+     * @param requests       请求列表
+     * @param maxConcurrency 最大并发数，同一host还受rest-template.max-requests-per-host限制
+     * @param timeoutMillis  批次期限，单位ms，0表示不限制，到期未完成的请求取消并以TimeoutException记为失败
+     * @param onComplete     每个请求完成时的回调（按完成顺序，在回调线程中调用，可能并发），可为null
+     * @param <R>
+     * @return 按请求顺序排列的结果
+     */
+    public <R> List<InvokeResult<R>> invokeAll(List<InvokeRequest<R>> requests, int maxConcurrency, long timeoutMillis, Consumer<InvokeResult<R>> onComplete) {
+        Map<String, Object> setup = ApiLogSetupHelper.snapshot();
+        ApiLogSetupHelper.clear();
+        return new BatchInvocation<>(requests, request -> this.invokeAsync(request, setup), maxConcurrency, onComplete).run(timeoutMillis);
+    }
+
+    private <R> CompletableFuture<ResponseEntity<R>> invokeAsync(InvokeRequest<R> request, Map<String, Object> setup) {
+        Map<String, Object> requestSetup = new HashMap<>(setup);
+        if (request.getBusinessKey() != null) {
+            requestSetup.put(ApiLogSetupHelper.FIELD_BUSINESS_KEY, request.getBusinessKey());
+        }
+        if (request.getApiCode() != null) {
+            requestSetup.put(ApiLogData.FIELD_API_CODE, request.getApiCode());
+        }
+        if (request.getApiDesc() != null) {
+            requestSetup.put(ApiLogData.FIELD_API_DESC, request.getApiDesc());
+        }
+        if (request.getContext() != null) {
+            requestSetup.put(ApiLogSetupHelper.FIELD_CONTEXT, request.getContext());
+        }
+        try {
+            return ApiLogSetupHelper.callWith(requestSetup, () -> this.exchangeAsync(request.getUrl(), request.getMethod(),
+                    request.getContentType(), request.getHeaders(), request.getBody(), request.getResponseType()));
+        } catch (Exception e) {
+            CompletableFuture<ResponseEntity<R>> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
     }
 
     /**
@@ -597,6 +930,170 @@ public class RestTemplateHelper {
         return this.dcRestTemplate;
     }
 
+    /**
+     * 使用响应缓存的get请求：缓存未过期时直接由缓存的body返回结果，不发起请求，记录一条fromCache的日志；
+     * 已过期时以If-None-Match、If-Modified-Since重新验证，返回304时继续使用缓存
+     */
+    private <R> ResponseEntity<R> getWithCache(String url, HttpHeaders headers, Class<R> responseType) {
+        long startTime = System.currentTimeMillis();
+        if (!HttpResponseCache.isCacheable(headers)) {
+            return retryingRestInvoker.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), responseType);
+        }
+        String key = HttpResponseCache.key(url, headers);
+        CachedResponse cached = httpResponseCache.get(key);
+        if (cached != null && cached.isFresh() && !HttpResponseCache.requiresRevalidation(headers)) {
+            httpResponseCache.recordHit();
+            this.recordCacheHitLog(url, headers, cached, startTime);
+            return this.toResponseEntity(cached, responseType);
+        }
+
+        HttpHeaders requestHeaders = new HttpHeaders();
+        if (headers != null) {
+            requestHeaders.putAll(headers);
+        }
+        if (cached != null && cached.getHeaders().getETag() != null) {
+            requestHeaders.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+        if (cached != null && cached.getHeaders().getLastModified() >= 0) {
+            requestHeaders.setIfModifiedSince(cached.getHeaders().getLastModified());
+        }
+        // 按原始字节读取，再按返回值类型解析（Accept仍按返回值类型生成），同样按配置重试或对冲
+        ResponseEntity<byte[]> response = retryingRestInvoker.execute(url, HttpMethod.GET, new HttpEntity<>(requestHeaders), responseType, clientHttpResponse -> {
+            try (InputStream inputStream = clientHttpResponse.getBody()) {
+                return ResponseEntity.status(clientHttpResponse.getRawStatusCode()).headers(clientHttpResponse.getHeaders()).body(IOUtils.toByteArray(inputStream));
+            }
+        });
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            CachedResponse revalidated = cached.revalidated(response.getHeaders());
+            httpResponseCache.put(key, revalidated);
+            httpResponseCache.recordRevalidation();
+            return this.toResponseEntity(revalidated, responseType);
+        }
+
+        httpResponseCache.recordMiss();
+        CachedResponse fetched = CachedResponse.of(response, httpResponseCache.getMaxEntrySize());
+        if (fetched == null) {
+            httpResponseCache.remove(key);
+            R body = this.decodeBody(response.getStatusCodeValue(), response.getHeaders(), response.getBody(), responseType);
+            return ResponseEntity.status(response.getStatusCodeValue()).headers(response.getHeaders()).body(body);
+        }
+        httpResponseCache.put(key, fetched);
+        return this.toResponseEntity(fetched, responseType);
+    }
+
+    private <R> ResponseEntity<R> toResponseEntity(CachedResponse cached, Class<R> responseType) {
+        // 字节数组可被调用方修改，每次返回副本；不可变类型返回按类型缓存的解析结果，其他类型每次重新解析
+        R body = responseType == byte[].class ? responseType.cast(cached.getBody().clone())
+                : cached.decode(responseType, (response, type) -> this.decodeBody(response.getRawStatusCode(), response.getHeaders(), response.getBody(), type));
+        return ResponseEntity.status(cached.getRawStatusCode()).headers(cached.getHeaders()).body(body);
+    }
+
+    /**
+     * 使用dcRestTemplate的消息转换器解析body
+     */
+    private <R> R decodeBody(int rawStatusCode, HttpHeaders headers, byte[] body, Class<R> responseType) {
+        if (responseType == byte[].class) {
+            return responseType.cast(body);
+        }
+        try {
+            BufferedClientHttpResponse response = new BufferedClientHttpResponse(rawStatusCode, "", headers, body == null ? new byte[0] : body);
+            ResponseEntity<R> responseEntity = dcRestTemplate.<R>responseEntityExtractor(responseType).extractData(response);
+            return responseEntity == null ? null : responseEntity.getBody();
+        } catch (IOException e) {
+            throw new RestClientException("响应解析失败：" + responseType.getName(), e);
+        }
+    }
+
+    /**
+     * 命中缓存时未经过拦截器，在此记录日志
+     */
+    private void recordCacheHitLog(String url, HttpHeaders headers, CachedResponse cached, long startTime) {
+        Map<String, Object> setup = ApiLogSetupHelper.get();
+        try {
+            URI uri = dcRestTemplate.getUriTemplateHandler().expand(url);
+            String apiCode = StringUtils.defaultIfBlank(ApiLogSetupHelper.getApiCode(setup), "缺省");
+            SamplingDecision sampling = apiLogSampler.sample(apiCode);
+            boolean capturesPayload = sampling == null || sampling == SamplingDecision.FULL;
+            String responseContent = null;
+            if (capturesPayload && BooleanUtils.isNotTrue(ApiLogSetupHelper.getFileDownload(setup))) {
+                responseContent = new String(cached.getBody(), ObjectUtils.defaultIfNull(ApiLogSetupHelper.getResponseBodyEncoding(setup), StandardCharsets.UTF_8));
+            }
+            ApiLogData apiLogData = ApiLogData.builder()
+                    .businessKey(ApiLogSetupHelper.getBusinessKey(setup))
+                    .apiCode(apiCode)
+                    .apiDesc(StringUtils.defaultIfBlank(ApiLogSetupHelper.getApiDesc(setup), "缺省"))
+                    .url(uri.getScheme() + "://" + uri.getAuthority() + uri.getPath())
+                    .method(HttpMethod.GET.name())
+                    .ip(IpAddressUtil.getIp())
+                    .requestHeaders(capturesPayload ? JSON.toJSONString(headers) : null)
+                    .requestQuery(uri.getQuery())
+                    .isSuccess(true)
+                    .responseContent(responseContent)
+                    .consumeTime(System.currentTimeMillis() - startTime)
+                    .isInner(false)
+                    .requestContentType("")
+                    .requestDate(new Date(startTime))
+                    .responseCode(HttpStatus.valueOf(cached.getRawStatusCode()) + "/from cache")
+                    .responseHeaders(capturesPayload ? JSONObject.toJSONString(cached.getHeaders()) : null)
+                    .fromCache(true)
+                    .context(ApiLogSetupHelper.getContext(setup))
+                    .sampling(sampling == null ? null : sampling.name())
+                    .build();
+            // 未发出请求，不统计字节数
+            callMetricsRegistry.record(apiLogData, 0, 0);
+            if (!apiLogSampler.shouldLog(apiLogData)) {
+                return;
+            }
+            apiLogDataDispatcher.dispatch(this.getHandler(ApiLogSetupHelper.getHandler(setup)), apiLogData);
+        } catch (Exception e) {
+            log.warn("接口日志记录异常", e);
+        } finally {
+            ApiLogSetupHelper.clear();
+        }
+    }
+
+    /**
+     * form-data格式大文件上传，请求体按精确长度以固定长度流模式（或配置的分块模式）边读文件边发送，内存占用与文件大小无关
+     */
+    private <R> ResponseEntity<R> exchangeFormData(HttpMethod method, String url, HttpHeaders headers, LinkedMultiValueMap<String, Object> param,
+                                                   String fileParamName, File file, Class<R> responseType) {
+        // 此处记录日志，避免写大文件到日志拦截器出现OOM
+        FileSystemResource fileResource = new FileSystemResource(file);
+        param.add(fileParamName, fileResource);
+        MultipartStreamingBody multipartBody = new MultipartStreamingBody(param);
+        RequestEntity<LinkedMultiValueMap<String, Object>> requestEntity = RequestEntity
+                .method(method, URI.create(url))
+                .contentType(multipartBody.getContentType())
+                .accept(MediaType.ALL)
+                .acceptCharset(StandardCharsets.UTF_8)
+                .headers(headers)
+                .body(param);
+        ApiLogData apiLogData = this.recordFileUploadInvokeLogBefore(param, fileParamName, file, requestEntity);
+        long responseBytes = -1;
+        try {
+            RequestCallback requestCallback = request -> {
+                request.getHeaders().putAll(requestEntity.getHeaders());
+                request.getHeaders().setContentType(multipartBody.getContentType());
+                if (!restTemplateProperty.isUploadChunked()) {
+                    // 指定Content-Length时以FixedLengthStreamingMode发送，否则以ChunkedStreamingMode发送
+                    request.getHeaders().setContentLength(multipartBody.contentLength());
+                }
+                multipartBody.writeTo(request.getBody());
+            };
+            ResponseEntity<R> response = uploadBigFileRestTemplate.execute(url, method, requestCallback,
+                    uploadBigFileRestTemplate.responseEntityExtractor(responseType));
+            apiLogData = this.recordFileUploadInvokeLogReturn(apiLogData, response);
+            responseBytes = response.getHeaders().getContentLength();
+            return response;
+        } catch (Throwable e) {
+            apiLogData = this.recordFileUploadInvokeLogException(apiLogData, e);
+            throw e;
+        } finally {
+            // 发送字节数按文件大小统计
+            this.recordFileUploadInvokeLogFinally(apiLogData, file.length(), responseBytes);
+        }
+    }
+
     private ApiLogData recordFileUploadInvokeLogBefore(LinkedMultiValueMap<String, Object> param, String fileParamName, File file, RequestEntity requestEntity) {
         URI uri = requestEntity.getUrl();
         if (log.isTraceEnabled()) {
@@ -605,38 +1102,49 @@ public class RestTemplateHelper {
         }
 
         Object businessKey = ApiLogSetupHelper.getBusinessKey();
-        String apiCode = ApiLogSetupHelper.getApiCode();
+        String apiCode = StringUtils.defaultIfBlank(ApiLogSetupHelper.getApiCode(), "缺省");
         String apiDesc = ApiLogSetupHelper.getApiDesc();
         Map<String, Object> context = ApiLogSetupHelper.getContext();
         String ip = IpAddressUtil.getIp();
         String contentType = ObjectUtils.defaultIfNull(requestEntity.getHeaders().getContentType(), "").toString();
-        LinkedMultiValueMap<String, Object> body = param.deepCopy();
-        body.put(fileParamName, Arrays.asList(file.getName(), FileUtils.byteCountToDisplaySize(file.length())));
+        SamplingDecision sampling = apiLogSampler.sample(apiCode);
+        boolean capturesPayload = sampling == null || sampling == SamplingDecision.FULL;
+        String body = null;
+        if (capturesPayload) {
+            LinkedMultiValueMap<String, Object> bodyMap = param.deepCopy();
+            bodyMap.put(fileParamName, Arrays.asList(file.getName(), FileUtils.byteCountToDisplaySize(file.length())));
+            body = JSON.toJSONString(bodyMap);
+        }
 
         return ApiLogData.builder()
                 .businessKey(businessKey)
-                .apiCode(StringUtils.defaultIfBlank(apiCode, "缺省"))
+                .apiCode(apiCode)
                 .apiDesc(StringUtils.defaultIfBlank(apiDesc, "缺省"))
                 .url(uri.getScheme() + "://" + uri.getAuthority() + uri.getPath())
                 .method(String.valueOf(requestEntity.getMethod()))
                 .ip(ip)
-                .requestHeaders(JSON.toJSONString(requestEntity.getHeaders()))
+                .requestHeaders(capturesPayload ? JSON.toJSONString(requestEntity.getHeaders()) : null)
                 .requestQuery(uri.getQuery())
-                .requestBody(JSON.toJSONString(body))
+                .requestBody(body)
                 .requestContentType(contentType)
                 .isInner(false)
                 .requestDate(new Date())
                 .context(context)
                 .consumeTime(System.currentTimeMillis())
+                .sampling(sampling == null ? null : sampling.name())
                 .build();
     }
 
     private ApiLogData recordFileUploadInvokeLogReturn(ApiLogData apiLogData, ResponseEntity response) {
+        boolean capturesPayload = SamplingDecision.capturesPayload(apiLogData.getSampling());
         String responseContent = null;
-        if (response.getBody() instanceof String || response.getBody() instanceof Number || response.getBody() instanceof Boolean) {
-            responseContent = response.getBody().toString();
-        } else {
-            responseContent = JSON.toJSONString(response.getBody());
+        // 未采样时不记录响应内容
+        if (capturesPayload) {
+            if (response.getBody() instanceof String || response.getBody() instanceof Number || response.getBody() instanceof Boolean) {
+                responseContent = response.getBody().toString();
+            } else {
+                responseContent = JSON.toJSONString(response.getBody());
+            }
         }
 
         if (log.isTraceEnabled()) {
@@ -647,7 +1155,7 @@ public class RestTemplateHelper {
                 .isSuccess(response.getStatusCode().is2xxSuccessful())
                 .responseContent(responseContent)
                 .responseCode(response.getStatusCode().toString())
-                .responseHeaders(JSONObject.toJSONString(response.getHeaders()))
+                .responseHeaders(capturesPayload ? JSONObject.toJSONString(response.getHeaders()) : null)
                 .build();
 
         return apiLogData;
@@ -662,14 +1170,18 @@ public class RestTemplateHelper {
         return apiLogData;
     }
 
-    private void recordFileUploadInvokeLogFinally(ApiLogData apiLogData) {
+    private void recordFileUploadInvokeLogFinally(ApiLogData apiLogData, long requestBytes, long responseBytes) {
         Class<? extends IApiLogDataHandler> logHandler = ApiLogSetupHelper.getHandler();
         try {
             apiLogData = apiLogData.toBuilder()
                     .consumeTime(System.currentTimeMillis() - apiLogData.getConsumeTime())
                     .build();
+            callMetricsRegistry.record(apiLogData, requestBytes, responseBytes);
+            if (!apiLogSampler.shouldLog(apiLogData)) {
+                return;
+            }
             IApiLogDataHandler handler = this.getHandler(logHandler);
-            handler.handle(apiLogData);
+            apiLogDataDispatcher.dispatch(handler, apiLogData);
         } catch (Exception e) {
             log.warn("接口日志记录异常", e);
         } finally {
@@ -678,18 +1190,11 @@ public class RestTemplateHelper {
     }
 
     /**
-     * 获取处理器，优先从获取spring bean，如没有则是单纯的对象，不含注入bean
+     * 获取处理器，优先从获取spring bean，如没有则是单纯的对象，不含注入bean；每个class只解析一次
      * @param handleClazz 处理器class
      * @return 处理器
      */
     public IApiLogDataHandler getHandler(Class<? extends IApiLogDataHandler> handleClazz) {
-        if (handleClazz == null) {
-            return new DefaultApiLogDataHandler();
-        }
-        IApiLogDataHandler apiLogDataHandler = ApplicationContextHelper.getBean(handleClazz);
-        if (apiLogDataHandler != null) {
-            return apiLogDataHandler;
-        }
-        return ReflectUtil.instance(handleClazz);
+        return apiLogDataHandlerRegistry.get(handleClazz);
     }
 }
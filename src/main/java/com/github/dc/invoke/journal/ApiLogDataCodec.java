@@ -0,0 +1,200 @@
+package com.github.dc.invoke.journal;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * <p>
+ *     接口日志二进制编解码。
+ *     格式：版本号(1字节) + 若干字段，每个字段为 标签(1字节) + 长度(4字节) + 内容，空字段不写；
+ *     字符串为UTF-8，布尔为1字节，数值/时间为8字节，上下文为JSON，压缩后的body为原始字节。未知标签按长度跳过，便于后续追加字段
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:00
+ */
+@UtilityClass
+public class ApiLogDataCodec {
+    private static final byte VERSION = 1;
+
+    private static final byte BUSINESS_KEY = 1;
+    private static final byte API_CODE = 2;
+    private static final byte API_DESC = 3;
+    private static final byte URL = 4;
+    private static final byte METHOD = 5;
+    private static final byte IP = 6;
+    private static final byte REQUEST_HEADERS = 7;
+    private static final byte REQUEST_QUERY = 8;
+    private static final byte REQUEST_BODY = 9;
+    private static final byte IS_SUCCESS = 10;
+    private static final byte RESPONSE_CONTENT = 11;
+    private static final byte EXCEPTION_STACK = 12;
+    private static final byte CONSUME_TIME = 13;
+    private static final byte IS_INNER = 14;
+    private static final byte REQUEST_CONTENT_TYPE = 15;
+    private static final byte REQUEST_DATE = 16;
+    private static final byte RESPONSE_CODE = 17;
+    private static final byte RESPONSE_HEADERS = 18;
+    private static final byte CONTEXT = 19;
+    private static final byte FROM_CACHE = 20;
+    private static final byte CIRCUIT_STATE = 21;
+    private static final byte ATTEMPT = 22;
+    private static final byte SAMPLING = 23;
+    private static final byte COMPRESSED_REQUEST_BODY = 24;
+    private static final byte COMPRESSED_RESPONSE_CONTENT = 25;
+    private static final byte BODY_CODEC = 26;
+
+    public static byte[] encode(ApiLogData apiLogData) {
+        Writer writer = new Writer();
+        writer.buffer[writer.position++] = VERSION;
+        writer.putString(BUSINESS_KEY, apiLogData.getBusinessKey() == null ? null : String.valueOf(apiLogData.getBusinessKey()));
+        writer.putString(API_CODE, apiLogData.getApiCode());
+        writer.putString(API_DESC, apiLogData.getApiDesc());
+        writer.putString(URL, apiLogData.getUrl());
+        writer.putString(METHOD, apiLogData.getMethod());
+        writer.putString(IP, apiLogData.getIp());
+        writer.putString(REQUEST_HEADERS, apiLogData.getRequestHeaders());
+        writer.putString(REQUEST_QUERY, apiLogData.getRequestQuery());
+        writer.putString(REQUEST_BODY, apiLogData.getRequestBody());
+        writer.putBoolean(IS_SUCCESS, apiLogData.getIsSuccess());
+        writer.putString(RESPONSE_CONTENT, apiLogData.getResponseContent());
+        writer.putString(EXCEPTION_STACK, apiLogData.getExceptionStack());
+        writer.putLong(CONSUME_TIME, apiLogData.getConsumeTime());
+        writer.putBoolean(IS_INNER, apiLogData.getIsInner());
+        writer.putString(REQUEST_CONTENT_TYPE, apiLogData.getRequestContentType());
+        writer.putLong(REQUEST_DATE, apiLogData.getRequestDate() == null ? null : apiLogData.getRequestDate().getTime());
+        writer.putString(RESPONSE_CODE, apiLogData.getResponseCode());
+        writer.putString(RESPONSE_HEADERS, apiLogData.getResponseHeaders());
+        writer.putString(CONTEXT, apiLogData.getContext() == null ? null : JSON.toJSONString(apiLogData.getContext()));
+        writer.putBoolean(FROM_CACHE, apiLogData.getFromCache());
+        writer.putString(CIRCUIT_STATE, apiLogData.getCircuitState());
+        writer.putLong(ATTEMPT, apiLogData.getAttempt() == null ? null : apiLogData.getAttempt().longValue());
+        writer.putString(SAMPLING, apiLogData.getSampling());
+        writer.putBytes(COMPRESSED_REQUEST_BODY, apiLogData.getCompressedRequestBody());
+        writer.putBytes(COMPRESSED_RESPONSE_CONTENT, apiLogData.getCompressedResponseContent());
+        writer.putString(BODY_CODEC, apiLogData.getBodyCodec());
+        return Arrays.copyOf(writer.buffer, writer.position);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ApiLogData decode(ByteBuffer buffer) {
+        ApiLogData apiLogData = new ApiLogData();
+        // 版本号，当前只有一个版本
+        buffer.get();
+        while (buffer.hasRemaining()) {
+            byte tag = buffer.get();
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            switch (tag) {
+                case BUSINESS_KEY: apiLogData.setBusinessKey(getString(buffer, length)); break;
+                case API_CODE: apiLogData.setApiCode(getString(buffer, length)); break;
+                case API_DESC: apiLogData.setApiDesc(getString(buffer, length)); break;
+                case URL: apiLogData.setUrl(getString(buffer, length)); break;
+                case METHOD: apiLogData.setMethod(getString(buffer, length)); break;
+                case IP: apiLogData.setIp(getString(buffer, length)); break;
+                case REQUEST_HEADERS: apiLogData.setRequestHeaders(getString(buffer, length)); break;
+                case REQUEST_QUERY: apiLogData.setRequestQuery(getString(buffer, length)); break;
+                case REQUEST_BODY: apiLogData.setRequestBody(getString(buffer, length)); break;
+                case IS_SUCCESS: apiLogData.setIsSuccess(buffer.get() == 1); break;
+                case RESPONSE_CONTENT: apiLogData.setResponseContent(getString(buffer, length)); break;
+                case EXCEPTION_STACK: apiLogData.setExceptionStack(getString(buffer, length)); break;
+                case CONSUME_TIME: apiLogData.setConsumeTime(buffer.getLong()); break;
+                case IS_INNER: apiLogData.setIsInner(buffer.get() == 1); break;
+                case REQUEST_CONTENT_TYPE: apiLogData.setRequestContentType(getString(buffer, length)); break;
+                case REQUEST_DATE: apiLogData.setRequestDate(new Date(buffer.getLong())); break;
+                case RESPONSE_CODE: apiLogData.setResponseCode(getString(buffer, length)); break;
+                case RESPONSE_HEADERS: apiLogData.setResponseHeaders(getString(buffer, length)); break;
+                case CONTEXT: apiLogData.setContext(JSON.parseObject(getString(buffer, length), Map.class)); break;
+                case FROM_CACHE: apiLogData.setFromCache(buffer.get() == 1); break;
+                case CIRCUIT_STATE: apiLogData.setCircuitState(getString(buffer, length)); break;
+                case ATTEMPT: apiLogData.setAttempt((int) buffer.getLong()); break;
+                case SAMPLING: apiLogData.setSampling(getString(buffer, length)); break;
+                case COMPRESSED_REQUEST_BODY: apiLogData.setCompressedRequestBody(getBytes(buffer, length)); break;
+                case COMPRESSED_RESPONSE_CONTENT: apiLogData.setCompressedResponseContent(getBytes(buffer, length)); break;
+                case BODY_CODEC: apiLogData.setBodyCodec(getString(buffer, length)); break;
+                default: break;
+            }
+            buffer.position(end);
+        }
+        return apiLogData;
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[512];
+        private int position;
+
+        private void putString(byte tag, String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.putHeader(tag, bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void putBytes(byte tag, byte[] value) {
+            if (value == null) {
+                return;
+            }
+            this.putHeader(tag, value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        private void putBoolean(byte tag, Boolean value) {
+            if (value == null) {
+                return;
+            }
+            this.putHeader(tag, 1);
+            buffer[position++] = (byte) (value ? 1 : 0);
+        }
+
+        private void putLong(byte tag, Long value) {
+            if (value == null) {
+                return;
+            }
+            this.putHeader(tag, 8);
+            long v = value;
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (v >>> shift);
+            }
+        }
+
+        private void putHeader(byte tag, int length) {
+            int required = position + 5 + length;
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+            }
+            buffer[position++] = tag;
+            buffer[position++] = (byte) (length >>> 24);
+            buffer[position++] = (byte) (length >>> 16);
+            buffer[position++] = (byte) (length >>> 8);
+            buffer[position++] = (byte) length;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.dc.invoke.journal;
+
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ *     接口日志本地日志文件（只追加），基于内存映射文件按大小滚动分段。
+ *     每条记录为 长度(4字节) + CRC32(4字节) + {@link ApiLogDataCodec}编码内容，长度为0表示后面尚未写入，为-1表示该分段已结束。
+ *     写入时先写内容再写长度，进程异常退出后重启时按CRC校验找回写入位置
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:20
+ */
+@Slf4j
+public class ApiLogJournal implements Closeable {
+    static final int END_OF_DATA = 0;
+    static final int END_OF_SEGMENT = -1;
+    static final int RECORD_HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private int position;
+    /**
+     * 已提交位置：高32位为分段序号，低32位为分段内偏移
+     */
+    private volatile long committed;
+
+    public ApiLogJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.recover();
+    }
+
+    /**
+     * 追加日志
+     *
+     * @param apiLogData 日志数据
+     */
+    public void append(ApiLogData apiLogData) throws IOException {
+        byte[] payload = ApiLogDataCodec.encode(apiLogData);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        int required = RECORD_HEADER_SIZE + payload.length;
+        lock.lock();
+        try {
+            // 始终为分段结束标记预留4字节
+            if (position + required + 4 > segment.capacity()) {
+                this.rotate(required);
+            }
+            segment.putInt(position + 4, (int) crc32.getValue());
+            ByteBuffer view = segment.duplicate();
+            view.position(position + RECORD_HEADER_SIZE);
+            view.put(payload);
+            segment.putInt(position, payload.length);
+            position += required;
+            committed = (segmentIndex << 32) | position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 已提交位置：高32位为分段序号，低32位为分段内偏移
+     */
+    public long getCommitted() {
+        return committed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 刷盘
+     */
+    public void force() {
+        lock.lock();
+        try {
+            segment.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.force();
+    }
+
+    Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Long> indexes = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+            return new ArrayList<>(indexes);
+        }
+    }
+
+    /**
+     * 校验position处的记录是否完整
+     *
+     * @return 完整返回记录内容长度，否则返回-1
+     */
+    static int validRecordLength(ByteBuffer buffer, int position, int limit) {
+        if (position + RECORD_HEADER_SIZE > limit) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER_SIZE + length > limit) {
+            return -1;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(position + RECORD_HEADER_SIZE + length);
+        payload.position(position + RECORD_HEADER_SIZE);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue() == buffer.getInt(position + 4) ? length : -1;
+    }
+
+    static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> segments = this.listSegments();
+        if (segments.isEmpty()) {
+            this.open(0, segmentSize);
+            return;
+        }
+        long lastIndex = segments.get(segments.size() - 1);
+        Path lastPath = this.segmentPath(lastIndex);
+        this.open(lastIndex, Math.max(segmentSize, Files.size(lastPath)));
+        int offset = 0;
+        int capacity = segment.capacity();
+        while (offset + 4 <= capacity) {
+            int length = segment.getInt(offset);
+            if (length == END_OF_SEGMENT) {
+                this.open(lastIndex + 1, segmentSize);
+                return;
+            }
+            if (length == END_OF_DATA) {
+                break;
+            }
+            int valid = validRecordLength(segment, offset, capacity);
+            if (valid < 0) {
+                log.warn("接口日志文件{}在偏移{}处记录不完整，从此处继续写入", lastPath, offset);
+                segment.putInt(offset, END_OF_DATA);
+                break;
+            }
+            offset += RECORD_HEADER_SIZE + valid;
+        }
+        this.position = offset;
+        this.committed = (segmentIndex << 32) | position;
+    }
+
+    private void rotate(int required) throws IOException {
+        segment.putInt(position, END_OF_SEGMENT);
+        segment.force();
+        this.open(segmentIndex + 1, Math.max(segmentSize, required + 4));
+    }
+
+    private void open(long index, long size) throws IOException {
+        this.segment = map(this.segmentPath(index), FileChannel.MapMode.READ_WRITE, size);
+        this.segmentIndex = index;
+        this.position = 0;
+        this.committed = (segmentIndex << 32) | position;
+    }
+}
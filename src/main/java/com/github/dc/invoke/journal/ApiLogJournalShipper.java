@@ -0,0 +1,161 @@
+package com.github.dc.invoke.journal;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ *     接口日志文件转发器，从检查点开始读取{@link ApiLogJournal}中的日志，按批交给下游处理器，
+ *     下游处理成功后才推进并持久化检查点，已转发完的分段文件会被删除，重启后从检查点继续
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:40
+ */
+@Slf4j
+public class ApiLogJournalShipper {
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final ApiLogJournal journal;
+    private final Supplier<IApiLogDataHandler> downstream;
+    private final int batchSize;
+    private final Path checkpointPath;
+
+    private long checkpointSegment;
+    private int checkpointOffset;
+    private long mappedIndex = -1;
+    private MappedByteBuffer mapped;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ApiLogJournalShipper(ApiLogJournal journal, Supplier<IApiLogDataHandler> downstream, int batchSize) throws IOException {
+        this.journal = journal;
+        this.downstream = downstream;
+        this.batchSize = batchSize;
+        this.checkpointPath = journal.getDirectory().resolve(CHECKPOINT_FILE);
+        this.loadCheckpoint();
+    }
+
+    /**
+     * 转发已写入的日志，直到没有新日志或下游处理失败
+     *
+     * @return 本次转发条数
+     */
+    public int ship() throws IOException {
+        // 使用ReentrantLock而非synchronized，避免虚拟线程在文件IO时固定载体线程
+        lock.lock();
+        try {
+            return this.doShip();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int doShip() throws IOException {
+        int shipped = 0;
+        List<ApiLogData> batch = new ArrayList<>(batchSize);
+        while (true) {
+            long segmentIndex = checkpointSegment;
+            int offset = checkpointOffset;
+            long committed = journal.getCommitted();
+            long writerSegment = committed >>> 32;
+            int writerPosition = (int) committed;
+            while (batch.size() < batchSize) {
+                if (segmentIndex > writerSegment || (segmentIndex == writerSegment && offset >= writerPosition)) {
+                    break;
+                }
+                MappedByteBuffer buffer = this.mapSegment(segmentIndex);
+                if (buffer == null) {
+                    // 分段文件缺失，跳过
+                    segmentIndex++;
+                    offset = 0;
+                    continue;
+                }
+                int limit = segmentIndex == writerSegment ? writerPosition : buffer.capacity();
+                int length = offset + 4 <= limit ? buffer.getInt(offset) : ApiLogJournal.END_OF_SEGMENT;
+                if (length == ApiLogJournal.END_OF_SEGMENT || length == ApiLogJournal.END_OF_DATA) {
+                    segmentIndex++;
+                    offset = 0;
+                    continue;
+                }
+                if (ApiLogJournal.validRecordLength(buffer, offset, limit) < 0) {
+                    log.warn("接口日志文件分段{}在偏移{}处记录损坏，跳过该分段剩余内容", segmentIndex, offset);
+                    segmentIndex++;
+                    offset = 0;
+                    continue;
+                }
+                ByteBuffer payload = buffer.duplicate();
+                payload.limit(offset + ApiLogJournal.RECORD_HEADER_SIZE + length);
+                payload.position(offset + ApiLogJournal.RECORD_HEADER_SIZE);
+                batch.add(ApiLogDataCodec.decode(payload.slice()));
+                offset += ApiLogJournal.RECORD_HEADER_SIZE + length;
+            }
+            if (!batch.isEmpty()) {
+                // 下游异常时不推进检查点，下次重试
+                downstream.get().handleBatch(batch);
+                shipped += batch.size();
+            }
+            boolean progressed = segmentIndex != checkpointSegment || offset != checkpointOffset;
+            if (progressed) {
+                this.saveCheckpoint(segmentIndex, offset);
+            }
+            if (batch.size() < batchSize) {
+                return shipped;
+            }
+            batch.clear();
+        }
+    }
+
+    private MappedByteBuffer mapSegment(long index) throws IOException {
+        if (index == mappedIndex) {
+            return mapped;
+        }
+        Path path = journal.segmentPath(index);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        mapped = ApiLogJournal.map(path, FileChannel.MapMode.READ_ONLY, -1);
+        mappedIndex = index;
+        return mapped;
+    }
+
+    private void loadCheckpoint() throws IOException {
+        if (Files.exists(checkpointPath)) {
+            String[] values = new String(Files.readAllBytes(checkpointPath), StandardCharsets.UTF_8).trim().split(" ");
+            checkpointSegment = Long.parseLong(values[0]);
+            checkpointOffset = Integer.parseInt(values[1]);
+            return;
+        }
+        List<Long> segments = journal.listSegments();
+        checkpointSegment = segments.isEmpty() ? 0 : segments.get(0);
+        checkpointOffset = 0;
+    }
+
+    private void saveCheckpoint(long segmentIndex, int offset) throws IOException {
+        Path temp = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        Files.write(temp, (segmentIndex + " " + offset).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (long index = checkpointSegment; index < segmentIndex; index++) {
+            if (index == mappedIndex) {
+                mapped = null;
+                mappedIndex = -1;
+            }
+            Files.deleteIfExists(journal.segmentPath(index));
+        }
+        checkpointSegment = segmentIndex;
+        checkpointOffset = offset;
+    }
+}
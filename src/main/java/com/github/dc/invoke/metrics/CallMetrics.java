@@ -0,0 +1,153 @@
+package com.github.dc.invoke.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ *     单个 接口代码 + host + 方向 的调用统计：耗时分布、调用次数、失败次数、按状态码的次数及收发字节数，
+ *     计数均基于LongAdder，记录时无锁
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+public class CallMetrics {
+    @Getter
+    private final Key key;
+    @Getter
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final BiConsumer<CallMetrics, String> onNewStatus;
+
+    /**
+     * @param key         统计key
+     * @param onNewStatus 首次出现某个状态码时的回调
+     */
+    public CallMetrics(Key key, BiConsumer<CallMetrics, String> onNewStatus) {
+        this.key = key;
+        this.onNewStatus = onNewStatus;
+    }
+
+    public enum Direction {
+        /**
+         * 内部接口（@ApiLog）被调用
+         */
+        INNER,
+        /**
+         * 调用外部接口
+         */
+        OUTER
+    }
+
+    /**
+     * 记录一次调用
+     *
+     * @param consumeTime 耗时，单位ms
+     * @param success     是否成功
+     * @param status      状态码，无响应时为EXCEPTION
+     * @param bytesIn     接收的字节数，未知时小于0
+     * @param bytesOut    发送的字节数，未知时小于0
+     */
+    public void record(long consumeTime, boolean success, String status, long bytesIn, long bytesOut) {
+        latency.record(consumeTime);
+        calls.increment();
+        if (!success) {
+            errors.increment();
+        }
+        if (bytesIn > 0) {
+            this.bytesIn.add(bytesIn);
+        }
+        if (bytesOut > 0) {
+            this.bytesOut.add(bytesOut);
+        }
+        LongAdder statusCount = statuses.get(status);
+        if (statusCount == null) {
+            LongAdder created = new LongAdder();
+            statusCount = statuses.putIfAbsent(status, created);
+            if (statusCount == null) {
+                statusCount = created;
+                onNewStatus.accept(this, status);
+            }
+        }
+        statusCount.increment();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * @param status 状态码
+     * @return 该状态码的次数
+     */
+    public long getStatusCount(String status) {
+        LongAdder count = statuses.get(status);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * @return 已出现的状态码
+     */
+    public Set<String> getStatuses() {
+        return new HashSet<>(statuses.keySet());
+    }
+
+    /**
+     * @return 当前统计快照
+     */
+    public CallMetricsSnapshot snapshot() {
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new CallMetricsSnapshot(key, calls.sum(), errors.sum(), statusCounts, bytesIn.sum(), bytesOut.sum(), latency.snapshot());
+    }
+
+    /**
+     * 取快照并清零，适用于按周期上报增量
+     *
+     * @return 清零前的快照
+     */
+    public CallMetricsSnapshot snapshotAndReset() {
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sumThenReset()));
+        return new CallMetricsSnapshot(key, calls.sumThenReset(), errors.sumThenReset(), statusCounts, bytesIn.sumThenReset(),
+                bytesOut.sumThenReset(), latency.snapshotAndReset());
+    }
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class Key {
+        private final String apiCode;
+        private final String host;
+        private final Direction direction;
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.dc.invoke.metrics;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>
+ *     进程内调用统计，由日志拦截器（含异步调用）、@ApiLog切面、大文件上传及响应缓存命中时记录，
+ *     按 接口代码 + host + 方向（内部/外部）统计耗时分布、调用次数、失败次数、按状态码的次数及收发字节数，
+ *     不需要从DC_API_LOG汇总即可获得实时的p50、p99等指标。key数量超过上限后，新的key统一记到OTHER
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@Slf4j
+@Component
+public class CallMetricsRegistry {
+    public static final String OTHER = "OTHER";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_EXCEPTION = "EXCEPTION";
+    private static final Comparator<CallMetricsSnapshot> ORDER = Comparator.comparing(CallMetricsSnapshot::getDirection)
+            .thenComparing(CallMetricsSnapshot::getApiCode, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CallMetricsSnapshot::getHost, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ApiLogProperty.Metrics property;
+    private final ConcurrentMap<CallMetrics.Key, CallMetrics> metrics = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public CallMetricsRegistry(ApiLogProperty apiLogProperty) {
+        this.property = apiLogProperty.getMetrics();
+    }
+
+    public boolean isEnabled() {
+        return property.isEnabled();
+    }
+
+    /**
+     * 记录一次调用，耗时、是否成功及状态码取自接口日志
+     *
+     * @param apiLogData    接口日志
+     * @param requestBytes  请求body字节数，未知时小于0
+     * @param responseBytes 响应body字节数，未知时小于0
+     */
+    public void record(ApiLogData apiLogData, long requestBytes, long responseBytes) {
+        if (!property.isEnabled()) {
+            return;
+        }
+        try {
+            boolean inner = BooleanUtils.isTrue(apiLogData.getIsInner());
+            CallMetrics callMetrics = this.metrics(apiLogData.getApiCode(), host(apiLogData.getUrl()),
+                    inner ? CallMetrics.Direction.INNER : CallMetrics.Direction.OUTER);
+            boolean success = BooleanUtils.isTrue(apiLogData.getIsSuccess());
+            callMetrics.record(ObjectUtils.defaultIfNull(apiLogData.getConsumeTime(), 0L), success, status(apiLogData.getResponseCode(), success),
+                    inner ? requestBytes : responseBytes, inner ? responseBytes : requestBytes);
+        } catch (Exception e) {
+            log.warn("调用统计记录异常", e);
+        }
+    }
+
+    /**
+     * 获取（不存在时创建）统计
+     *
+     * @param apiCode   接口代码
+     * @param host      host（含端口）
+     * @param direction 方向
+     * @return 统计
+     */
+    public CallMetrics metrics(String apiCode, String host, CallMetrics.Direction direction) {
+        CallMetrics.Key key = new CallMetrics.Key(apiCode, host, direction);
+        CallMetrics existing = metrics.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (metrics.size() >= property.getMaxKeys()) {
+            key = new CallMetrics.Key(OTHER, OTHER, direction);
+            existing = metrics.get(key);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        CallMetrics created = new CallMetrics(key, this::onNewStatus);
+        existing = metrics.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        for (Listener listener : listeners) {
+            listener.onCreated(created);
+        }
+        return created;
+    }
+
+    /**
+     * @return 所有统计
+     */
+    public List<CallMetrics> getAll() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * @return 所有统计的快照，按方向、接口代码、host排序
+     */
+    public List<CallMetricsSnapshot> snapshot() {
+        List<CallMetricsSnapshot> snapshots = new ArrayList<>(metrics.size());
+        for (CallMetrics callMetrics : metrics.values()) {
+            snapshots.add(callMetrics.snapshot());
+        }
+        snapshots.sort(ORDER);
+        return snapshots;
+    }
+
+    /**
+     * 取所有统计的快照并清零，适用于按周期上报增量。
+     * 同时使用Micrometer时其计数器会随之回退，不建议与Micrometer同时使用
+     *
+     * @return 清零前的快照
+     */
+    public List<CallMetricsSnapshot> snapshotAndReset() {
+        List<CallMetricsSnapshot> snapshots = new ArrayList<>(metrics.size());
+        for (CallMetrics callMetrics : metrics.values()) {
+            snapshots.add(callMetrics.snapshotAndReset());
+        }
+        snapshots.sort(ORDER);
+        return snapshots;
+    }
+
+    /**
+     * 清零所有统计
+     */
+    public void reset() {
+        this.snapshotAndReset();
+    }
+
+    /**
+     * 添加监听器，用于把统计注册到Micrometer等监控系统
+     *
+     * @param listener 监听器
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void onNewStatus(CallMetrics callMetrics, String status) {
+        for (Listener listener : listeners) {
+            listener.onNewStatus(callMetrics, status);
+        }
+    }
+
+    static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?' && url.charAt(end) != '#') {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    static String status(String responseCode, boolean success) {
+        if (responseCode == null) {
+            return success ? STATUS_SUCCESS : STATUS_EXCEPTION;
+        }
+        int end = 0;
+        while (end < responseCode.length() && Character.isDigit(responseCode.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? responseCode : responseCode.substring(0, end);
+    }
+
+    public interface Listener {
+        /**
+         * 新的统计创建后回调
+         *
+         * @param callMetrics 统计
+         */
+        void onCreated(CallMetrics callMetrics);
+
+        /**
+         * 统计中首次出现某个状态码时回调
+         *
+         * @param callMetrics 统计
+         * @param status      状态码
+         */
+        void onNewStatus(CallMetrics callMetrics, String status);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.dc.invoke.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * <p>
+ *     调用统计快照，耗时单位ms
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@Getter
+@ToString
+public class CallMetricsSnapshot {
+    private final String apiCode;
+    private final String host;
+    private final CallMetrics.Direction direction;
+    private final long calls;
+    private final long errors;
+    /**
+     * 按状态码的次数，无响应（异常）的调用为EXCEPTION
+     */
+    private final Map<String, Long> statusCounts;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    @ToString.Exclude
+    private final LatencyHistogram.Snapshot latency;
+
+    public CallMetricsSnapshot(CallMetrics.Key key, long calls, long errors, Map<String, Long> statusCounts, long bytesIn, long bytesOut,
+                               LatencyHistogram.Snapshot latency) {
+        this.apiCode = key.getApiCode();
+        this.host = key.getHost();
+        this.direction = key.getDirection();
+        this.calls = calls;
+        this.errors = errors;
+        this.statusCounts = statusCounts;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.mean = latency.getMean();
+        this.p50 = latency.valueAtPercentile(50);
+        this.p90 = latency.valueAtPercentile(90);
+        this.p99 = latency.valueAtPercentile(99);
+        this.p999 = latency.valueAtPercentile(99.9);
+        this.max = latency.getMax();
+        this.latency = latency;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.dc.invoke.metrics;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * <p>
+ *     把调用统计注册到Micrometer，新出现的 接口代码 + host + 方向 及状态码自动注册：
+ *     dc.invoke.calls、dc.invoke.errors、dc.invoke.responses（按status）、dc.invoke.bytes.in、dc.invoke.bytes.out为计数器，
+ *     dc.invoke.latency（按quantile）、dc.invoke.latency.max为耗时分布的仪表，单位ms。
+ *     使用Spring Boot Actuator时由其自动绑定，否则需手动调用bindTo
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:00
+ */
+@RequiredArgsConstructor
+public class MicrometerCallMetricsBinder implements MeterBinder {
+    private static final String PREFIX = "dc.invoke.";
+
+    private final CallMetricsRegistry callMetricsRegistry;
+    private final ApiLogProperty.Metrics property;
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if (!callMetricsRegistry.isEnabled() || !property.isMicrometer()) {
+            return;
+        }
+        // 先添加监听器再注册已有统计，重复注册时Micrometer返回已有的meter
+        callMetricsRegistry.addListener(new CallMetricsRegistry.Listener() {
+            @Override
+            public void onCreated(CallMetrics callMetrics) {
+                register(meterRegistry, callMetrics);
+            }
+
+            @Override
+            public void onNewStatus(CallMetrics callMetrics, String status) {
+                registerStatus(meterRegistry, callMetrics, status);
+            }
+        });
+        for (CallMetrics callMetrics : callMetricsRegistry.getAll()) {
+            this.register(meterRegistry, callMetrics);
+            for (String status : callMetrics.getStatuses()) {
+                this.registerStatus(meterRegistry, callMetrics, status);
+            }
+        }
+    }
+
+    private void register(MeterRegistry meterRegistry, CallMetrics callMetrics) {
+        Tags tags = tags(callMetrics.getKey());
+        FunctionCounter.builder(PREFIX + "calls", callMetrics, CallMetrics::getCalls)
+                .tags(tags).description("调用次数").register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "errors", callMetrics, CallMetrics::getErrors)
+                .tags(tags).description("失败次数").register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "bytes.in", callMetrics, CallMetrics::getBytesIn)
+                .tags(tags).baseUnit(BaseUnits.BYTES).description("接收字节数").register(meterRegistry);
+        FunctionCounter.builder(PREFIX + "bytes.out", callMetrics, CallMetrics::getBytesOut)
+                .tags(tags).baseUnit(BaseUnits.BYTES).description("发送字节数").register(meterRegistry);
+        for (Double percentile : property.getPercentiles()) {
+            Gauge.builder(PREFIX + "latency", callMetrics, metrics -> metrics.getLatency().snapshot().valueAtPercentile(percentile))
+                    .tags(tags).tag("quantile", String.valueOf(percentile / 100))
+                    .baseUnit(BaseUnits.MILLISECONDS).description("耗时百分位").register(meterRegistry);
+        }
+        Gauge.builder(PREFIX + "latency.max", callMetrics, metrics -> metrics.getLatency().snapshot().getMax())
+                .tags(tags).baseUnit(BaseUnits.MILLISECONDS).description("最大耗时").register(meterRegistry);
+    }
+
+    private void registerStatus(MeterRegistry meterRegistry, CallMetrics callMetrics, String status) {
+        FunctionCounter.builder(PREFIX + "responses", callMetrics, metrics -> metrics.getStatusCount(status))
+                .tags(tags(callMetrics.getKey())).tag("status", status).description("按状态码的调用次数").register(meterRegistry);
+    }
+
+    private static Tags tags(CallMetrics.Key key) {
+        return Tags.of("apiCode", String.valueOf(key.getApiCode()),
+                "host", String.valueOf(key.getHost()),
+                "direction", key.getDirection().name());
+    }
+}
@@ -1,12 +1,16 @@
 package com.github.dc.invoke.pojo;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  *  接口日志数据
@@ -94,8 +98,54 @@ public class ApiLogData {
      * 请求外部接口的返回头，当IS_INNER字段为false时有值
      */
     private String responseHeaders;
+    /**
+     * 是否使用了缓存的响应（命中GET响应缓存或条件请求返回304），请求外部接口时有值
+     */
+    private Boolean fromCache;
+    /**
+     * 调用时所在熔断器的状态（CLOSED、OPEN、HALF_OPEN），开启熔断时有值
+     */
+    private String circuitState;
+    /**
+     * 第几次尝试（从1开始），开启重试或对冲请求时有值
+     */
+    private Integer attempt;
+    /**
+     * 采样决定（FULL、METADATA、TAIL），开启采样时有值，非FULL时不含body及头
+     */
+    private String sampling;
+    /**
+     * 压缩后的请求body，开启压缩且body达到阈值时有值，此时requestBody为空，可通过BodyCodecs.requestBody读取
+     */
+    @ToString.Exclude
+    private byte[] compressedRequestBody;
+    /**
+     * 压缩后的返回内容，开启压缩且返回内容达到阈值时有值，此时responseContent为空，可通过BodyCodecs.responseContent读取
+     */
+    @ToString.Exclude
+    private byte[] compressedResponseContent;
+    /**
+     * body压缩算法名称，有压缩内容时有值
+     */
+    private String bodyCodec;
     /**
      * 上下文
      */
     private Map<String, Object> context;
+    /**
+     * 延迟解码的请求body，requestBody为空时在首次获取时解码，避免处理器不使用body时的解码开销
+     */
+    @JSONField(serialize = false, deserialize = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Supplier<String> requestBodySupplier;
+
+    public String getRequestBody() {
+        Supplier<String> supplier = requestBodySupplier;
+        if (requestBody == null && supplier != null) {
+            // 组合处理器中多个处理器可能并发获取，重复解码不影响结果
+            requestBody = supplier.get();
+        }
+        return requestBody;
+    }
 }
@@ -8,6 +8,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * <p>
@@ -27,6 +28,12 @@ public abstract class ApiLogSetupMethod {
     public static final String FIELD_BODY_MAX_LENGTH = "bodyMaxLength";
     public static final String FIELD_FILE_UPLOAD = "fileUpload";
     public static final String FIELD_FILE_DOWNLOAD = "fileDownload";
+    public static final String FIELD_CIRCUIT_STATE = "circuitState";
+    public static final String FIELD_ATTEMPT = "attempt";
+    public static final String FIELD_RETRYABLE = "retryable";
+    public static final String FIELD_CONNECT_TIMEOUT = "connectTimeout";
+    public static final String FIELD_READ_TIMEOUT = "readTimeout";
+    public static final String FIELD_WRITE_TIMEOUT = "writeTimeout";
 
     public static void set(String apiCode, String apiDesc, Class<? extends IApiLogDataHandler> handler) {
         set(null, apiCode, apiDesc, null, StandardCharsets.UTF_8, null, handler, null);
@@ -80,4 +87,47 @@ public abstract class ApiLogSetupMethod {
     public static void clear() {
         LOCAL_SETUP.remove();
     }
+
+    /**
+     * 在指定接口日志设置下执行，结束后恢复执行前的设置（无则移除），
+     * 适用于线程池或大量短生命周期的（虚拟）线程，不会残留线程变量
+     *
+     * @param setup    接口日志设置
+     * @param runnable 执行内容
+     */
+    public static void runWith(Map<String, Object> setup, Runnable runnable) {
+        Map<String, Object> previous = LOCAL_SETUP.get();
+        LOCAL_SETUP.set(setup == null ? null : new HashMap<>(setup));
+        try {
+            runnable.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 在指定接口日志设置下执行并返回结果，结束后恢复执行前的设置（无则移除）
+     *
+     * @param setup    接口日志设置
+     * @param callable 执行内容
+     * @return 执行结果
+     * @throws Exception 执行异常
+     */
+    public static <T> T callWith(Map<String, Object> setup, Callable<T> callable) throws Exception {
+        Map<String, Object> previous = LOCAL_SETUP.get();
+        LOCAL_SETUP.set(setup == null ? null : new HashMap<>(setup));
+        try {
+            return callable.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(Map<String, Object> previous) {
+        if (previous == null) {
+            LOCAL_SETUP.remove();
+        } else {
+            LOCAL_SETUP.set(previous);
+        }
+    }
 }
@@ -0,0 +1,240 @@
+package com.github.dc.invoke.resttemplate.async;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.pojo.ApiLogData;
+import com.github.dc.invoke.resttemplate.coalesce.RequestCoalescer;
+import com.github.dc.invoke.resttemplate.error.exception.BulkheadFullException;
+import com.github.dc.invoke.resttemplate.error.exception.CircuitBreakerOpenException;
+import com.github.dc.invoke.resttemplate.interceptor.DefaultClientHttpRequestInterceptor;
+import com.github.dc.invoke.resttemplate.resilience.CallPermit;
+import com.github.dc.invoke.resttemplate.resilience.CircuitBreakerRegistry;
+import com.github.dc.invoke.resttemplate.response.BufferedClientHttpResponse;
+import com.github.dc.invoke.resttemplate.timeout.CallTimeouts;
+import com.github.dc.invoke.resttemplate.timeout.TimeoutResolver;
+import com.github.dc.invoke.sampling.SamplingDecision;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>
+ *     基于OkHttp enqueue的异步调用，不占用调用线程等待响应。
+ *     请求body及响应均使用dcRestTemplate的消息转换器和错误处理，日志记录与同步调用一致；
+ *     接口日志设置在提交时取快照并清除，回调线程使用快照记录日志。
+ *     开启相同请求合并时，合并的请求共享同一响应，各自记录日志及解析；开启熔断时与同步调用共用熔断器及舱壁；超时时间与同步调用按相同规则确定；
+ *     返回的CompletableFuture在OkHttp回调线程中完成，后续的同步回调（thenApply等）也在该线程执行，耗时处理应使用*Async方法切换线程
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:00
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncRestInvoker {
+    private final RestTemplate dcRestTemplate;
+    private final OkHttpClient dcOkHttpClient;
+    private final DefaultClientHttpRequestInterceptor defaultClientHttpRequestInterceptor;
+    private final RequestCoalescer requestCoalescer;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final TimeoutResolver timeoutResolver;
+
+    /**
+     * 异步调用
+     *
+     * @param url          请求地址，支持uri模板变量（按uriVariables展开）
+     * @param method       请求方法
+     * @param httpEntity   请求头及body，可为null
+     * @param responseType 返回值类型
+     * @param uriVariables uri模板变量
+     * @return 响应
+     */
+    public <R> CompletableFuture<ResponseEntity<R>> exchange(String url, HttpMethod method, HttpEntity<?> httpEntity, Type responseType, Object... uriVariables) {
+        return this.execute(url, method, httpEntity, responseType, dcRestTemplate.responseEntityExtractor(responseType), uriVariables);
+    }
+
+    /**
+     * 异步调用，按指定的解析器处理已完整读取的响应
+     *
+     * @param url               请求地址，支持uri模板变量（按uriVariables展开）
+     * @param method            请求方法
+     * @param httpEntity        请求头及body，可为null
+     * @param responseType      返回值类型，用于生成Accept请求头
+     * @param responseExtractor 响应解析器
+     * @param uriVariables      uri模板变量
+     * @return 解析结果
+     */
+    public <T> CompletableFuture<T> execute(String url, HttpMethod method, HttpEntity<?> httpEntity, Type responseType,
+                                            ResponseExtractor<T> responseExtractor, Object... uriVariables) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Map<String, Object> setup = ApiLogSetupHelper.snapshot();
+        ApiLogSetupHelper.clear();
+        Call call;
+        ApiLogData apiLogData;
+        CallPermit permit;
+        int requestBytes;
+        try {
+            URI uri = dcRestTemplate.getUriTemplateHandler().expand(url, uriVariables);
+            CapturingClientHttpRequest captured = new CapturingClientHttpRequest(method, uri);
+            dcRestTemplate.httpEntityCallback(httpEntity, responseType).doWithRequest(captured);
+            byte[] bytes = captured.getBodyAsBytes();
+            requestBytes = bytes.length;
+            apiLogData = defaultClientHttpRequestInterceptor.begin(captured, bytes, setup);
+            call = dcOkHttpClient.newCall(this.buildRequest(captured, bytes, timeoutResolver.resolve(uri, setup)));
+            try {
+                permit = circuitBreakerRegistry.acquire(uri, ApiLogSetupHelper.getApiCode(setup));
+            } catch (CircuitBreakerOpenException | BulkheadFullException e) {
+                String circuitState = e instanceof CircuitBreakerOpenException ? ((CircuitBreakerOpenException) e).getCircuitState()
+                        : circuitBreakerRegistry.circuitBreaker(uri, ApiLogSetupHelper.getApiCode(setup)).getState().name();
+                ApiLogData rejected = apiLogData.toBuilder().circuitState(circuitState).build();
+                complete(defaultClientHttpRequestInterceptor.failed(rejected, e), null, System.currentTimeMillis(), setup, requestBytes, -1);
+                future.completeExceptionally(e);
+                return future;
+            }
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        ApiLogData started = apiLogData.toBuilder().circuitState(permit.getState()).build();
+        int sent = requestBytes;
+
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<BufferedClientHttpResponse> responseFuture;
+        if (requestCoalescer.isApplicable(method)) {
+            // 相同请求进行中时共享其响应，此时调用方取消不取消进行中的请求
+            Call shared = call;
+            responseFuture = requestCoalescer.executeAsync(requestCoalescer.key(method, call.request().url().uri(), requestHeaders(call)), () -> send(shared));
+        } else {
+            responseFuture = this.send(call);
+            future.whenComplete((response, e) -> {
+                if (future.isCancelled()) {
+                    call.cancel();
+                }
+            });
+        }
+        responseFuture.whenComplete((clientHttpResponse, failure) -> {
+            // 调用方主动取消（如对冲请求中落后的一方）不计为失败
+            permit.complete(future.isCancelled() || failure == null && clientHttpResponse.getRawStatusCode() < 500);
+            if (failure != null) {
+                Throwable e = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                complete(defaultClientHttpRequestInterceptor.failed(started, e), null, startTime, setup, sent, -1);
+                future.completeExceptionally(e);
+                return;
+            }
+            ApiLogData responded = started;
+            String responseContent = null;
+            try {
+                responded = defaultClientHttpRequestInterceptor.responded(responded, clientHttpResponse);
+                if (BooleanUtils.isNotTrue(ApiLogSetupHelper.getFileDownload(setup)) && SamplingDecision.capturesPayload(responded.getSampling())) {
+                    Charset charset = ObjectUtils.defaultIfNull(ApiLogSetupHelper.getResponseBodyEncoding(setup), StandardCharsets.UTF_8);
+                    responseContent = new String(clientHttpResponse.getBodyAsBytes(), charset);
+                }
+                if (dcRestTemplate.getErrorHandler().hasError(clientHttpResponse)) {
+                    dcRestTemplate.getErrorHandler().handleError(uri(call), HttpMethod.resolve(call.request().method()), clientHttpResponse);
+                }
+                T result = responseExtractor.extractData(clientHttpResponse);
+                complete(responded, responseContent, startTime, setup, sent, clientHttpResponse.getBodyAsBytes().length);
+                future.complete(result);
+            } catch (Throwable e) {
+                complete(defaultClientHttpRequestInterceptor.failed(responded, e), responseContent, startTime, setup, sent, clientHttpResponse.getBodyAsBytes().length);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 发出请求，响应完整读取到内存后完成
+     */
+    private CompletableFuture<BufferedClientHttpResponse> send(Call call) {
+        CompletableFuture<BufferedClientHttpResponse> responseFuture = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                responseFuture.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    responseFuture.complete(toClientHttpResponse(response));
+                } catch (Throwable e) {
+                    responseFuture.completeExceptionally(e);
+                } finally {
+                    response.close();
+                }
+            }
+        });
+        return responseFuture;
+    }
+
+    private void complete(ApiLogData apiLogData, String responseContent, long startTime, Map<String, Object> setup, long requestBytes, long responseBytes) {
+        Class<? extends IApiLogDataHandler> logHandler = ApiLogSetupHelper.getHandler(setup);
+        defaultClientHttpRequestInterceptor.complete(apiLogData, responseContent, startTime, logHandler, requestBytes, responseBytes);
+    }
+
+    private Request buildRequest(CapturingClientHttpRequest captured, byte[] bytes, CallTimeouts timeouts) {
+        okhttp3.MediaType contentType = captured.getHeaders().getContentType() == null ? null : okhttp3.MediaType.parse(captured.getHeaders().getContentType().toString());
+        String method = captured.getMethodValue();
+        // 与OkHttp3ClientHttpRequestFactory一致：无body的GET、DELETE等不带请求体
+        boolean requiresBody = "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "PROPPATCH".equals(method) || "REPORT".equals(method);
+        RequestBody body = bytes.length > 0 || requiresBody ? RequestBody.create(bytes, contentType) : null;
+        Request.Builder builder = new Request.Builder().url(captured.getURI().toString()).method(method, body);
+        for (Map.Entry<String, List<String>> entry : captured.getHeaders().entrySet()) {
+            for (String value : entry.getValue()) {
+                builder.addHeader(entry.getKey(), value);
+            }
+        }
+        if (timeouts != null) {
+            builder.header(CallTimeouts.HEADER, timeouts.toHeaderValue());
+        }
+        return builder.build();
+    }
+
+    private static BufferedClientHttpResponse toClientHttpResponse(Response response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : response.headers().names()) {
+            for (String value : response.headers(name)) {
+                headers.add(name, value);
+            }
+        }
+        ResponseBody body = response.body();
+        return new BufferedClientHttpResponse(response.code(), response.message(), headers, body == null ? new byte[0] : body.bytes());
+    }
+
+    private static HttpHeaders requestHeaders(Call call) {
+        HttpHeaders headers = new HttpHeaders();
+        call.request().headers().toMultimap().forEach(headers::put);
+        return headers;
+    }
+
+    private static URI uri(Call call) {
+        return call.request().url().uri();
+    }
+}
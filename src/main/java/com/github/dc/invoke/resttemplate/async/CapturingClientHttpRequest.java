@@ -0,0 +1,64 @@
+package com.github.dc.invoke.resttemplate.async;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * <p>
+ *     只收集请求头及body、不发送的请求，用于复用RestTemplate的RequestCallback（消息转换器）生成请求内容
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:00
+ */
+class CapturingClientHttpRequest implements ClientHttpRequest {
+    private final HttpMethod method;
+    private final URI uri;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+    CapturingClientHttpRequest(HttpMethod method, URI uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    byte[] getBodyAsBytes() {
+        return body.toByteArray();
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getMethodValue() {
+        return method.name();
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return body;
+    }
+
+    @Override
+    public ClientHttpResponse execute() {
+        throw new UnsupportedOperationException("仅用于生成请求内容");
+    }
+}
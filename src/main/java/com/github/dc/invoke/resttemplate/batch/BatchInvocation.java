@@ -0,0 +1,153 @@
+package com.github.dc.invoke.resttemplate.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ *     一次批量调用。基于异步调用以滑动窗口方式执行：先发起maxConcurrency个请求，每完成一个再发起下一个，
+ *     等待响应期间不占用线程；单个请求失败不影响其他请求，批次期限到达时取消未完成的请求
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:00
+ */
+@Slf4j
+public class BatchInvocation<R> {
+    private final List<InvokeRequest<R>> requests;
+    private final Function<InvokeRequest<R>, CompletableFuture<ResponseEntity<R>>> launcher;
+    private final int maxConcurrency;
+    private final Consumer<InvokeResult<R>> onComplete;
+    private final AtomicReferenceArray<InvokeResult<R>> results;
+    private final AtomicReferenceArray<CompletableFuture<ResponseEntity<R>>> futures;
+    private final long[] startTimes;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger pendingLaunches = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile boolean closed;
+
+    /**
+     * @param requests       请求列表
+     * @param launcher       发起单个异步请求
+     * @param maxConcurrency 最大并发数
+     * @param onComplete     每个请求完成时的回调（在完成请求的线程中调用，可能并发），可为null
+     */
+    public BatchInvocation(List<InvokeRequest<R>> requests, Function<InvokeRequest<R>, CompletableFuture<ResponseEntity<R>>> launcher,
+                           int maxConcurrency, Consumer<InvokeResult<R>> onComplete) {
+        this.requests = requests;
+        this.launcher = launcher;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.onComplete = onComplete;
+        this.results = new AtomicReferenceArray<>(requests.size());
+        this.futures = new AtomicReferenceArray<>(requests.size());
+        this.startTimes = new long[requests.size()];
+        this.remaining = new AtomicInteger(requests.size());
+    }
+
+    /**
+     * 执行并等待完成
+     *
+     * @param timeoutMillis 批次期限，单位ms，0表示不限制
+     * @return 按请求顺序排列的结果
+     */
+    public List<InvokeResult<R>> run(long timeoutMillis) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        for (int i = 0; i < Math.min(maxConcurrency, requests.size()); i++) {
+            this.launchNext();
+        }
+        try {
+            if (timeoutMillis > 0) {
+                done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } else {
+                done.get();
+            }
+        } catch (TimeoutException e) {
+            log.warn("批量调用超过期限{}ms，未完成{}个", timeoutMillis, remaining.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // done只会正常完成
+        }
+        closed = true;
+
+        List<InvokeResult<R>> list = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (results.get(i) == null) {
+                CompletableFuture<ResponseEntity<R>> future = futures.get(i);
+                Throwable reason = future == null ? new CancellationException("批量调用到期，未开始") : new TimeoutException("批量调用到期，未完成");
+                this.finish(i, null, reason);
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            list.add(results.get(i));
+        }
+        return list;
+    }
+
+    /**
+     * 请求发起下一个调用。已完成的future会在当前线程同步回调，若直接递归发起会随请求数加深调用栈，
+     * 因此由第一个进入的线程循环发起，其他线程（或回调中的重入）只累加待发起数
+     */
+    private void launchNext() {
+        if (pendingLaunches.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            this.launchOne();
+        } while (pendingLaunches.decrementAndGet() != 0);
+    }
+
+    private void launchOne() {
+        int index = next.getAndIncrement();
+        if (index >= requests.size() || closed) {
+            return;
+        }
+        startTimes[index] = System.currentTimeMillis();
+        CompletableFuture<ResponseEntity<R>> future;
+        try {
+            future = launcher.apply(requests.get(index));
+        } catch (Throwable e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        futures.set(index, future);
+        future.whenComplete((response, e) -> {
+            this.finish(index, response, e);
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+            this.launchNext();
+        });
+    }
+
+    private void finish(int index, ResponseEntity<R> response, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        long consumeTime = startTimes[index] == 0 ? 0 : System.currentTimeMillis() - startTimes[index];
+        InvokeResult<R> result = new InvokeResult<>(index, requests.get(index), response, cause, consumeTime);
+        if (!results.compareAndSet(index, null, result) || onComplete == null) {
+            return;
+        }
+        try {
+            onComplete.accept(result);
+        } catch (Exception ex) {
+            log.warn("批量调用完成回调异常", ex);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.dc.invoke.resttemplate.batch;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+/**
+ * <p>
+ *     批量调用的单个请求，可分别指定记录日志的接口编码、业务主键
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:00
+ */
+@Getter
+@Builder
+public class InvokeRequest<R> {
+    private final String url;
+    @Builder.Default
+    private final HttpMethod method = HttpMethod.POST;
+    private final MediaType contentType;
+    private final HttpHeaders headers;
+    private final Object body;
+    private final Class<R> responseType;
+    /**
+     * 以下为接口日志设置，未指定时使用调用invokeAll时的设置
+     */
+    private final Object businessKey;
+    private final String apiCode;
+    private final String apiDesc;
+    private final Map<String, Object> context;
+
+    /**
+     * post json格式内容请求
+     *
+     * @param url          请求地址
+     * @param bodyJson     请求内容json字符串
+     * @param responseType 返回值类型
+     * @return 请求构建器，可继续设置businessKey、apiCode等
+     */
+    public static <R> InvokeRequestBuilder<R> postJson(String url, String bodyJson, Class<R> responseType) {
+        return InvokeRequest.<R>builder().url(url).method(HttpMethod.POST).contentType(MediaType.APPLICATION_JSON).body(bodyJson).responseType(responseType);
+    }
+
+    /**
+     * get请求
+     *
+     * @param url          请求地址
+     * @param responseType 返回值类型
+     * @return 请求构建器，可继续设置businessKey、apiCode等
+     */
+    public static <R> InvokeRequestBuilder<R> get(String url, Class<R> responseType) {
+        return InvokeRequest.<R>builder().url(url).method(HttpMethod.GET).responseType(responseType);
+    }
+}
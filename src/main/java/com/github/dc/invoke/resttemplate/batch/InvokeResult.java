@@ -0,0 +1,36 @@
+package com.github.dc.invoke.resttemplate.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * <p>
+ *     批量调用的单个结果，失败时response为null、exception为失败原因
+ *     （超过批次期限未完成为TimeoutException，未开始即到期为CancellationException）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:00
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class InvokeResult<R> {
+    /**
+     * 在请求列表中的下标
+     */
+    private final int index;
+    private final InvokeRequest<R> request;
+    private final ResponseEntity<R> response;
+    private final Throwable exception;
+    /**
+     * 耗时，单位ms，未开始时为0
+     */
+    private final long consumeTime;
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.dc.invoke.resttemplate.cache;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ *     缓存的GET响应。保存原始body用于按不同返回值类型解析，不可变类型（String、基本类型包装类等）的解析结果按类型缓存，命中时无需再次反序列化，
+ *     其他类型（POJO、Map、List等）可被调用方修改，每次命中重新解析出独立的对象，避免修改污染缓存；
+ *     新鲜度按响应头Cache-Control（no-store、no-cache、max-age）、Age、Expires计算，过期后凭ETag、Last-Modified条件请求重新验证
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:00
+ */
+@Getter
+public class CachedResponse {
+    private final int rawStatusCode;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    /**
+     * 过期时间点（ms），不大于当前时间时需重新验证
+     */
+    private final long expiresAt;
+    private final Map<Class<?>, Object> decodedBodies;
+
+    private CachedResponse(int rawStatusCode, HttpHeaders headers, byte[] body, long expiresAt, Map<Class<?>, Object> decodedBodies) {
+        this.rawStatusCode = rawStatusCode;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.expiresAt = expiresAt;
+        this.decodedBodies = decodedBodies;
+    }
+
+    /**
+     * 根据响应生成缓存，响应不可缓存（非200、no-store、Vary: *，或既无有效期又无验证器）或body超过maxEntrySize时返回null
+     *
+     * @param response     响应
+     * @param maxEntrySize 单条缓存最大字节数
+     * @return 缓存的响应
+     */
+    public static CachedResponse of(ResponseEntity<byte[]> response, long maxEntrySize) {
+        HttpHeaders headers = response.getHeaders();
+        byte[] body = response.getBody() == null ? new byte[0] : response.getBody();
+        if (response.getStatusCodeValue() != HttpStatus.OK.value() || body.length > maxEntrySize
+                || hasDirective(headers.getCacheControl(), "no-store") || "*".equals(StringUtils.trim(headers.getFirst(HttpHeaders.VARY)))) {
+            return null;
+        }
+        long expiresAt = expiresAt(headers, System.currentTimeMillis());
+        if (expiresAt <= System.currentTimeMillis() && headers.getETag() == null && headers.getLastModified() < 0) {
+            return null;
+        }
+        return new CachedResponse(response.getStatusCodeValue(), headers, body, expiresAt, new ConcurrentHashMap<>(4));
+    }
+
+    /**
+     * 重新验证通过（304），以304响应头更新缓存的响应头及有效期，body及已解析的body保持不变
+     *
+     * @param notModifiedHeaders 304响应头
+     * @return 新的缓存
+     */
+    public CachedResponse revalidated(HttpHeaders notModifiedHeaders) {
+        HttpHeaders merged = new HttpHeaders();
+        merged.putAll(headers);
+        notModifiedHeaders.forEach((name, values) -> {
+            // 304不带实体头，保留原响应的实体头
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    && !HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                merged.put(name, values);
+            }
+        });
+        return new CachedResponse(rawStatusCode, merged, body, expiresAt(merged, System.currentTimeMillis()), decodedBodies);
+    }
+
+    /**
+     * @return 是否在有效期内，可直接使用
+     */
+    public boolean isFresh() {
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 获取按返回值类型解析后的body。不可变类型首次获取时解析并缓存，由所有命中共享；其他类型每次重新解析，返回独立的对象
+     *
+     * @param responseType 返回值类型
+     * @param decoder      解析函数
+     * @return 解析后的body
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R decode(Class<R> responseType, BodyDecoder decoder) {
+        if (!isImmutable(responseType)) {
+            return (R) decoder.decode(this, responseType);
+        }
+        return (R) decodedBodies.computeIfAbsent(responseType, type -> decoder.decode(this, type));
+    }
+
+    static boolean isImmutable(Class<?> type) {
+        return type == String.class || type == Boolean.class || type == Character.class || type == Byte.class || type == Short.class
+                || type == Integer.class || type == Long.class || type == Float.class || type == Double.class
+                || type == BigDecimal.class || type == BigInteger.class || type.isEnum();
+    }
+
+    /**
+     * @return 缓存占用的字节数（按body计）
+     */
+    public long weight() {
+        return body.length;
+    }
+
+    static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String item : cacheControl.split(",")) {
+            String name = StringUtils.substringBefore(item, "=").trim();
+            if (directive.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long expiresAt(HttpHeaders headers, long now) {
+        String cacheControl = headers.getCacheControl();
+        if (hasDirective(cacheControl, "no-cache")) {
+            return now;
+        }
+        long maxAge = directiveSeconds(cacheControl, "max-age");
+        if (maxAge >= 0) {
+            long age = parseSeconds(headers.getFirst(HttpHeaders.AGE));
+            return now + (maxAge - Math.max(age, 0)) * 1000;
+        }
+        long expires = headers.getExpires();
+        if (expires >= 0) {
+            long date = headers.getDate();
+            return now + expires - (date >= 0 ? date : now);
+        }
+        return now;
+    }
+
+    private static long directiveSeconds(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        for (String item : cacheControl.split(",")) {
+            if (directive.equalsIgnoreCase(StringUtils.substringBefore(item, "=").trim())) {
+                return parseSeconds(StringUtils.strip(StringUtils.substringAfter(item, "="), " \""));
+            }
+        }
+        return -1;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return value == null ? -1 : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyDecoder {
+        /**
+         * 把缓存的原始body解析为返回值类型
+         *
+         * @param response     缓存的响应
+         * @param responseType 返回值类型
+         * @return 解析后的body
+         */
+        Object decode(CachedResponse response, Class<?> responseType);
+    }
+}
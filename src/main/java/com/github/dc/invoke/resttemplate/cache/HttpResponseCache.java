@@ -0,0 +1,194 @@
+package com.github.dc.invoke.resttemplate.cache;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ *     GET响应的内存缓存（RestTemplateHelper.get、getBytes），按条数及body总字节数限制容量，超出时淘汰最久未使用的缓存。
+ *     缓存键为url加请求头，请求头不同（如不同的Authorization、Accept）时分别缓存
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:00
+ */
+@Component
+public class HttpResponseCache {
+    private final RestTemplateProperty.ResponseCache property;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder revalidationCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public HttpResponseCache(RestTemplateProperty restTemplateProperty) {
+        this.property = restTemplateProperty.getResponseCache();
+    }
+
+    /**
+     * @return 是否开启缓存
+     */
+    public boolean isEnabled() {
+        return property.isEnabled();
+    }
+
+    /**
+     * @return 单条缓存最大字节数
+     */
+    public long getMaxEntrySize() {
+        return property.getMaxEntrySize();
+    }
+
+    /**
+     * 生成缓存键
+     *
+     * @param url     请求地址
+     * @param headers 请求头
+     * @return 缓存键
+     */
+    public static String key(String url, HttpHeaders headers) {
+        if (headers == null || headers.isEmpty()) {
+            return url;
+        }
+        Map<String, Object> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        sorted.putAll(headers);
+        return url + " " + sorted;
+    }
+
+    /**
+     * @param requestHeaders 请求头
+     * @return 请求是否允许使用缓存（请求头Cache-Control: no-store时不使用）
+     */
+    public static boolean isCacheable(HttpHeaders requestHeaders) {
+        return requestHeaders == null || !CachedResponse.hasDirective(requestHeaders.getCacheControl(), "no-store");
+    }
+
+    /**
+     * @param requestHeaders 请求头
+     * @return 请求是否要求重新验证（请求头Cache-Control: no-cache时即使缓存未过期也重新验证）
+     */
+    public static boolean requiresRevalidation(HttpHeaders requestHeaders) {
+        return requestHeaders != null && CachedResponse.hasDirective(requestHeaders.getCacheControl(), "no-cache");
+    }
+
+    public CachedResponse get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, CachedResponse response) {
+        lock.lock();
+        try {
+            CachedResponse previous = entries.put(key, response);
+            weight += response.weight() - (previous == null ? 0 : previous.weight());
+            Iterator<CachedResponse> iterator = entries.values().iterator();
+            while ((entries.size() > property.getMaxEntries() || weight > property.getMaxBytes()) && iterator.hasNext()) {
+                CachedResponse eldest = iterator.next();
+                iterator.remove();
+                weight -= eldest.weight();
+                evictionCount.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.lock();
+        try {
+            CachedResponse removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 命中未过期的缓存，未发起请求
+     */
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    /**
+     * 未命中或重新验证后资源已变化，完整下载了响应
+     */
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    /**
+     * 条件请求返回304，使用缓存的body
+     */
+    public void recordRevalidation() {
+        revalidationCount.increment();
+    }
+
+    /**
+     * @return 缓存统计
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hitCount.sum(), missCount.sum(), revalidationCount.sum(), evictionCount.sum(), entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long revalidationCount;
+        private final long evictionCount;
+        /**
+         * 当前缓存条数
+         */
+        private final int size;
+        /**
+         * 当前缓存的body总字节数
+         */
+        private final long weight;
+
+        /**
+         * @return 未下载响应body的请求占比（命中及304重新验证）
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount + revalidationCount;
+            return total == 0 ? 0 : (double) (hitCount + revalidationCount) / total;
+        }
+    }
+}
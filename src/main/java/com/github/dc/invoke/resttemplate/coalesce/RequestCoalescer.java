@@ -0,0 +1,112 @@
+package com.github.dc.invoke.resttemplate.coalesce;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.response.BufferedClientHttpResponse;
+import com.github.dc.invoke.util.SingleFlight;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ *     dcRestTemplate及异步调用的相同请求合并。按 请求方法 + url + 指定请求头 生成key，
+ *     相同请求进行中时后到的请求不再发出，共享进行中请求的响应（完整读取到内存），各调用方仍各自记录日志、处理错误及解析响应。
+ *     只对配置的幂等方法（默认GET、HEAD）生效
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:00
+ */
+@Component
+public class RequestCoalescer {
+    private final RestTemplateProperty.Coalesce property;
+    private final SingleFlight<String, BufferedClientHttpResponse> singleFlight = new SingleFlight<>();
+
+    public RequestCoalescer(RestTemplateProperty restTemplateProperty) {
+        this.property = restTemplateProperty.getCoalesce();
+    }
+
+    /**
+     * @param method 请求方法
+     * @return 是否合并该请求
+     */
+    public boolean isApplicable(HttpMethod method) {
+        return property.isEnabled() && method != null && property.getMethods().contains(method);
+    }
+
+    /**
+     * 生成合并key
+     *
+     * @param method  请求方法
+     * @param uri     请求地址
+     * @param headers 请求头，只取配置的keyHeaders
+     * @return 合并key
+     */
+    public String key(HttpMethod method, URI uri, HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(128).append(method).append(' ').append(uri);
+        for (String name : property.getKeyHeaders()) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                key.append('\n').append(name.toLowerCase()).append(": ").append(values);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 同步请求，相同请求进行中时等待其响应
+     *
+     * @param key     合并key
+     * @param request 发出请求并完整读取响应
+     * @return 响应
+     * @throws IOException 请求异常
+     */
+    public BufferedClientHttpResponse execute(String key, Callable<BufferedClientHttpResponse> request) throws IOException {
+        try {
+            return singleFlight.execute(key, request);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 异步请求，相同请求进行中时共享其响应
+     *
+     * @param key     合并key
+     * @param request 发出请求并完整读取响应
+     * @return 响应
+     */
+    public CompletableFuture<BufferedClientHttpResponse> executeAsync(String key, Supplier<CompletableFuture<BufferedClientHttpResponse>> request) {
+        return singleFlight.executeAsync(key, request);
+    }
+
+    /**
+     * @return 实际发出的请求数
+     */
+    public long getExecutedCount() {
+        return singleFlight.getExecutedCount();
+    }
+
+    /**
+     * @return 被合并（未发出，共享进行中请求响应）的请求数
+     */
+    public long getCollapsedCount() {
+        return singleFlight.getCollapsedCount();
+    }
+
+    /**
+     * @return 当前进行中的合并请求数
+     */
+    public int getInFlightCount() {
+        return singleFlight.getInFlightCount();
+    }
+}
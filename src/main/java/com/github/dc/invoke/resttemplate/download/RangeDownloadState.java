@@ -0,0 +1,110 @@
+package com.github.dc.invoke.resttemplate.download;
+
+import com.alibaba.fastjson2.JSON;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ *     分段下载断点记录，以json保存在目标文件旁，下载完成后删除
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:00
+ */
+@Data
+@Slf4j
+public class RangeDownloadState {
+    private String url;
+    private long length;
+    private String etag;
+    private String lastModified;
+    private List<Range> ranges = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final transient ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 读取断点记录，不存在或无法解析时返回null
+     *
+     * @param statePath 记录文件
+     * @return 断点记录
+     */
+    public static RangeDownloadState load(Path statePath) {
+        if (!Files.isRegularFile(statePath)) {
+            return null;
+        }
+        try {
+            return JSON.parseObject(new String(Files.readAllBytes(statePath), StandardCharsets.UTF_8), RangeDownloadState.class);
+        } catch (Exception e) {
+            log.warn("分段下载断点记录无法解析，重新下载：{}", statePath, e);
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免中断时留下不完整的记录
+     *
+     * @param statePath 记录文件
+     * @throws IOException 写入异常
+     */
+    public void save(Path statePath) throws IOException {
+        Path tmp = statePath.resolveSibling(statePath.getFileName() + ".tmp");
+        lock.lock();
+        try {
+            Files.write(tmp, JSON.toJSONString(this).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 是否与服务端当前文件一致，一致时可以续传
+     */
+    public boolean matches(String url, long length, String etag, String lastModified) {
+        return Objects.equals(this.url, url) && this.length == length
+                && Objects.equals(this.etag, etag) && Objects.equals(this.lastModified, lastModified);
+    }
+
+    @Data
+    public static class Range {
+        /**
+         * 起始位置（含）
+         */
+        private long start;
+        /**
+         * 结束位置（含）
+         */
+        private long end;
+        /**
+         * 已写入字节数
+         */
+        private volatile long downloaded;
+
+        public Range() {
+        }
+
+        public Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long remaining() {
+            return end - start + 1 - downloaded;
+        }
+    }
+}
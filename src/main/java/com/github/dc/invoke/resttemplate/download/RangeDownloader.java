@@ -0,0 +1,290 @@
+package com.github.dc.invoke.resttemplate.download;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.error.exception.InvokeException;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import com.github.dc.invoke.util.StreamTransferUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ *     分段并发下载。先以Range: bytes=0-0探测服务端是否支持分段：
+ *     支持时把文件切分为多段，在共享线程池中并发下载，各段按偏移直接写入预分配的目标文件，
+ *     同时在目标文件旁保存断点记录，中断后再次下载同一文件时只下载未完成的部分；
+ *     不支持时（返回200）直接以单连接写入目标文件
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:00
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RangeDownloader {
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+\\d+-\\d+/(\\d+)");
+    /**
+     * 单次transferFrom的最大字节数，同时是更新已下载字节数的粒度
+     */
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    private final RestTemplate downBigFileRestTemplate;
+    private final ExecutorService dcInvokeExecutor;
+    private final RestTemplateProperty.RangeDownload config;
+
+    /**
+     * 下载到指定文件
+     *
+     * @param url     下载链接
+     * @param headers 请求头
+     * @param target  目标文件
+     * @return 文件字节数
+     */
+    public long download(String url, HttpHeaders headers, Path target) {
+        Map<String, Object> setup = ApiLogSetupHelper.snapshot();
+        setup.put(ApiLogSetupHelper.FIELD_FILE_DOWNLOAD, true);
+        Path statePath = target.resolveSibling(target.getFileName() + config.getStateSuffix());
+
+        ApiLogSetupHelper.set(new HashMap<>(setup));
+        RangeDownloadState probe = this.probe(url, headers, target);
+        if (probe == null) {
+            this.deleteState(statePath);
+            return this.size(target);
+        }
+
+        RangeDownloadState state = RangeDownloadState.load(statePath);
+        boolean resume = state != null && Files.isRegularFile(target)
+                && state.matches(probe.getUrl(), probe.getLength(), probe.getEtag(), probe.getLastModified());
+        if (resume) {
+            log.info("分段下载续传 {}，剩余{}字节", url, state.getRanges().stream().mapToLong(RangeDownloadState.Range::remaining).sum());
+        } else {
+            state = probe;
+            state.setRanges(this.split(state.getLength()));
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (!resume) {
+                // 预分配，各段按偏移写入
+                fileChannel.truncate(0);
+                fileChannel.write(ByteBuffer.allocate(1), state.getLength() - 1);
+            }
+            state.save(statePath);
+            this.downloadRanges(url, headers, setup, state, statePath, fileChannel);
+            fileChannel.force(false);
+        } catch (IOException e) {
+            throw new InvokeException("分段下载写入文件失败：" + target, e);
+        }
+        this.deleteState(statePath);
+        return state.getLength();
+    }
+
+    /**
+     * 以Range: bytes=0-0探测是否支持分段，不支持时直接把响应写入目标文件
+     *
+     * @return 支持分段时返回文件信息，否则返回null（已下载完成）
+     */
+    private RangeDownloadState probe(String url, HttpHeaders headers, Path target) {
+        HttpHeaders probeHeaders = this.copy(headers);
+        probeHeaders.set(HttpHeaders.RANGE, "bytes=0-0");
+        try {
+            return downBigFileRestTemplate.execute(url, HttpMethod.GET, this.callback(probeHeaders), response -> {
+                Long length = this.totalLength(response);
+                if (length == null) {
+                    // 不支持分段，单连接下载
+                    try (InputStream inputStream = response.getBody()) {
+                        StreamTransferUtil.transfer(inputStream, target);
+                    }
+                    return null;
+                }
+                RangeDownloadState state = new RangeDownloadState();
+                state.setUrl(url);
+                state.setLength(length);
+                state.setEtag(response.getHeaders().getETag());
+                state.setLastModified(response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+                return state;
+            });
+        } catch (InvokeException e) {
+            if (e.getStatus() != HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+                throw e;
+            }
+            // 空文件无法满足bytes=0-0
+            try {
+                Files.write(target, new byte[0]);
+            } catch (IOException ex) {
+                throw new InvokeException("写入文件失败：" + target, ex);
+            }
+            return null;
+        }
+    }
+
+    private void downloadRanges(String url, HttpHeaders headers, Map<String, Object> setup, RangeDownloadState state,
+                                Path statePath, FileChannel fileChannel) throws IOException {
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(dcInvokeExecutor);
+        // 一段失败后通知其他段在块之间停止，不能cancel(true)：中断transferFrom会关闭共享的文件通道
+        AtomicBoolean stopped = new AtomicBoolean();
+        int pending = 0;
+        for (RangeDownloadState.Range range : state.getRanges()) {
+            if (range.remaining() <= 0) {
+                continue;
+            }
+            completionService.submit(() -> ApiLogSetupHelper.callWith(setup, () -> {
+                this.downloadRange(url, headers, range, state, statePath, fileChannel, stopped);
+                return null;
+            }));
+            pending++;
+        }
+        Throwable failure = null;
+        boolean interrupted = false;
+        // 等待所有段结束后再保存断点记录，已下载部分保留在断点记录中
+        while (pending > 0) {
+            Future<Void> future;
+            try {
+                future = completionService.take();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                failure = failure == null ? e : failure;
+                stopped.set(true);
+                continue;
+            }
+            pending--;
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+                stopped.set(true);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                failure = failure == null ? e : failure;
+                stopped.set(true);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        state.save(statePath);
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new InvokeException("分段下载失败，可再次下载续传：" + url, failure);
+        }
+    }
+
+    private void downloadRange(String url, HttpHeaders headers, RangeDownloadState.Range range, RangeDownloadState state,
+                               Path statePath, FileChannel fileChannel, AtomicBoolean stopped) {
+        if (stopped.get()) {
+            return;
+        }
+        long from = range.getStart() + range.getDownloaded();
+        HttpHeaders rangeHeaders = this.copy(headers);
+        rangeHeaders.set(HttpHeaders.RANGE, "bytes=" + from + "-" + range.getEnd());
+        downBigFileRestTemplate.execute(url, HttpMethod.GET, this.callback(rangeHeaders), response -> {
+            if (response.getRawStatusCode() != HttpStatus.PARTIAL_CONTENT.value()) {
+                throw new IOException("服务端未按分段返回，状态码：" + response.getRawStatusCode());
+            }
+            long checkpoint = range.getDownloaded();
+            try (InputStream inputStream = response.getBody()) {
+                ReadableByteChannel source = Channels.newChannel(inputStream);
+                long transferred;
+                while (!stopped.get() && range.remaining() > 0
+                        && (transferred = fileChannel.transferFrom(source, range.getStart() + range.getDownloaded(), Math.min(TRANSFER_CHUNK, range.remaining()))) > 0) {
+                    range.setDownloaded(range.getDownloaded() + transferred);
+                    if (range.getDownloaded() - checkpoint >= config.getCheckpointBytes()) {
+                        checkpoint = range.getDownloaded();
+                        state.save(statePath);
+                    }
+                }
+            }
+            if (range.remaining() > 0 && !stopped.get()) {
+                throw new IOException("分段响应提前结束，剩余" + range.remaining() + "字节");
+            }
+            return null;
+        });
+    }
+
+    private List<RangeDownloadState.Range> split(long length) {
+        int count = (int) Math.max(1, Math.min(config.getParallelism(), length / Math.max(1, config.getMinRangeSize())));
+        long size = (length + count - 1) / count;
+        List<RangeDownloadState.Range> ranges = new ArrayList<>(count);
+        for (long start = 0; start < length; start += size) {
+            ranges.add(new RangeDownloadState.Range(start, Math.min(start + size, length) - 1));
+        }
+        return ranges;
+    }
+
+    /**
+     * @return 206且Content-Range带总长度时返回总长度，否则返回null（不支持分段）
+     */
+    private Long totalLength(ClientHttpResponse response) throws IOException {
+        if (response.getRawStatusCode() != HttpStatus.PARTIAL_CONTENT.value()) {
+            return null;
+        }
+        String contentRange = response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+        Matcher matcher = contentRange == null ? null : CONTENT_RANGE.matcher(contentRange);
+        if (matcher == null || !matcher.matches()) {
+            return null;
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private RequestCallback callback(HttpHeaders headers) {
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL));
+        HttpEntity<MultiValueMap<String, Object>> httpEntity = new HttpEntity<>(headers);
+        return downBigFileRestTemplate.httpEntityCallback(httpEntity);
+    }
+
+    private HttpHeaders copy(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        if (headers != null) {
+            copy.putAll(headers);
+        }
+        return copy;
+    }
+
+    private void deleteState(Path statePath) {
+        try {
+            Files.deleteIfExists(statePath);
+        } catch (IOException e) {
+            log.warn("删除分段下载断点记录失败：{}", statePath, e);
+        }
+    }
+
+    private long size(Path target) {
+        try {
+            return Files.size(target);
+        } catch (IOException e) {
+            throw new InvokeException("读取文件大小失败：" + target, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.dc.invoke.resttemplate.error.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * <p>
+ * 并发调用数已达上限（舱壁隔离），未发出请求，快速失败
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+public class BulkheadFullException extends InvokeException {
+    /**
+     * 舱壁key
+     */
+    private final String bulkheadKey;
+    /**
+     * 最大并发调用数
+     */
+    private final int maxConcurrentCalls;
+
+    public BulkheadFullException(String bulkheadKey, int maxConcurrentCalls) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "并发调用数已达上限，快速失败", bulkheadKey);
+        this.bulkheadKey = bulkheadKey;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public String getBulkheadKey() {
+        return bulkheadKey;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    @Override
+    public String getMessage() {
+        return "并发调用数已达上限" + maxConcurrentCalls + "，快速失败：" + bulkheadKey;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.dc.invoke.resttemplate.error.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * <p>
+ * 熔断器打开（或半开状态试探名额已满），未发出请求，快速失败
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+public class CircuitBreakerOpenException extends InvokeException {
+    /**
+     * 熔断器key
+     */
+    private final String circuitKey;
+    /**
+     * 熔断器状态
+     */
+    private final String circuitState;
+
+    public CircuitBreakerOpenException(String circuitKey, String circuitState) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "熔断器已打开，快速失败", circuitKey);
+        this.circuitKey = circuitKey;
+        this.circuitState = circuitState;
+    }
+
+    public String getCircuitKey() {
+        return circuitKey;
+    }
+
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    @Override
+    public String getMessage() {
+        return "熔断器已打开，快速失败：" + circuitKey + "，状态：" + circuitState;
+    }
+}
@@ -3,6 +3,7 @@ package com.github.dc.invoke.resttemplate.error.handler;
 import com.github.dc.invoke.resttemplate.error.exception.InvokeException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.ResponseErrorHandler;
 
@@ -24,6 +25,10 @@ public class DefaultErrorHandler implements ResponseErrorHandler {
         if (clientHttpResponse.getStatusCode().is2xxSuccessful()) {
             return false;
         }
+        // 304为条件请求的正常响应，由调用方使用缓存的内容
+        if (clientHttpResponse.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return false;
+        }
         return true;
     }
 
@@ -0,0 +1,55 @@
+package com.github.dc.invoke.resttemplate.interceptor;
+
+import com.github.dc.invoke.resttemplate.error.exception.BulkheadFullException;
+import com.github.dc.invoke.resttemplate.error.exception.CircuitBreakerOpenException;
+import com.github.dc.invoke.resttemplate.resilience.CallPermit;
+import com.github.dc.invoke.resttemplate.resilience.CircuitBreakerRegistry;
+import com.github.dc.invoke.resttemplate.response.PermitCompletingClientHttpResponse;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ *     熔断及舱壁隔离拦截器，位于日志拦截器之后，快速失败的调用同样记录日志，熔断器状态写入接口日志
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+@RequiredArgsConstructor
+public class CircuitBreakerClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] bytes, ClientHttpRequestExecution execution) throws IOException {
+        CallPermit permit;
+        try {
+            permit = circuitBreakerRegistry.acquire(request.getURI(), ApiLogSetupHelper.getApiCode());
+        } catch (CircuitBreakerOpenException e) {
+            ApiLogSetupHelper.setCircuitState(e.getCircuitState());
+            throw e;
+        } catch (BulkheadFullException e) {
+            ApiLogSetupHelper.setCircuitState(circuitBreakerRegistry.circuitBreaker(request.getURI(), ApiLogSetupHelper.getApiCode()).getState().name());
+            throw e;
+        }
+        ApiLogSetupHelper.setCircuitState(permit.getState());
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, bytes);
+            // 响应关闭时才完成许可，读取body失败同样记为失败
+            return new PermitCompletingClientHttpResponse(response, permit, response.getRawStatusCode() < 500);
+        } catch (IOException | RuntimeException e) {
+            if (response != null) {
+                response.close();
+            }
+            permit.complete(false);
+            throw e;
+        }
+    }
+}
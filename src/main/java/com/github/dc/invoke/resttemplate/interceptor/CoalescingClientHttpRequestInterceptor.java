@@ -0,0 +1,39 @@
+package com.github.dc.invoke.resttemplate.interceptor;
+
+import com.github.dc.invoke.resttemplate.coalesce.RequestCoalescer;
+import com.github.dc.invoke.resttemplate.response.BufferedClientHttpResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.IOUtils;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ *     相同请求合并拦截器，位于日志拦截器之后，被合并的请求仍各自记录日志
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:00
+ */
+@RequiredArgsConstructor
+public class CoalescingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final RequestCoalescer requestCoalescer;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] bytes, ClientHttpRequestExecution execution) throws IOException {
+        if (!requestCoalescer.isApplicable(request.getMethod())) {
+            return execution.execute(request, bytes);
+        }
+        String key = requestCoalescer.key(request.getMethod(), request.getURI(), request.getHeaders());
+        return requestCoalescer.execute(key, () -> {
+            try (ClientHttpResponse response = execution.execute(request, bytes); InputStream body = response.getBody()) {
+                return new BufferedClientHttpResponse(response.getRawStatusCode(), response.getStatusText(), response.getHeaders(), IOUtils.toByteArray(body));
+            }
+        });
+    }
+}
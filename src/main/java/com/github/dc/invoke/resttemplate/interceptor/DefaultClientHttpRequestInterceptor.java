@@ -2,13 +2,18 @@ package com.github.dc.invoke.resttemplate.interceptor;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.github.dc.invoke.aop.handler.ApiLogDataDispatcher;
+import com.github.dc.invoke.aop.handler.ApiLogDataHandlerRegistry;
 import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
-import com.github.dc.invoke.helper.ApplicationContextHelper;
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.metrics.CallMetricsRegistry;
 import com.github.dc.invoke.pojo.ApiLogData;
-import com.github.dc.invoke.pojo.DefaultApiLogDataHandler;
+import com.github.dc.invoke.resttemplate.response.StreamCapturingClientHttpResponse;
+import com.github.dc.invoke.sampling.ApiLogSampler;
+import com.github.dc.invoke.sampling.SamplingDecision;
 import com.github.dc.invoke.util.ApiLogSetupHelper;
 import com.github.dc.invoke.util.IpAddressUtil;
-import com.github.dc.invoke.util.ReflectUtil;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
@@ -16,6 +21,7 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
@@ -38,31 +44,99 @@ import java.util.Map;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class DefaultClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final ApiLogDataDispatcher apiLogDataDispatcher;
+    private final RestTemplateProperty restTemplateProperty;
+    private final CallMetricsRegistry callMetricsRegistry;
+    private final ApiLogDataHandlerRegistry apiLogDataHandlerRegistry;
+    private final ApiLogSampler apiLogSampler;
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] bytes,
                                         ClientHttpRequestExecution clientHttpRequestExecution) throws IOException {
+        Map<String, Object> setup = ApiLogSetupHelper.get();
+        ApiLogData apiLogData = this.begin(request, bytes, setup);
+        Boolean isFileDownload = ApiLogSetupHelper.getFileDownload(setup);
+        boolean capturesPayload = SamplingDecision.capturesPayload(apiLogData.getSampling());
+        Integer bodyMaxLength = ApiLogSetupHelper.getBodyMaxLength(setup);
+        Charset charset = ObjectUtils.defaultIfNull(ApiLogSetupHelper.getResponseBodyEncoding(setup), StandardCharsets.UTF_8);
+        Class<? extends IApiLogDataHandler> logHandler = ApiLogSetupHelper.getHandler(setup);
+
+        long startTime = System.currentTimeMillis();
+        ClientHttpResponse response = null;
+        long responseBytes = -1;
+        boolean deferred = false;
+        try {
+            response = clientHttpRequestExecution.execute(request, bytes);
+            apiLogData = this.responded(apiLogData, response).toBuilder()
+                    .circuitState(ApiLogSetupHelper.getCircuitState())
+                    .build();
+            if (BooleanUtils.isNotTrue(isFileDownload) && restTemplateProperty.getResponseCaptureMode() == RestTemplateProperty.ResponseCaptureMode.STREAMING) {
+                // 响应内容在消息转换器读取时同步记录，响应关闭时再记录日志
+                ApiLogData responded = apiLogData;
+                StreamCapturingClientHttpResponse.CloseCallback onClose = (responseContent, bytesRead, readFailure) ->
+                        this.complete(readFailure == null ? responded : this.failed(responded, readFailure), responseContent, startTime, logHandler, bytes.length, bytesRead);
+                // 未采样的调用只统计读取的字节数，不复制响应内容
+                response = capturesPayload ? new StreamCapturingClientHttpResponse(response, bodyMaxLength, charset, onClose)
+                        : StreamCapturingClientHttpResponse.countingOnly(response, onClose);
+                deferred = true;
+                return response;
+            }
+            // 下载大文件读取整个响应会OOM，此时不记录响应内容
+            String responseContent = null;
+            if (BooleanUtils.isNotTrue(isFileDownload) && capturesPayload) {
+                byte[] body = IOUtils.toByteArray(response.getBody());
+                responseBytes = body.length;
+                responseContent = new String(body, charset);
+            } else {
+                responseBytes = response.getHeaders().getContentLength();
+            }
+            apiLogData = apiLogData.toBuilder()
+                    .responseContent(responseContent)
+                    .build();
+        } catch (Throwable e) {
+            apiLogData = this.failed(apiLogData, e).toBuilder()
+                    .circuitState(ApiLogSetupHelper.getCircuitState())
+                    .build();
+            throw e;
+        } finally {
+            try {
+                if (!deferred) {
+                    this.complete(apiLogData, apiLogData.getResponseContent(), startTime, logHandler, bytes.length, responseBytes);
+                }
+            } finally {
+                ApiLogSetupHelper.clear();
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * 请求发送前，根据请求及接口日志设置生成日志
+     *
+     * @param request 请求
+     * @param bytes   请求body
+     * @param setup   接口日志设置，异步调用时为提交时的快照
+     * @return 接口日志
+     */
+    public ApiLogData begin(HttpRequest request, byte[] bytes, Map<String, Object> setup) {
         URI uri = request.getURI();
         if (log.isTraceEnabled()) {
             log.trace("=========>>>> start 接口请求>>>> {} \"{}\", headers: {}, bytes: {}", request.getMethod(),
                     uri, request.getHeaders(), new String(bytes));
         }
 
-        Object businessKey = ApiLogSetupHelper.getBusinessKey();
-        String apiCode = ApiLogSetupHelper.getApiCode();
-        String apiDesc = ApiLogSetupHelper.getApiDesc();
-        Integer bodyMaxLength = ApiLogSetupHelper.getBodyMaxLength();
-        Charset requestBodyEncoding = ApiLogSetupHelper.getRequestBodyEncoding();
-        Charset responseBodyEncoding = ApiLogSetupHelper.getResponseBodyEncoding();
-        Class<? extends IApiLogDataHandler> logHandler = ApiLogSetupHelper.getHandler();
-        Map<String, Object> context = ApiLogSetupHelper.getContext();
-        String ip = IpAddressUtil.getIp();
+        String apiCode = StringUtils.defaultIfBlank(ApiLogSetupHelper.getApiCode(setup), "缺省");
+        // 采集body及头之前决定是否采样，未采样的调用不做这部分开销
+        SamplingDecision sampling = apiLogSampler.sample(apiCode);
+        boolean capturesPayload = sampling == null || sampling == SamplingDecision.FULL;
+        Integer bodyMaxLength = ApiLogSetupHelper.getBodyMaxLength(setup);
+        Charset requestBodyEncoding = ApiLogSetupHelper.getRequestBodyEncoding(setup);
         String contentType = ObjectUtils.defaultIfNull(request.getHeaders().getContentType(), "").toString();
-        Boolean isFileUpload = ApiLogSetupHelper.getFileUpload();
-        Boolean isFileDownload = ApiLogSetupHelper.getFileDownload();
         String body = null;
-        if (BooleanUtils.isNotTrue(isFileUpload)) {
+        if (capturesPayload && BooleanUtils.isNotTrue(ApiLogSetupHelper.getFileUpload(setup))) {
             // 文件上传接口不缓存body，有OOM风险
             try {
                 body = URLDecoder.decode(new String(bytes), ObjectUtils.defaultIfNull(requestBodyEncoding, StandardCharsets.UTF_8).name());
@@ -72,78 +146,107 @@ public class DefaultClientHttpRequestInterceptor implements ClientHttpRequestInt
             body = bodyMaxLength == null || bodyMaxLength > body.length() ? body : body.substring(0, bodyMaxLength);
         }
 
-        ApiLogData apiLogData = ApiLogData.builder()
-                .businessKey(businessKey)
-                .apiCode(StringUtils.defaultIfBlank(apiCode, "缺省"))
-                .apiDesc(StringUtils.defaultIfBlank(apiDesc, "缺省"))
+        return ApiLogData.builder()
+                .businessKey(ApiLogSetupHelper.getBusinessKey(setup))
+                .apiCode(apiCode)
+                .apiDesc(StringUtils.defaultIfBlank(ApiLogSetupHelper.getApiDesc(setup), "缺省"))
                 .url(uri.getScheme() + "://" + uri.getAuthority() + uri.getPath())
                 .method(String.valueOf(request.getMethod()))
-                .ip(ip)
-                .requestHeaders(JSON.toJSONString(request.getHeaders()))
+                .ip(IpAddressUtil.getIp())
+                .requestHeaders(capturesPayload ? JSON.toJSONString(request.getHeaders()) : null)
                 .requestQuery(uri.getQuery())
                 .requestBody(body)
                 .requestContentType(contentType)
                 .isInner(false)
                 .requestDate(new Date())
-                .context(context)
+                .context(ApiLogSetupHelper.getContext(setup))
+                .attempt(ApiLogSetupHelper.getAttempt(setup))
+                .sampling(sampling == null ? null : sampling.name())
                 .build();
+    }
 
-        Long startTime = System.currentTimeMillis();
-        ClientHttpResponse response = null;
+    /**
+     * 收到响应后记录状态码及响应头（未采样时不记录响应头）
+     *
+     * @param apiLogData 接口日志
+     * @param response   响应
+     * @return 接口日志
+     * @throws IOException 读取状态码异常
+     */
+    public ApiLogData responded(ApiLogData apiLogData, ClientHttpResponse response) throws IOException {
+        boolean notModified = response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+        return apiLogData.toBuilder()
+                .isSuccess(response.getStatusCode().is2xxSuccessful() || notModified)
+                .responseCode(response.getStatusCode() + "/" + response.getStatusText())
+                .responseHeaders(SamplingDecision.capturesPayload(apiLogData.getSampling()) ? JSONObject.toJSONString(response.getHeaders()) : null)
+                .fromCache(notModified)
+                .build();
+    }
+
+    /**
+     * 调用异常时记录异常堆栈
+     *
+     * @param apiLogData 接口日志
+     * @param e          异常
+     * @return 接口日志
+     */
+    public ApiLogData failed(ApiLogData apiLogData, Throwable e) {
+        return apiLogData.toBuilder()
+                .isSuccess(false)
+                .exceptionStack(StringUtils.join(ExceptionUtils.getRootCauseStackTrace(e), StringUtils.LF))
+                .build();
+    }
+
+    /**
+     * 调用结束，记录响应内容及耗时并交给日志处理器
+     *
+     * @param apiLogData      接口日志
+     * @param responseContent 响应内容
+     * @param startTime       请求开始时间
+     * @param logHandler      日志处理器
+     */
+    public void complete(ApiLogData apiLogData, String responseContent, long startTime, Class<? extends IApiLogDataHandler> logHandler) {
+        this.complete(apiLogData, responseContent, startTime, logHandler, -1, -1);
+    }
+
+    /**
+     * 调用结束，记录响应内容及耗时并交给日志处理器，同时记录调用统计；未采样的调用只有失败或慢调用才交给日志处理器
+     *
+     * @param apiLogData      接口日志
+     * @param responseContent 响应内容
+     * @param startTime       请求开始时间
+     * @param logHandler      日志处理器
+     * @param requestBytes    请求body字节数，未知时小于0
+     * @param responseBytes   响应body字节数，未知时小于0
+     */
+    public void complete(ApiLogData apiLogData, String responseContent, long startTime, Class<? extends IApiLogDataHandler> logHandler,
+                         long requestBytes, long responseBytes) {
+        if (log.isTraceEnabled()) {
+            log.trace("=========<<<< end 接口请求<<<< 耗时: {}ms {}, {} \"{}\" 返回body: {}", (System.currentTimeMillis() - startTime),
+                    apiLogData.getResponseCode(), apiLogData.getMethod(), apiLogData.getUrl(), responseContent);
+        }
         try {
-            response = clientHttpRequestExecution.execute(request, bytes);
-            // 下载大文件IOUtils.toString会OOM，此时不记录响应内容
-            String responseContent = null;
-            if (BooleanUtils.isNotTrue(isFileDownload)) {
-                responseContent = IOUtils.toString(response.getBody(), ObjectUtils.defaultIfNull(responseBodyEncoding, StandardCharsets.UTF_8));
-            }
-            if (log.isTraceEnabled()) {
-                log.trace("=========<<<< end 接口请求<<<< 耗时: {}ms {}/{}, {} \"{}\" 返回body: {}", (System.currentTimeMillis() - startTime),
-                        response.getStatusCode(), response.getStatusText(), request.getMethod(),
-                        uri, responseContent);
-            }
             apiLogData = apiLogData.toBuilder()
-                    .isSuccess(response.getStatusCode().is2xxSuccessful())
                     .responseContent(responseContent)
-                    .responseCode(response.getStatusCode() + "/" + response.getStatusText())
-                    .responseHeaders(JSONObject.toJSONString(response.getHeaders()))
-                    .build();
-        } catch (Throwable e) {
-            apiLogData = apiLogData.toBuilder()
-                    .isSuccess(false)
-                    .exceptionStack(StringUtils.join(ExceptionUtils.getRootCauseStackTrace(e), StringUtils.LF))
+                    .consumeTime(System.currentTimeMillis() - startTime)
                     .build();
-            throw e;
-        } finally {
-            try {
-                apiLogData = apiLogData.toBuilder()
-                        .consumeTime(System.currentTimeMillis() - startTime)
-                        .build();
-                IApiLogDataHandler handler = this.getHandler(logHandler);
-                handler.handle(apiLogData);
-            } catch (Exception e) {
-                log.warn("接口日志记录异常", e);
-            } finally {
-                ApiLogSetupHelper.clear();
+            callMetricsRegistry.record(apiLogData, requestBytes, responseBytes);
+            if (!apiLogSampler.shouldLog(apiLogData)) {
+                return;
             }
+            IApiLogDataHandler handler = this.getHandler(logHandler);
+            apiLogDataDispatcher.dispatch(handler, apiLogData);
+        } catch (Exception e) {
+            log.warn("接口日志记录异常", e);
         }
-
-        return response;
     }
 
     /**
-     * 获取处理器，优先从获取spring bean，如没有则是单纯的对象，不含注入bean
+     * 获取处理器，优先从获取spring bean，如没有则是单纯的对象，不含注入bean；每个class只解析一次
      * @param handleClazz 处理器class
      * @return 处理器
      */
     public IApiLogDataHandler getHandler(Class<? extends IApiLogDataHandler> handleClazz) {
-        if (handleClazz == null) {
-            return new DefaultApiLogDataHandler();
-        }
-        IApiLogDataHandler apiLogDataHandler = ApplicationContextHelper.getBean(handleClazz);
-        if (apiLogDataHandler != null) {
-            return apiLogDataHandler;
-        }
-        return ReflectUtil.instance(handleClazz);
+        return apiLogDataHandlerRegistry.get(handleClazz);
     }
 }
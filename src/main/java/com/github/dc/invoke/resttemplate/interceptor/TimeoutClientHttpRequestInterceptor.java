@@ -0,0 +1,35 @@
+package com.github.dc.invoke.resttemplate.interceptor;
+
+import com.github.dc.invoke.resttemplate.timeout.CallTimeouts;
+import com.github.dc.invoke.resttemplate.timeout.TimeoutResolver;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ *     单次调用超时拦截器，位于日志拦截器之后（接口日志设置尚未清除，记录的请求头不含内部请求头），
+ *     确定本次调用的超时时间并以内部请求头传递给OkHttp拦截器
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:00
+ */
+@RequiredArgsConstructor
+public class TimeoutClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final TimeoutResolver timeoutResolver;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] bytes, ClientHttpRequestExecution execution) throws IOException {
+        CallTimeouts timeouts = timeoutResolver.resolve(request.getURI(), ApiLogSetupHelper.get());
+        if (timeouts != null) {
+            request.getHeaders().set(CallTimeouts.HEADER, timeouts.toHeaderValue());
+        }
+        return execution.execute(request, bytes);
+    }
+}
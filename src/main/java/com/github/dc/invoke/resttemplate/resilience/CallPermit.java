@@ -0,0 +1,44 @@
+package com.github.dc.invoke.resttemplate.resilience;
+
+/**
+ * <p>
+ *     一次调用的熔断器许可，调用结束（无论成功失败）须调用一次complete
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+public class CallPermit {
+    /**
+     * 未开启熔断时的许可
+     */
+    public static final CallPermit NONE = new CallPermit(null, null, 0);
+
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker.State state;
+    private final long startNanos;
+
+    CallPermit(CircuitBreaker circuitBreaker, CircuitBreaker.State state, long startNanos) {
+        this.circuitBreaker = circuitBreaker;
+        this.state = state;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @return 获取许可时熔断器的状态，未开启熔断时为null
+     */
+    public String getState() {
+        return state == null ? null : state.name();
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param success 是否成功，连接、读写异常及5xx响应为失败
+     */
+    public void complete(boolean success) {
+        if (circuitBreaker != null) {
+            circuitBreaker.complete(state, startNanos, success);
+        }
+    }
+}
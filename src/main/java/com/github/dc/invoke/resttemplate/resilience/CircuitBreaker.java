@@ -0,0 +1,257 @@
+package com.github.dc.invoke.resttemplate.resilience;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.error.exception.BulkheadFullException;
+import com.github.dc.invoke.resttemplate.error.exception.CircuitBreakerOpenException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ *     单个host（或host+接口代码）的熔断器及舱壁。
+ *     熔断：按秒分桶的滑动时间窗口统计失败率，达到阈值后打开，打开期间调用快速失败；
+ *     打开openDurationMillis后进入半开状态，放行halfOpenPermits个试探调用，全部成功则关闭，任一失败重新打开。
+ *     舱壁：基于CAS的信号量限制并发调用数，已满时快速失败，不排队等待
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+@Slf4j
+public class CircuitBreaker {
+    private final String key;
+    private final RestTemplateProperty.CircuitBreaker property;
+    /**
+     * 单调时钟（ns），窗口分桶、打开时长及慢调用耗时均按此计算，不受系统时间调整影响
+     */
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long openedAt;
+
+    private final long[] bucketSeconds;
+    private final int[] bucketCalls;
+    private final int[] bucketFailures;
+
+    private final AtomicInteger halfOpenCalls = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder notPermittedCount = new LongAdder();
+    private final LongAdder bulkheadRejectedCount = new LongAdder();
+
+    public CircuitBreaker(String key, RestTemplateProperty.CircuitBreaker property) {
+        this(key, property, System::nanoTime);
+    }
+
+    CircuitBreaker(String key, RestTemplateProperty.CircuitBreaker property, LongSupplier nanoClock) {
+        this.key = key;
+        this.property = property;
+        this.nanoClock = nanoClock;
+        int buckets = Math.max(1, property.getWindowSeconds());
+        this.bucketSeconds = new long[buckets];
+        this.bucketCalls = new int[buckets];
+        this.bucketFailures = new int[buckets];
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 获取调用许可，调用结束后需调用{@link CallPermit#complete(boolean)}
+     *
+     * @return 调用许可
+     * @throws CircuitBreakerOpenException 熔断器打开或半开状态试探名额已满
+     * @throws BulkheadFullException       并发调用数已达上限
+     */
+    public CallPermit acquire() {
+        State permitted = this.tryPermit();
+        if (!this.tryAcquireBulkhead()) {
+            if (permitted == State.HALF_OPEN) {
+                halfOpenCalls.decrementAndGet();
+            }
+            bulkheadRejectedCount.increment();
+            throw new BulkheadFullException(key, property.getMaxConcurrentCalls());
+        }
+        return new CallPermit(this, permitted, nanoClock.getAsLong());
+    }
+
+    /**
+     * 调用结束，记录结果并释放舱壁
+     *
+     * @param permitted   获取许可时的状态
+     * @param startNanos  开始时间
+     * @param success     是否成功
+     */
+    void complete(State permitted, long startNanos, boolean success) {
+        if (property.getMaxConcurrentCalls() > 0) {
+            concurrentCalls.decrementAndGet();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos);
+        boolean failed = !success || (property.getSlowCallThresholdMillis() > 0 && elapsedMillis > property.getSlowCallThresholdMillis());
+        if (failed) {
+            failureCount.increment();
+        } else {
+            successCount.increment();
+        }
+
+        if (permitted == State.HALF_OPEN) {
+            if (failed) {
+                this.transition(State.HALF_OPEN, State.OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= property.getHalfOpenPermits()) {
+                this.transition(State.HALF_OPEN, State.CLOSED);
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            long second = TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+            int index = (int) Math.floorMod(second, (long) bucketSeconds.length);
+            if (bucketSeconds[index] != second) {
+                bucketSeconds[index] = second;
+                bucketCalls[index] = 0;
+                bucketFailures[index] = 0;
+            }
+            bucketCalls[index]++;
+            if (failed) {
+                bucketFailures[index]++;
+            }
+            if (failed && state.get() == State.CLOSED) {
+                int calls = 0;
+                int failures = 0;
+                for (int i = 0; i < bucketSeconds.length; i++) {
+                    if (second - bucketSeconds[i] < bucketSeconds.length) {
+                        calls += bucketCalls[i];
+                        failures += bucketFailures[i];
+                    }
+                }
+                if (calls >= property.getMinimumCalls() && failures * 100L >= (long) property.getFailureRateThreshold() * calls) {
+                    this.transition(State.CLOSED, State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前统计
+     */
+    public Metrics metrics() {
+        return new Metrics(key, state.get(), successCount.sum(), failureCount.sum(), notPermittedCount.sum(),
+                bulkheadRejectedCount.sum(), concurrentCalls.get());
+    }
+
+    private State tryPermit() {
+        State current = state.get();
+        if (current == State.OPEN) {
+            if (this.currentMillis() - openedAt < property.getOpenDurationMillis()) {
+                notPermittedCount.increment();
+                throw new CircuitBreakerOpenException(key, State.OPEN.name());
+            }
+            this.transition(State.OPEN, State.HALF_OPEN);
+            current = state.get();
+        }
+        if (current == State.HALF_OPEN) {
+            if (halfOpenCalls.incrementAndGet() > property.getHalfOpenPermits()) {
+                halfOpenCalls.decrementAndGet();
+                notPermittedCount.increment();
+                throw new CircuitBreakerOpenException(key, State.HALF_OPEN.name());
+            }
+            return State.HALF_OPEN;
+        }
+        if (current == State.OPEN) {
+            notPermittedCount.increment();
+            throw new CircuitBreakerOpenException(key, State.OPEN.name());
+        }
+        return State.CLOSED;
+    }
+
+    private boolean tryAcquireBulkhead() {
+        int max = property.getMaxConcurrentCalls();
+        if (max <= 0) {
+            return true;
+        }
+        while (true) {
+            int current = concurrentCalls.get();
+            if (current >= max) {
+                return false;
+            }
+            if (concurrentCalls.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private long currentMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong());
+    }
+
+    private void transition(State from, State to) {
+        lock.lock();
+        try {
+            if (state.get() != from) {
+                return;
+            }
+            if (to == State.OPEN) {
+                openedAt = this.currentMillis();
+            } else if (to == State.HALF_OPEN) {
+                halfOpenCalls.set(0);
+                halfOpenSuccesses.set(0);
+            } else {
+                for (int i = 0; i < bucketSeconds.length; i++) {
+                    bucketSeconds[i] = 0;
+                    bucketCalls[i] = 0;
+                    bucketFailures[i] = 0;
+                }
+            }
+            state.set(to);
+        } finally {
+            lock.unlock();
+        }
+        log.warn("熔断器状态变更：{}，{} -> {}", key, from, to);
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Metrics {
+        private final String key;
+        private final State state;
+        private final long successCount;
+        private final long failureCount;
+        /**
+         * 熔断器打开（或半开试探名额已满）时被拒绝的调用数
+         */
+        private final long notPermittedCount;
+        /**
+         * 并发已满被拒绝的调用数
+         */
+        private final long bulkheadRejectedCount;
+        /**
+         * 当前并发调用数，未限制并发时为0
+         */
+        private final int concurrentCalls;
+    }
+}
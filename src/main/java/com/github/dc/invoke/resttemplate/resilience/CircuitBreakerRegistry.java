@@ -0,0 +1,73 @@
+package com.github.dc.invoke.resttemplate.resilience;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ *     熔断器注册表，按host（或host+接口代码）惰性创建熔断器
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+@Component
+public class CircuitBreakerRegistry {
+    private final RestTemplateProperty.CircuitBreaker property;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(RestTemplateProperty restTemplateProperty) {
+        this.property = restTemplateProperty.getCircuitBreaker();
+    }
+
+    public boolean isEnabled() {
+        return property.isEnabled();
+    }
+
+    /**
+     * 获取调用许可，未开启熔断时返回{@link CallPermit#NONE}
+     *
+     * @param uri     请求地址
+     * @param apiCode 接口代码
+     * @return 调用许可
+     */
+    public CallPermit acquire(URI uri, String apiCode) {
+        if (!property.isEnabled()) {
+            return CallPermit.NONE;
+        }
+        return this.circuitBreaker(uri, apiCode).acquire();
+    }
+
+    /**
+     * 获取熔断器
+     *
+     * @param uri     请求地址
+     * @param apiCode 接口代码，scope为API_CODE时参与生成key
+     * @return 熔断器
+     */
+    public CircuitBreaker circuitBreaker(URI uri, String apiCode) {
+        String key = uri.getScheme() + "://" + uri.getAuthority();
+        if (property.getScope() == RestTemplateProperty.CircuitBreaker.Scope.API_CODE && StringUtils.isNotBlank(apiCode)) {
+            key = key + "#" + apiCode;
+        }
+        return circuitBreakers.computeIfAbsent(key, k -> new CircuitBreaker(k, property));
+    }
+
+    /**
+     * @return 所有熔断器的当前统计
+     */
+    public List<CircuitBreaker.Metrics> metrics() {
+        List<CircuitBreaker.Metrics> metrics = new ArrayList<>(circuitBreakers.size());
+        for (CircuitBreaker circuitBreaker : circuitBreakers.values()) {
+            metrics.add(circuitBreaker.metrics());
+        }
+        return metrics;
+    }
+}
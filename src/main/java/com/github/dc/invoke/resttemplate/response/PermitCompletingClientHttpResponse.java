@@ -0,0 +1,121 @@
+package com.github.dc.invoke.resttemplate.response;
+
+import com.github.dc.invoke.resttemplate.resilience.CallPermit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>
+ *     响应关闭时才完成熔断器许可，读取body时的IO异常记为失败，避免慢body或读取中断不计入熔断统计、舱壁提前释放
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 17:00
+ */
+public class PermitCompletingClientHttpResponse implements ClientHttpResponse {
+    private final ClientHttpResponse delegate;
+    private final CallPermit permit;
+    private final boolean success;
+    private InputStream body;
+    private boolean readFailed;
+    private boolean closed;
+
+    /**
+     * @param delegate 原响应
+     * @param permit   熔断器许可
+     * @param success  按响应状态判断的调用结果
+     */
+    public PermitCompletingClientHttpResponse(ClientHttpResponse delegate, CallPermit permit, boolean success) {
+        this.delegate = delegate;
+        this.permit = permit;
+        this.success = success;
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        if (body == null) {
+            try {
+                body = new FailureTrackingInputStream(delegate.getBody());
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return delegate.getHeaders();
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+        return delegate.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+        return delegate.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+        return delegate.getStatusText();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            delegate.close();
+        } finally {
+            permit.complete(success && !readFailed);
+        }
+    }
+
+    private class FailureTrackingInputStream extends FilterInputStream {
+
+        FailureTrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.dc.invoke.resttemplate.response;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ *     边读边记录响应body的响应包装。
+ *     消息转换器读取响应流时同步把读到的字节复制一份（最多limit字节，初始容量按Content-Length且不超过64KB，之后按需扩容），
+ *     响应关闭时把已记录的内容及读取异常回调给日志，不需要预先把整个响应缓存到内存
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 15:00
+ */
+public class StreamCapturingClientHttpResponse implements ClientHttpResponse {
+    private static final int DEFAULT_INITIAL_SIZE = 256;
+    private static final int MAX_INITIAL_SIZE = 64 * 1024;
+
+    private final ClientHttpResponse delegate;
+    private final Integer limit;
+    private final Charset charset;
+    private final CloseCallback onClose;
+    private ByteArrayOutputStream captured;
+    private InputStream body;
+    private long bytesRead;
+    private IOException readFailure;
+    private boolean closed;
+
+    /**
+     * @param delegate 原响应
+     * @param limit    最多记录的字节数，null表示不限制，0表示只统计字节数（不分配缓冲区）
+     * @param charset  记录内容的编码
+     * @param onClose  响应关闭时的回调
+     */
+    public StreamCapturingClientHttpResponse(ClientHttpResponse delegate, Integer limit, Charset charset, CloseCallback onClose) {
+        this.delegate = delegate;
+        this.limit = limit;
+        this.charset = charset;
+        this.onClose = onClose;
+    }
+
+    /**
+     * 只统计读取的字节数及读取异常，不记录内容，回调中的内容为null
+     *
+     * @param delegate 原响应
+     * @param onClose  响应关闭时的回调
+     * @return 响应包装
+     */
+    public static StreamCapturingClientHttpResponse countingOnly(ClientHttpResponse delegate, CloseCallback onClose) {
+        return new StreamCapturingClientHttpResponse(delegate, 0, null, onClose);
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        if (body == null && limit != null && limit <= 0) {
+            body = new TeeInputStream(delegate.getBody());
+        } else if (body == null) {
+            long contentLength = delegate.getHeaders().getContentLength();
+            // Content-Length可能不准确或很大，只按上限预分配，读取时再扩容
+            int initialSize = contentLength >= 0 ? (int) Math.min(contentLength, MAX_INITIAL_SIZE) : DEFAULT_INITIAL_SIZE;
+            if (limit != null) {
+                initialSize = Math.min(initialSize, limit);
+            }
+            captured = new ByteArrayOutputStream(Math.max(initialSize, 0));
+            body = new TeeInputStream(delegate.getBody());
+        }
+        return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return delegate.getHeaders();
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+        return delegate.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+        return delegate.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+        return delegate.getStatusText();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            onClose.onClose(this.capturedContent(), bytesRead, readFailure);
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private String capturedContent() {
+        if (captured == null) {
+            return null;
+        }
+        try {
+            return captured.toString(charset.name());
+        } catch (UnsupportedEncodingException e) {
+            return captured.toString();
+        }
+    }
+
+    private int remaining() {
+        if (captured == null) {
+            return 0;
+        }
+        return limit == null ? Integer.MAX_VALUE : limit - captured.size();
+    }
+
+    private class TeeInputStream extends FilterInputStream {
+
+        private TeeInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException e) {
+                readFailure = e;
+                throw e;
+            }
+            if (b != -1) {
+                bytesRead++;
+                if (remaining() > 0) {
+                    captured.write(b);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = super.read(b, off, len);
+            } catch (IOException e) {
+                readFailure = e;
+                throw e;
+            }
+            if (n > 0) {
+                bytesRead += n;
+                int copy = Math.min(n, remaining());
+                if (copy > 0) {
+                    captured.write(b, off, copy);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 跳过的内容也需要记录，按读取处理
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = this.read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * 响应关闭时的回调
+     */
+    @FunctionalInterface
+    public interface CloseCallback {
+        /**
+         * @param content     记录的内容
+         * @param bytesRead   读取的总字节数
+         * @param readFailure 读取响应body时的异常（读超时、连接重置等），读取正常时为null
+         */
+        void onClose(String content, long bytesRead, IOException readFailure);
+    }
+}
@@ -0,0 +1,284 @@
+package com.github.dc.invoke.resttemplate.retry;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.pojo.ApiLogSetupMethod;
+import com.github.dc.invoke.resttemplate.async.AsyncRestInvoker;
+import com.github.dc.invoke.resttemplate.error.exception.BulkheadFullException;
+import com.github.dc.invoke.resttemplate.error.exception.CircuitBreakerOpenException;
+import com.github.dc.invoke.resttemplate.error.exception.InvokeException;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import com.github.dc.invoke.util.LatencyTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ *     RestTemplateHelper同步调用的重试及对冲请求。
+ *     重试：连接、读写异常及配置的状态码按指数退避加随机抖动重试，熔断、舱壁快速失败不重试；
+ *     对冲：已等待观测到的百分位耗时仍未响应时，向原地址或备用地址发出第二个请求，取先成功的响应并取消另一个。
+ *     只对幂等方法或标记为可重试的调用生效，每次尝试各自记录日志，日志中带尝试序号
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:00
+ */
+@Slf4j
+@Component
+public class RetryingRestInvoker {
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS,
+            HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final RestTemplate dcRestTemplate;
+    private final AsyncRestInvoker asyncRestInvoker;
+    private final RestTemplateProperty.Retry property;
+    private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLES);
+
+    public RetryingRestInvoker(RestTemplate dcRestTemplate, AsyncRestInvoker asyncRestInvoker, RestTemplateProperty restTemplateProperty) {
+        this.dcRestTemplate = dcRestTemplate;
+        this.asyncRestInvoker = asyncRestInvoker;
+        this.property = restTemplateProperty.getRetry();
+    }
+
+    /**
+     * 发起调用，按配置重试或对冲
+     *
+     * @param url          请求地址
+     * @param method       请求方法
+     * @param httpEntity   请求头及body，可为null
+     * @param responseType 返回值类型
+     * @return 响应
+     */
+    public <R> ResponseEntity<R> exchange(String url, HttpMethod method, HttpEntity<?> httpEntity, Class<R> responseType) {
+        return this.execute(url, method, httpEntity, responseType, dcRestTemplate.responseEntityExtractor(responseType));
+    }
+
+    /**
+     * 发起调用，按指定的解析器处理响应，按配置重试或对冲
+     *
+     * @param url               请求地址
+     * @param method            请求方法
+     * @param httpEntity        请求头及body，可为null
+     * @param responseType      返回值类型，用于生成Accept请求头
+     * @param responseExtractor 响应解析器，对冲请求时作用于已完整读取的响应
+     * @return 解析结果
+     */
+    public <T> T execute(String url, HttpMethod method, HttpEntity<?> httpEntity, Class<?> responseType, ResponseExtractor<T> responseExtractor) {
+        if (!this.isApplicable(method, ApiLogSetupHelper.get())) {
+            return dcRestTemplate.execute(url, method, dcRestTemplate.httpEntityCallback(httpEntity, responseType), responseExtractor);
+        }
+        // 日志拦截器每次调用后清除设置，各次尝试使用快照
+        Map<String, Object> setup = ApiLogSetupHelper.snapshot();
+        ApiLogSetupHelper.clear();
+        RestTemplateProperty.RetryPolicy policy = property.getApiCodes().getOrDefault(ApiLogSetupHelper.getApiCode(setup), property);
+        int maxAttempts = property.isEnabled() ? Math.max(1, policy.getMaxAttempts()) : 1;
+        String latencyKey = latencyKey(url, setup);
+        AtomicInteger attempts = new AtomicInteger();
+        for (int tries = 1; ; tries++) {
+            try {
+                if (property.getHedge().isEnabled()) {
+                    return this.hedge(url, method, httpEntity, responseType, responseExtractor, setup, attempts, latencyKey);
+                }
+                return this.attempt(url, method, httpEntity, responseType, responseExtractor, setup, attempts, latencyKey);
+            } catch (RuntimeException e) {
+                if (tries >= maxAttempts || !isRetryable(e, policy)) {
+                    throw e;
+                }
+                long backoff = backoff(policy, tries);
+                log.warn("调用失败，{}ms后重试（已尝试{}次）：{} {}，{}", backoff, attempts.get(), method, url, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 调用耗时统计
+     */
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    private boolean isApplicable(HttpMethod method, Map<String, Object> setup) {
+        if (!property.isEnabled() && !property.getHedge().isEnabled()) {
+            return false;
+        }
+        Boolean retryable = ApiLogSetupHelper.getRetryable(setup);
+        return retryable != null ? retryable : IDEMPOTENT_METHODS.contains(method);
+    }
+
+    private <T> T attempt(String url, HttpMethod method, HttpEntity<?> httpEntity, Class<?> responseType, ResponseExtractor<T> responseExtractor,
+                          Map<String, Object> setup, AtomicInteger attempts, String latencyKey) {
+        ApiLogSetupHelper.set(withAttempt(setup, attempts.incrementAndGet()));
+        long startTime = System.currentTimeMillis();
+        try {
+            T response = dcRestTemplate.execute(url, method, dcRestTemplate.httpEntityCallback(httpEntity, responseType), responseExtractor);
+            latencyTracker.record(latencyKey, System.currentTimeMillis() - startTime);
+            return response;
+        } finally {
+            ApiLogSetupHelper.clear();
+        }
+    }
+
+    private <T> T hedge(String url, HttpMethod method, HttpEntity<?> httpEntity, Class<?> responseType, ResponseExtractor<T> responseExtractor,
+                        Map<String, Object> setup, AtomicInteger attempts, String latencyKey) {
+        RestTemplateProperty.Hedge hedge = property.getHedge();
+        long delay = latencyTracker.percentile(latencyKey, hedge.getPercentile(), hedge.getMinSamples());
+        if (delay < 0) {
+            // 样本不足，先积累耗时
+            return this.attempt(url, method, httpEntity, responseType, responseExtractor, setup, attempts, latencyKey);
+        }
+        delay = Math.max(delay, hedge.getMinDelayMillis());
+        CompletableFuture<T> primary = this.attemptAsync(url, method, httpEntity, responseType, responseExtractor, setup, attempts, latencyKey);
+        CompletableFuture<T> hedged = null;
+        try {
+            try {
+                return primary.get(delay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                String hedgeUrl = this.alternateUrl(url);
+                log.debug("{}ms未响应，发出对冲请求：{} {}", delay, method, hedgeUrl);
+                hedged = this.attemptAsync(hedgeUrl, method, httpEntity, responseType, responseExtractor, setup, attempts, latencyKey);
+            }
+            return firstSuccessful(primary, hedged).get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvokeException("调用被中断", e);
+        } finally {
+            // 取消未完成的请求，已完成的不受影响
+            primary.cancel(true);
+            if (hedged != null) {
+                hedged.cancel(true);
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(String url, HttpMethod method, HttpEntity<?> httpEntity, Class<?> responseType,
+                                                  ResponseExtractor<T> responseExtractor, Map<String, Object> setup, AtomicInteger attempts, String latencyKey) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<T> future;
+        try {
+            future = ApiLogSetupHelper.callWith(withAttempt(setup, attempts.incrementAndGet()),
+                    () -> asyncRestInvoker.execute(url, method, httpEntity, responseType, responseExtractor));
+        } catch (Exception e) {
+            throw unwrap(e);
+        }
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                latencyTracker.record(latencyKey, System.currentTimeMillis() - startTime);
+            }
+        });
+        return future;
+    }
+
+    private String alternateUrl(String url) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+        String authority = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String alternate = property.getHedge().getAlternateHosts().get(authority);
+        if (StringUtils.isBlank(alternate)) {
+            return url;
+        }
+        URI alternateUri = URI.create(alternate);
+        return UriComponentsBuilder.fromUriString(url)
+                .scheme(alternateUri.getScheme())
+                .host(alternateUri.getHost())
+                .port(alternateUri.getPort())
+                .build()
+                .toUriString();
+    }
+
+    private static Map<String, Object> withAttempt(Map<String, Object> setup, int attempt) {
+        Map<String, Object> attemptSetup = new HashMap<>(setup);
+        attemptSetup.put(ApiLogSetupMethod.FIELD_ATTEMPT, attempt);
+        return attemptSetup;
+    }
+
+    private static String latencyKey(String url, Map<String, Object> setup) {
+        String apiCode = ApiLogSetupHelper.getApiCode(setup);
+        if (StringUtils.isNotBlank(apiCode)) {
+            return apiCode;
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()) + uri.getPath();
+    }
+
+    private static boolean isRetryable(RuntimeException e, RestTemplateProperty.RetryPolicy policy) {
+        if (e instanceof CircuitBreakerOpenException || e instanceof BulkheadFullException) {
+            return false;
+        }
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof InvokeException && ((InvokeException) e).getStatus() != null) {
+            return policy.getRetryStatuses().contains(((InvokeException) e).getStatus().value());
+        }
+        if (e instanceof RestClientResponseException) {
+            return policy.getRetryStatuses().contains(((RestClientResponseException) e).getRawStatusCode());
+        }
+        return false;
+    }
+
+    private static long backoff(RestTemplateProperty.RetryPolicy policy, int tries) {
+        long delay = (long) Math.min(policy.getMaxBackoffMillis(), policy.getInitialBackoffMillis() * Math.pow(policy.getMultiplier(), tries - 1));
+        double jitter = Math.min(1, Math.max(0, policy.getJitter()));
+        return delay - (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 异步调用的异常转换为与同步调用一致的异常
+     */
+    private static RuntimeException unwrap(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof IOException) {
+            return new ResourceAccessException("I/O error: " + e.getMessage(), (IOException) e);
+        }
+        return new RestClientException(e.getMessage(), e);
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> action = (value, e) -> {
+            if (e == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(e);
+            }
+        };
+        first.whenComplete(action);
+        second.whenComplete(action);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.dc.invoke.resttemplate.timeout;
+
+import lombok.RequiredArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     OkHttp应用拦截器，按内部请求头设置本次调用的超时时间（不重建OkHttpClient），移除该请求头后发出请求，
+ *     开启自适应超时时记录收到响应头的耗时，超时的调用按不小于读超时的耗时记录
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:00
+ */
+@RequiredArgsConstructor
+public class CallTimeoutInterceptor implements Interceptor {
+    private final TimeoutResolver timeoutResolver;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String value = request.header(CallTimeouts.HEADER);
+        if (value == null) {
+            return chain.proceed(request);
+        }
+        CallTimeouts timeouts = CallTimeouts.parse(value);
+        Chain timeoutChain = chain;
+        if (timeouts.getConnectTimeout() > 0) {
+            timeoutChain = timeoutChain.withConnectTimeout(timeouts.getConnectTimeout(), TimeUnit.MILLISECONDS);
+        }
+        if (timeouts.getReadTimeout() > 0) {
+            timeoutChain = timeoutChain.withReadTimeout(timeouts.getReadTimeout(), TimeUnit.MILLISECONDS);
+        }
+        if (timeouts.getWriteTimeout() > 0) {
+            timeoutChain = timeoutChain.withWriteTimeout(timeouts.getWriteTimeout(), TimeUnit.MILLISECONDS);
+        }
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = timeoutChain.proceed(request.newBuilder().removeHeader(CallTimeouts.HEADER).build());
+        } catch (InterruptedIOException e) {
+            // 超时的调用同样计入耗时（至少为本次的读超时），否则慢接口只留下快样本，自适应超时会越收越紧
+            if (timeouts.getLatencyKey() != null) {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                timeoutResolver.record(timeouts.getLatencyKey(), Math.max(elapsed, timeoutChain.readTimeoutMillis()));
+            }
+            throw e;
+        }
+        if (timeouts.getLatencyKey() != null) {
+            timeoutResolver.record(timeouts.getLatencyKey(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.dc.invoke.resttemplate.timeout;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ *     单次调用的超时时间，以内部请求头传递给OkHttp拦截器，由拦截器设置后移除，不会发往对方服务端
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:00
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CallTimeouts {
+    public static final String HEADER = "X-Dc-Invoke-Timeout";
+
+    /**
+     * 连接超时时间，单位ms，0表示使用OkHttpClient的配置
+     */
+    private final int connectTimeout;
+    /**
+     * 读超时时间，单位ms，0表示使用OkHttpClient的配置
+     */
+    private final int readTimeout;
+    /**
+     * 写超时时间，单位ms，0表示使用OkHttpClient的配置
+     */
+    private final int writeTimeout;
+    /**
+     * 记录耗时的key，未开启自适应超时时为null
+     */
+    private final String latencyKey;
+
+    /**
+     * @return 请求头的值：连接超时;读超时;写超时;耗时key（URL编码）
+     */
+    public String toHeaderValue() {
+        try {
+            return connectTimeout + ";" + readTimeout + ";" + writeTimeout + ";"
+                    + (latencyKey == null ? "" : URLEncoder.encode(latencyKey, StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param value 请求头的值
+     * @return 超时时间
+     */
+    public static CallTimeouts parse(String value) {
+        String[] parts = value.split(";", 4);
+        try {
+            return new CallTimeouts(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    parts.length < 4 || StringUtils.isEmpty(parts[3]) ? null : URLDecoder.decode(parts[3], StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
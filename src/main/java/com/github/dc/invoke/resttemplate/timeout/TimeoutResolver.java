@@ -0,0 +1,126 @@
+package com.github.dc.invoke.resttemplate.timeout;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.util.ApiLogSetupHelper;
+import com.github.dc.invoke.util.LatencyTracker;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.PatternMatchUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>
+ *     按 ApiLogSetupHelper单次设置 > 接口代码配置 > host配置 > 自适应（仅读超时） 的优先级确定单次调用的超时时间，
+ *     均未配置的项使用OkHttpClient的全局配置。自适应超时按该接口（接口代码，未设置时为地址）最近耗时的百分位加余量计算
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:00
+ */
+@Component
+public class TimeoutResolver {
+    private static final int LATENCY_SAMPLES = 512;
+
+    private final RestTemplateProperty.Timeout property;
+    private final int globalReadTimeout;
+    private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLES);
+
+    public TimeoutResolver(RestTemplateProperty restTemplateProperty) {
+        this.property = restTemplateProperty.getTimeout();
+        this.globalReadTimeout = restTemplateProperty.getReadTimeout();
+    }
+
+    /**
+     * 确定单次调用的超时时间
+     *
+     * @param uri   请求地址
+     * @param setup 接口日志设置
+     * @return 超时时间，均使用全局配置且未开启自适应超时时返回null
+     */
+    public CallTimeouts resolve(URI uri, Map<String, Object> setup) {
+        String apiCode = ApiLogSetupHelper.getApiCode(setup);
+        RestTemplateProperty.TimeoutPolicy apiCodePolicy = apiCode == null ? null : property.getApiCodes().get(apiCode);
+        RestTemplateProperty.TimeoutPolicy hostPolicy = this.hostPolicy(uri);
+        Integer connectTimeout = first(ApiLogSetupHelper.getConnectTimeout(setup), apiCodePolicy, hostPolicy, RestTemplateProperty.TimeoutPolicy::getConnectTimeout);
+        Integer readTimeout = first(ApiLogSetupHelper.getReadTimeout(setup), apiCodePolicy, hostPolicy, RestTemplateProperty.TimeoutPolicy::getReadTimeout);
+        Integer writeTimeout = first(ApiLogSetupHelper.getWriteTimeout(setup), apiCodePolicy, hostPolicy, RestTemplateProperty.TimeoutPolicy::getWriteTimeout);
+        String latencyKey = property.getAdaptive().isEnabled() ? latencyKey(uri, apiCode) : null;
+        if (readTimeout == null && latencyKey != null) {
+            readTimeout = this.adaptiveReadTimeout(latencyKey);
+        }
+        if (connectTimeout == null && readTimeout == null && writeTimeout == null && latencyKey == null) {
+            return null;
+        }
+        return new CallTimeouts(toInt(connectTimeout), toInt(readTimeout), toInt(writeTimeout), latencyKey);
+    }
+
+    /**
+     * 记录一次调用耗时（收到响应头为止），用于自适应超时
+     *
+     * @param latencyKey 耗时key
+     * @param millis     耗时，单位ms
+     */
+    public void record(String latencyKey, long millis) {
+        latencyTracker.record(latencyKey, millis);
+    }
+
+    /**
+     * @return 调用耗时统计
+     */
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    private Integer adaptiveReadTimeout(String latencyKey) {
+        RestTemplateProperty.AdaptiveTimeout adaptive = property.getAdaptive();
+        long latency = latencyTracker.percentile(latencyKey, adaptive.getPercentile(), adaptive.getMinSamples());
+        if (latency < 0) {
+            return null;
+        }
+        long timeout = Math.max(adaptive.getMinMillis(), (long) (latency * adaptive.getMultiplier()) + adaptive.getHeadroomMillis());
+        long max = adaptive.getMaxMillis() > 0 ? adaptive.getMaxMillis() : globalReadTimeout;
+        if (max > 0) {
+            timeout = Math.min(max, timeout);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, timeout);
+    }
+
+    private RestTemplateProperty.TimeoutPolicy hostPolicy(URI uri) {
+        if (property.getHosts().isEmpty() || uri.getHost() == null) {
+            return null;
+        }
+        String host = uri.getHost();
+        String authority = uri.getPort() == -1 ? host : host + ":" + uri.getPort();
+        for (Map.Entry<String, RestTemplateProperty.TimeoutPolicy> entry : property.getHosts().entrySet()) {
+            if (PatternMatchUtils.simpleMatch(entry.getKey(), host) || PatternMatchUtils.simpleMatch(entry.getKey(), authority)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Integer first(Integer value, RestTemplateProperty.TimeoutPolicy apiCodePolicy, RestTemplateProperty.TimeoutPolicy hostPolicy,
+                                 Function<RestTemplateProperty.TimeoutPolicy, Integer> getter) {
+        if (value == null && apiCodePolicy != null) {
+            value = getter.apply(apiCodePolicy);
+        }
+        if (value == null && hostPolicy != null) {
+            value = getter.apply(hostPolicy);
+        }
+        return value;
+    }
+
+    private static String latencyKey(URI uri, String apiCode) {
+        if (StringUtils.isNotBlank(apiCode)) {
+            return apiCode;
+        }
+        return uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+    }
+
+    private static int toInt(Integer timeout) {
+        return timeout == null || timeout < 0 ? 0 : timeout;
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.dc.invoke.resttemplate.upload;
+
+import com.alibaba.fastjson2.JSON;
+import com.github.dc.invoke.util.StreamTransferUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ *     multipart/form-data请求体，写出前可计算精确长度，写出时文件内容边读边写，内存占用与文件大小无关。
+ *     支持的表单值：Resource（文件）、byte[]、String及基本类型，其他对象序列化为json。
+ *     字段名及文件名中的双引号、CR、LF按浏览器的方式编码，含非ASCII或上述字符的文件名另附RFC 5987编码的filename*
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:30
+ */
+public class MultipartStreamingBody {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] DASHES = {'-', '-'};
+
+    private final byte[] boundary;
+    private final Charset charset;
+    private final List<Part> parts = new ArrayList<>();
+
+    public MultipartStreamingBody(MultiValueMap<String, Object> form) {
+        this(form, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param form    表单
+     * @param charset 文本值及part头（含中文文件名）编码
+     */
+    public MultipartStreamingBody(MultiValueMap<String, Object> form, Charset charset) {
+        this.boundary = MimeTypeUtils.generateMultipartBoundary();
+        this.charset = charset;
+        for (Map.Entry<String, List<Object>> entry : form.entrySet()) {
+            for (Object value : entry.getValue()) {
+                parts.add(this.toPart(entry.getKey(), value));
+            }
+        }
+    }
+
+    /**
+     * @return 带boundary的Content-Type
+     */
+    public MediaType getContentType() {
+        return new MediaType(MediaType.MULTIPART_FORM_DATA,
+                Collections.singletonMap("boundary", new String(boundary, StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * @return 请求体精确长度
+     * @throws IOException 无法获取文件长度
+     */
+    public long contentLength() throws IOException {
+        long length = 0;
+        for (Part part : parts) {
+            length += DASHES.length + boundary.length + CRLF.length + part.header.length + part.contentLength() + CRLF.length;
+        }
+        return length + DASHES.length + boundary.length + DASHES.length + CRLF.length;
+    }
+
+    /**
+     * 写出请求体，不关闭输出流
+     *
+     * @param os 输出流
+     * @throws IOException 读写异常
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        for (Part part : parts) {
+            os.write(DASHES);
+            os.write(boundary);
+            os.write(CRLF);
+            os.write(part.header);
+            part.writeContent(os);
+            os.write(CRLF);
+        }
+        os.write(DASHES);
+        os.write(boundary);
+        os.write(DASHES);
+        os.write(CRLF);
+        os.flush();
+    }
+
+    private Part toPart(String name, Object value) {
+        if (value instanceof Resource) {
+            Resource resource = (Resource) value;
+            MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new Part(this.header(name, resource.getFilename(), mediaType), null, resource);
+        }
+        if (value instanceof byte[]) {
+            return new Part(this.header(name, null, MediaType.APPLICATION_OCTET_STREAM), (byte[]) value, null);
+        }
+        if (value == null || value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            MediaType textPlain = new MediaType(MediaType.TEXT_PLAIN, charset);
+            return new Part(this.header(name, null, textPlain), StringUtils.defaultString(value == null ? null : value.toString()).getBytes(charset), null);
+        }
+        MediaType json = new MediaType(MediaType.APPLICATION_JSON, charset);
+        return new Part(this.header(name, null, json), JSON.toJSONString(value).getBytes(charset), null);
+    }
+
+    private byte[] header(String name, String filename, MediaType mediaType) {
+        StringBuilder header = new StringBuilder("Content-Disposition: form-data; name=\"").append(quote(name)).append('"');
+        if (filename != null) {
+            // filename保持按charset编码的原文件名（编码特殊字符后），兼容只识别filename的服务端；
+            // 含非ASCII字符或特殊字符时另附RFC 5987编码的filename*，识别该参数的服务端可无歧义地还原文件名
+            String quoted = quote(filename);
+            header.append("; filename=\"").append(quoted).append('"');
+            if (!quoted.equals(filename) || !StandardCharsets.US_ASCII.newEncoder().canEncode(filename)) {
+                header.append("; filename*=").append(this.encodeExtValue(filename));
+            }
+        }
+        header.append("\r\nContent-Type: ").append(mediaType).append("\r\n\r\n");
+        return header.toString().getBytes(charset);
+    }
+
+    /**
+     * 按浏览器（WHATWG HTML规范）的方式编码quoted-string内容：双引号、CR、LF编码为%22、%0D、%0A，避免破坏part头
+     */
+    private static String quote(String value) {
+        return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+    }
+
+    /**
+     * RFC 5987 ext-value：charset''百分号编码值，attr-char以外的字节均编码
+     */
+    private String encodeExtValue(String value) {
+        StringBuilder encoded = new StringBuilder(charset.name()).append("''");
+        for (byte b : value.getBytes(charset)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "!#$&+-.^_`|~".indexOf(c) >= 0) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static class Part {
+        private final byte[] header;
+        private final byte[] content;
+        private final Resource resource;
+
+        private Part(byte[] header, byte[] content, Resource resource) {
+            this.header = header;
+            this.content = content;
+            this.resource = resource;
+        }
+
+        private long contentLength() throws IOException {
+            return resource == null ? content.length : resource.contentLength();
+        }
+
+        private void writeContent(OutputStream os) throws IOException {
+            if (resource == null) {
+                os.write(content);
+                return;
+            }
+            try (InputStream inputStream = resource.getInputStream()) {
+                StreamTransferUtil.transfer(inputStream, os);
+            }
+        }
+    }
+}
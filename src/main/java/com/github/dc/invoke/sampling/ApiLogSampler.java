@@ -0,0 +1,107 @@
+package com.github.dc.invoke.sampling;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     接口日志采样，按接口代码配置策略。
+ *     调用开始前决定是否采样（按successPercent比例，并限制每秒完整记录条数），未被采样的调用不采集body及头；
+ *     调用结束时再按结果决定是否保留：未被采样的调用只有失败（keepErrors）或耗时达到slowThresholdMillis时才按元数据记录。
+ *     调用统计不受采样影响
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 15:00
+ */
+@Component
+public class ApiLogSampler {
+    private final ApiLogProperty.Sampling property;
+    private final ConcurrentMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+
+    public ApiLogSampler(ApiLogProperty apiLogProperty) {
+        this.property = apiLogProperty.getSampling();
+    }
+
+    public boolean isEnabled() {
+        return property.isEnabled();
+    }
+
+    /**
+     * 调用开始前决定是否采样
+     *
+     * @param apiCode 接口代码
+     * @return 采样决定，未开启采样时为null（完整记录）
+     */
+    public SamplingDecision sample(String apiCode) {
+        if (!property.isEnabled()) {
+            return null;
+        }
+        ApiLogProperty.SamplingPolicy policy = this.policy(apiCode);
+        double percent = policy.getSuccessPercent();
+        boolean sampled = percent >= 100 || (percent > 0 && ThreadLocalRandom.current().nextDouble(100) < percent);
+        if (sampled && policy.getMaxPerSecond() > 0) {
+            sampled = this.tryAcquire(apiCode, policy.getMaxPerSecond());
+        }
+        if (!sampled) {
+            return SamplingDecision.TAIL;
+        }
+        return policy.isMetadataOnly() ? SamplingDecision.METADATA : SamplingDecision.FULL;
+    }
+
+    /**
+     * 调用结束后决定是否记录日志
+     *
+     * @param apiLogData 接口日志，需已记录是否成功及耗时
+     * @return 是否记录
+     */
+    public boolean shouldLog(ApiLogData apiLogData) {
+        if (!SamplingDecision.TAIL.name().equals(apiLogData.getSampling())) {
+            return true;
+        }
+        ApiLogProperty.SamplingPolicy policy = this.policy(apiLogData.getApiCode());
+        if (policy.isKeepErrors() && BooleanUtils.isNotTrue(apiLogData.getIsSuccess())) {
+            return true;
+        }
+        return policy.getSlowThresholdMillis() > 0 && apiLogData.getConsumeTime() != null
+                && apiLogData.getConsumeTime() >= policy.getSlowThresholdMillis();
+    }
+
+    private ApiLogProperty.SamplingPolicy policy(String apiCode) {
+        return apiCode == null ? property : ObjectUtils.defaultIfNull(property.getApiCodes().get(apiCode), property);
+    }
+
+    /**
+     * 按秒的固定窗口计数，高32位为秒数，低32位为该秒已采样的条数
+     */
+    private boolean tryAcquire(String apiCode, int maxPerSecond) {
+        String key = String.valueOf(apiCode);
+        AtomicLong window = windows.get(key);
+        if (window == null) {
+            window = windows.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        long second = System.currentTimeMillis() / 1000;
+        while (true) {
+            long current = window.get();
+            long next;
+            if (current >>> 32 != second) {
+                next = second << 32 | 1;
+            } else if ((int) current >= maxPerSecond) {
+                return false;
+            } else {
+                next = current + 1;
+            }
+            if (window.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.dc.invoke.sampling;
+
+/**
+ * <p>
+ *     调用开始前（采集请求、响应body及头之前）的采样决定
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 15:00
+ */
+public enum SamplingDecision {
+    /**
+     * 完整记录
+     */
+    FULL,
+    /**
+     * 只记录元数据：不采集请求、响应的body及头
+     */
+    METADATA,
+    /**
+     * 未被采样：不采集body及头，调用结束时只有失败或慢调用才按元数据记录，其余丢弃
+     */
+    TAIL;
+
+    /**
+     * @param sampling 接口日志中的采样决定，未开启采样时为null
+     * @return 是否需要采集body及头
+     */
+    public static boolean capturesPayload(String sampling) {
+        return sampling == null || FULL.name().equals(sampling);
+    }
+}
@@ -27,44 +27,153 @@ public class ApiLogSetupHelper extends ApiLogSetupMethod {
         get().put(FIELD_FILE_DOWNLOAD, fileDownload);
     }
 
+    /**
+     * 记录本次调用的熔断器状态，由熔断拦截器设置，日志拦截器写入接口日志
+     *
+     * @param circuitState 熔断器状态
+     */
+    public static void setCircuitState(String circuitState) {
+        if (get() == null) {
+            ApiLogSetupHelper.set(new HashMap<>(1));
+        }
+        get().put(FIELD_CIRCUIT_STATE, circuitState);
+    }
+
+    /**
+     * 复制当前线程的接口日志设置，用于在其他线程（如异步回调）中记录日志
+     *
+     * @return 设置快照，未设置时为空map
+     */
+    public static Map<String, Object> snapshot() {
+        return get() == null ? new HashMap<>(1) : new HashMap<>(get());
+    }
+
     public static Object getBusinessKey() {
-        return get() == null ? null: get().get(FIELD_BUSINESS_KEY);
+        return getBusinessKey(get());
+    }
+
+    public static Object getBusinessKey(Map<String, Object> setup) {
+        return setup == null ? null: setup.get(FIELD_BUSINESS_KEY);
     }
 
     public static String getApiCode() {
-        return get() == null ? null: (String) get().get(ApiLogData.FIELD_API_CODE);
+        return getApiCode(get());
+    }
+
+    public static String getApiCode(Map<String, Object> setup) {
+        return setup == null ? null: (String) setup.get(ApiLogData.FIELD_API_CODE);
     }
 
     public static String getApiDesc() {
-        return get() == null ? null: (String) get().get(ApiLogData.FIELD_API_DESC);
+        return getApiDesc(get());
+    }
+
+    public static String getApiDesc(Map<String, Object> setup) {
+        return setup == null ? null: (String) setup.get(ApiLogData.FIELD_API_DESC);
     }
 
     public static Integer getBodyMaxLength() {
-        return get() == null ? null: (Integer) get().get(FIELD_BODY_MAX_LENGTH);
+        return getBodyMaxLength(get());
+    }
+
+    public static Integer getBodyMaxLength(Map<String, Object> setup) {
+        return setup == null ? null: (Integer) setup.get(FIELD_BODY_MAX_LENGTH);
     }
 
     public static Charset getRequestBodyEncoding() {
-        return get() == null ? null: (Charset) get().get(FIELD_REQUEST_ENCODING);
+        return getRequestBodyEncoding(get());
+    }
+
+    public static Charset getRequestBodyEncoding(Map<String, Object> setup) {
+        return setup == null ? null: (Charset) setup.get(FIELD_REQUEST_ENCODING);
     }
 
     public static Charset getResponseBodyEncoding() {
-        return get() == null ? null: (Charset) get().get(FIELD_ENCODING);
+        return getResponseBodyEncoding(get());
+    }
+
+    public static Charset getResponseBodyEncoding(Map<String, Object> setup) {
+        return setup == null ? null: (Charset) setup.get(FIELD_ENCODING);
     }
 
     public static Boolean getFileUpload() {
-        return get() == null ? null: (Boolean) get().get(FIELD_FILE_UPLOAD);
+        return getFileUpload(get());
+    }
+
+    public static Boolean getFileUpload(Map<String, Object> setup) {
+        return setup == null ? null: (Boolean) setup.get(FIELD_FILE_UPLOAD);
     }
 
     public static Boolean getFileDownload() {
-        return get() == null ? null: (Boolean) get().get(FIELD_FILE_DOWNLOAD);
+        return getFileDownload(get());
+    }
+
+    public static Boolean getFileDownload(Map<String, Object> setup) {
+        return setup == null ? null: (Boolean) setup.get(FIELD_FILE_DOWNLOAD);
     }
 
     public static Class<? extends IApiLogDataHandler> getHandler() {
-        return get() == null ? null: (Class<? extends IApiLogDataHandler>) get().get(FIELD_HANDLER);
+        return getHandler(get());
+    }
+
+    public static Class<? extends IApiLogDataHandler> getHandler(Map<String, Object> setup) {
+        return setup == null ? null: (Class<? extends IApiLogDataHandler>) setup.get(FIELD_HANDLER);
     }
 
     public static Map<String, Object> getContext() {
-        return get() == null ? null: (Map<String, Object>) get().get(FIELD_CONTEXT);
+        return getContext(get());
+    }
+
+    public static Map<String, Object> getContext(Map<String, Object> setup) {
+        return setup == null ? null: (Map<String, Object>) setup.get(FIELD_CONTEXT);
+    }
+
+    public static String getCircuitState() {
+        return getCircuitState(get());
+    }
+
+    public static String getCircuitState(Map<String, Object> setup) {
+        return setup == null ? null: (String) setup.get(FIELD_CIRCUIT_STATE);
+    }
+
+    public static Integer getAttempt() {
+        return getAttempt(get());
+    }
+
+    public static Integer getAttempt(Map<String, Object> setup) {
+        return setup == null ? null: (Integer) setup.get(FIELD_ATTEMPT);
+    }
+
+    public static Boolean getRetryable() {
+        return getRetryable(get());
+    }
+
+    public static Boolean getRetryable(Map<String, Object> setup) {
+        return setup == null ? null: (Boolean) setup.get(FIELD_RETRYABLE);
+    }
+
+    public static Integer getConnectTimeout() {
+        return getConnectTimeout(get());
+    }
+
+    public static Integer getConnectTimeout(Map<String, Object> setup) {
+        return setup == null ? null: (Integer) setup.get(FIELD_CONNECT_TIMEOUT);
+    }
+
+    public static Integer getReadTimeout() {
+        return getReadTimeout(get());
+    }
+
+    public static Integer getReadTimeout(Map<String, Object> setup) {
+        return setup == null ? null: (Integer) setup.get(FIELD_READ_TIMEOUT);
+    }
+
+    public static Integer getWriteTimeout() {
+        return getWriteTimeout(get());
+    }
+
+    public static Integer getWriteTimeout(Map<String, Object> setup) {
+        return setup == null ? null: (Integer) setup.get(FIELD_WRITE_TIMEOUT);
     }
 
     public static ApiLogSetupHelper.ApiLogSetupBuilder builder() {
@@ -114,6 +223,50 @@ public class ApiLogSetupHelper extends ApiLogSetupMethod {
             return this;
         }
 
+        /**
+         * 标记本次调用是否可以重试，未标记时只有幂等方法可以重试
+         *
+         * @param retryable 是否可以重试
+         * @return 构建器
+         */
+        public ApiLogSetupHelper.ApiLogSetupBuilder retryable(Boolean retryable) {
+            this.apiInfo.put(FIELD_RETRYABLE, retryable);
+            return this;
+        }
+
+        /**
+         * 本次调用的连接超时时间，单位ms，优先于配置，仅dcRestTemplate（OkHttp）生效
+         *
+         * @param connectTimeout 连接超时时间
+         * @return 构建器
+         */
+        public ApiLogSetupHelper.ApiLogSetupBuilder connectTimeout(Integer connectTimeout) {
+            this.apiInfo.put(FIELD_CONNECT_TIMEOUT, connectTimeout);
+            return this;
+        }
+
+        /**
+         * 本次调用的读超时时间，单位ms，优先于配置及自适应超时，仅dcRestTemplate（OkHttp）生效
+         *
+         * @param readTimeout 读超时时间
+         * @return 构建器
+         */
+        public ApiLogSetupHelper.ApiLogSetupBuilder readTimeout(Integer readTimeout) {
+            this.apiInfo.put(FIELD_READ_TIMEOUT, readTimeout);
+            return this;
+        }
+
+        /**
+         * 本次调用的写超时时间，单位ms，优先于配置，仅dcRestTemplate（OkHttp）生效
+         *
+         * @param writeTimeout 写超时时间
+         * @return 构建器
+         */
+        public ApiLogSetupHelper.ApiLogSetupBuilder writeTimeout(Integer writeTimeout) {
+            this.apiInfo.put(FIELD_WRITE_TIMEOUT, writeTimeout);
+            return this;
+        }
+
         public ApiLogSetupHelper.ApiLogSetupBuilder handler(Class<? extends IApiLogDataHandler> handler) {
             this.apiInfo.put(FIELD_HANDLER, handler);
             return this;
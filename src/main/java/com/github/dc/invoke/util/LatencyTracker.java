@@ -0,0 +1,83 @@
+package com.github.dc.invoke.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ *     按key（接口代码或地址）记录最近若干次调用的耗时，用于计算对冲请求的等待时间及自适应超时。
+ *     每个key一个固定大小的环形数组，写入无锁，计算百分位时复制后排序
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:00
+ */
+public class LatencyTracker {
+    private final int capacity;
+    private final ConcurrentMap<String, Samples> samples = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity 每个key保留的最近样本数
+     */
+    public LatencyTracker(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 记录一次调用耗时
+     *
+     * @param key    key
+     * @param millis 耗时，单位ms
+     */
+    public void record(String key, long millis) {
+        samples.computeIfAbsent(key, k -> new Samples(capacity)).add(millis);
+    }
+
+    /**
+     * 计算百分位耗时
+     *
+     * @param key        key
+     * @param percentile 百分位（1~100）
+     * @param minSamples 最少样本数
+     * @return 百分位耗时，单位ms，样本不足时返回-1
+     */
+    public long percentile(String key, int percentile, int minSamples) {
+        Samples keySamples = samples.get(key);
+        if (keySamples == null) {
+            return -1;
+        }
+        long[] values = keySamples.snapshot();
+        if (values.length == 0 || values.length < minSamples) {
+            return -1;
+        }
+        Arrays.sort(values);
+        int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+        return values[Math.max(0, Math.min(index, values.length - 1))];
+    }
+
+    private static final class Samples {
+        private final AtomicLongArray values;
+        private final AtomicLong count = new AtomicLong();
+
+        private Samples(int capacity) {
+            this.values = new AtomicLongArray(capacity);
+        }
+
+        private void add(long millis) {
+            long index = count.getAndIncrement();
+            values.set((int) (index % values.length()), millis);
+        }
+
+        private long[] snapshot() {
+            int size = (int) Math.min(count.get(), values.length());
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) {
+                copy[i] = values.get(i);
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.dc.invoke.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ *     相同key的并发调用合并：某个key的调用进行中时，后到的相同调用不再执行，等待并共享进行中调用的结果（含异常）；
+ *     调用结束后移除，之后的调用重新执行。不缓存结果
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:00
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder collapsedCount = new LongAdder();
+
+    /**
+     * 同步执行，相同key的调用进行中时阻塞等待其结果
+     *
+     * @param key      调用key
+     * @param callable 调用
+     * @return 调用结果
+     * @throws Exception 调用抛出的异常，合并的调用抛出同一异常
+     */
+    public V execute(K key, Callable<V> callable) throws Exception {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            collapsedCount.increment();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        executedCount.increment();
+        try {
+            V value = callable.call();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 异步执行，相同key的调用进行中时返回其结果
+     *
+     * @param key      调用key
+     * @param supplier 发起异步调用
+     * @return 调用结果，合并的调用共享同一结果，调用方取消返回的future不影响进行中的调用
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> supplier) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            collapsedCount.increment();
+            return existing.thenApply(value -> value);
+        }
+        executedCount.increment();
+        try {
+            supplier.get().whenComplete((value, e) -> {
+                inFlight.remove(key, future);
+                if (e != null) {
+                    future.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                } else {
+                    future.complete(value);
+                }
+            });
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future.thenApply(value -> value);
+    }
+
+    /**
+     * @return 实际执行的调用数
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * @return 被合并（未实际执行，等待进行中调用结果）的调用数
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.sum();
+    }
+
+    /**
+     * @return 当前进行中的调用数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
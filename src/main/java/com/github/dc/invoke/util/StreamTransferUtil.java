@@ -0,0 +1,105 @@
+package com.github.dc.invoke.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ *     流转存工具，把输入流直接写入输出流、通道或文件，不在内存中缓存完整内容。
+ *     目标为文件时使用FileChannel.transferFrom，其他通道按块读入堆缓冲区后写入
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 15:30
+ */
+@UtilityClass
+public class StreamTransferUtil {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 单次transferFrom的最大字节数
+     */
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    /**
+     * 输入流写入文件，文件已存在时覆盖
+     *
+     * @param in   输入流
+     * @param path 文件路径
+     * @return 写入字节数
+     * @throws IOException 读写异常
+     */
+    public static long transfer(InputStream in, Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transfer(in, fileChannel);
+        }
+    }
+
+    /**
+     * 输入流写入输出流，输出流为FileOutputStream时走文件通道
+     *
+     * @param in 输入流
+     * @param os 输出流，不关闭
+     * @return 写入字节数
+     * @throws IOException 读写异常
+     */
+    public static long transfer(InputStream in, OutputStream os) throws IOException {
+        if (os instanceof FileOutputStream) {
+            return transfer(in, ((FileOutputStream) os).getChannel());
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            os.write(buffer, 0, n);
+            total += n;
+        }
+        os.flush();
+        return total;
+    }
+
+    /**
+     * 输入流写入通道，通道为FileChannel时从当前位置开始写入
+     *
+     * @param in      输入流
+     * @param channel 通道，不关闭
+     * @return 写入字节数
+     * @throws IOException 读写异常
+     */
+    public static long transfer(InputStream in, WritableByteChannel channel) throws IOException {
+        if (channel instanceof FileChannel) {
+            ReadableByteChannel source = Channels.newChannel(in);
+            FileChannel fileChannel = (FileChannel) channel;
+            long start = fileChannel.position();
+            long position = start;
+            long transferred;
+            // 阻塞的流通道只在读到末尾时返回0
+            while ((transferred = fileChannel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            fileChannel.position(position);
+            return position - start;
+        }
+        // 源是InputStream，数据总要先读入byte[]，直接缓冲区只会多一次复制且每次调用都分配堆外内存
+        byte[] bytes = new byte[BUFFER_SIZE];
+        long total = 0;
+        int n;
+        while ((n = in.read(bytes)) != -1) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, n);
+            while (buffer.hasRemaining()) {
+                total += channel.write(buffer);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.dc.invoke.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>
+ *     虚拟线程支持。Java 8基线版本不支持虚拟线程；
+ *     Java 21及以上运行时由多版本jar中META-INF/versions/21下的同名类替换（源码见src/main/java21）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:30
+ */
+@UtilityClass
+public class VirtualThreads {
+
+    /**
+     * @return 当前运行时是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的线程池
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程池
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("虚拟线程需要Java 21及以上");
+    }
+}
@@ -1,6 +1,6 @@
 package com.github.dc.invoke.wrapper;
 
-import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -8,22 +8,50 @@ import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
- * 同时在jar包运行时加上字符编码指定为UTF-8：-Dfile.encoding=UTF-8
+ * <p>
+ *     可重复读取body的请求。body按原始字节保存，根据Content-Length预分配缓冲区，超过spillThreshold时写入临时文件，
+ *     内存中只保留前spillThreshold字节；只在需要时才解码为字符串。
+ *     写入临时文件时使用完需调用{@link #close()}删除临时文件
+ * </p>
+ * 未指定请求字符编码时按UTF-8解码
  *
  * @author PeiYuan
  */
-@Getter
-public class ReuseHttpServletRequest extends HttpServletRequestWrapper {
-    private final String body;
+@Slf4j
+public class ReuseHttpServletRequest extends HttpServletRequestWrapper implements Closeable {
+    /**
+     * 默认内存中最多保存的body字节数，1MB
+     */
+    public static final int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final String TEMP_FILE_PREFIX = "dc-invoke-body-";
+
+    private final Charset charset;
+    /**
+     * 内存中的body，写入临时文件时为前spillThreshold字节
+     */
+    private final byte[] head;
+    private final int headLength;
+    private final long size;
+    private final Path spillFile;
+    private volatile String body;
 
     /**
      * Constructs a request object wrapping the given request.
@@ -32,63 +60,289 @@ public class ReuseHttpServletRequest extends HttpServletRequestWrapper {
      * @throws IllegalArgumentException if the request is null
      */
     public ReuseHttpServletRequest(HttpServletRequest request) throws IOException {
-        super(request);
-        body = getBodyString(request);
+        this(request, DEFAULT_SPILL_THRESHOLD, null);
     }
 
-    protected String getBodyString(final HttpServletRequest request) throws IOException {
+    /**
+     * @param request        The request to wrap
+     * @param spillThreshold 内存中最多保存的body字节数，超过时写入临时文件
+     * @param tempDirectory  临时文件目录，为空时使用java.io.tmpdir
+     * @throws IOException 读取body或写入临时文件异常
+     */
+    public ReuseHttpServletRequest(HttpServletRequest request, int spillThreshold, String tempDirectory) throws IOException {
+        super(request);
+        this.charset = request.getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
         String contentType = request.getContentType();
-        String bodyString = "";
-        StringBuilder sb = new StringBuilder();
         if (StringUtils.isNotBlank(contentType) && (contentType.contains("multipart/form-data") || contentType.contains("x-www-form-urlencoded"))) {
-            Map<String, String[]> parameterMap = request.getParameterMap();
-            for (Map.Entry<String, String[]> next : parameterMap.entrySet()) {
-                String[] values = next.getValue();
-                String value = null;
-                if (values != null) {
-                    if (values.length == 1) {
-                        value = values[0];
-                    } else {
-                        value = Arrays.toString(values);
-                    }
+            // 表单参数已由容器解析，body为参数拼接的字符串
+            this.body = getFormString(request);
+            this.head = body.getBytes(charset);
+            this.headLength = head.length;
+            this.size = head.length;
+            this.spillFile = null;
+            return;
+        }
+
+        int threshold = Math.max(1, spillThreshold);
+        long contentLength = request.getContentLengthLong();
+        byte[] buffer = new byte[contentLength >= 0 && contentLength <= threshold ? (int) contentLength : Math.min(INITIAL_BUFFER_SIZE, threshold)];
+        int length = 0;
+        Path file = null;
+        InputStream in = request.getInputStream();
+        while (true) {
+            if (length == buffer.length) {
+                // 缓冲区已满，Content-Length准确时读到结束标记即完成，不再扩容
+                int next = in.read();
+                if (next == -1) {
+                    break;
+                }
+                if (length >= threshold) {
+                    file = spill(in, buffer, length, next, tempDirectory);
+                    break;
                 }
-                sb.append(next.getKey()).append("=").append(value).append("&");
+                buffer = Arrays.copyOf(buffer, (int) Math.min(threshold, Math.max(INITIAL_BUFFER_SIZE, (long) buffer.length * 2)));
+                buffer[length++] = (byte) next;
+                continue;
             }
-            if (sb.length() > 0) {
-                bodyString = sb.toString().substring(0, sb.toString().length() - 1);
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
             }
-            return bodyString;
-        } else {
-            return new String(IOUtils.toByteArray(request.getInputStream()), StandardCharsets.UTF_8);
+            length += read;
         }
+        this.head = buffer;
+        this.headLength = length;
+        this.size = file == null ? length : Files.size(file);
+        this.spillFile = file;
+    }
+
+    /**
+     * 完整body的字符串，写入临时文件时从文件读取，首次调用时解码
+     *
+     * @return body
+     * @throws IllegalStateException 读取临时文件异常
+     */
+    public String getBody() {
+        String decoded = body;
+        if (decoded == null) {
+            try {
+                decoded = spillFile == null ? new String(head, 0, headLength, charset) : new String(Files.readAllBytes(spillFile), charset);
+            } catch (IOException e) {
+                throw new IllegalStateException("读取请求body临时文件异常：" + spillFile, e);
+            }
+            body = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * 延迟解码的body，用于日志记录：未写入临时文件时为完整body；写入临时文件时只解码内存中的前spillThreshold字节，
+     * 调用{@link #close()}后仍可使用
+     *
+     * @return 调用时才解码的body
+     */
+    public Supplier<String> getBodySupplier() {
+        if (body != null) {
+            String decoded = body;
+            return () -> decoded;
+        }
+        byte[] bytes = head;
+        int length = headLength;
+        Charset bodyCharset = charset;
+        if (spillFile == null) {
+            return () -> new String(bytes, 0, length, bodyCharset);
+        }
+        long total = size;
+        return () -> new String(bytes, 0, length, bodyCharset) + "...(共" + total + "字节，只记录前" + length + "字节)";
+    }
+
+    /**
+     * @return body字节数
+     */
+    public long getBodySize() {
+        return size;
+    }
+
+    /**
+     * @return body是否已写入临时文件
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
-        ServletInputStream servletInputStream = new ServletInputStream() {
-            @Override
-            public boolean isFinished() {
-                return false;
-            }
-            @Override
-            public boolean isReady() {
-                return false;
-            }
-            @Override
-            public void setReadListener(ReadListener readListener) {
-            }
-            @Override
-            public int read() throws IOException {
-                return byteArrayInputStream.read();
-            }
-        };
-        return servletInputStream;
+        if (spillFile == null) {
+            return new BodyInputStream(new FastByteArrayInputStream(head, headLength), headLength);
+        }
+        return new BodyInputStream(new BufferedInputStream(Files.newInputStream(spillFile), INITIAL_BUFFER_SIZE * 2), size);
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
-        return new BufferedReader(new InputStreamReader(this.getInputStream()));
+        return new BufferedReader(new InputStreamReader(this.getInputStream(), charset));
+    }
+
+    /**
+     * 删除临时文件
+     */
+    @Override
+    public void close() {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            log.warn("删除请求body临时文件失败：{}", spillFile, e);
+        }
     }
 
+    private static Path spill(InputStream in, byte[] head, int length, int next, String tempDirectory) throws IOException {
+        Path file = StringUtils.isBlank(tempDirectory) ? Files.createTempFile(TEMP_FILE_PREFIX, ".tmp")
+                : Files.createTempFile(Files.createDirectories(Paths.get(tempDirectory)), TEMP_FILE_PREFIX, ".tmp");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(head, 0, length);
+            out.write(next);
+            IOUtils.copyLarge(in, out, new byte[INITIAL_BUFFER_SIZE * 2]);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private static String getFormString(HttpServletRequest request) {
+        StringBuilder sb = new StringBuilder();
+        Map<String, String[]> parameterMap = request.getParameterMap();
+        for (Map.Entry<String, String[]> next : parameterMap.entrySet()) {
+            String[] values = next.getValue();
+            String value = null;
+            if (values != null) {
+                if (values.length == 1) {
+                    value = values[0];
+                } else {
+                    value = Arrays.toString(values);
+                }
+            }
+            sb.append(next.getKey()).append("=").append(value).append("&");
+        }
+        if (sb.length() > 0) {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 不加锁的字节数组输入流
+     */
+    private static final class FastByteArrayInputStream extends InputStream {
+        private final byte[] bytes;
+        private final int length;
+        private int position;
+
+        private FastByteArrayInputStream(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            return position < length ? bytes[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int n = Math.min(len, length - position);
+            System.arraycopy(bytes, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            position += (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return length - position;
+        }
+    }
+
+    /**
+     * body已全部读取，读取不会阻塞：isReady始终为true，设置ReadListener时立即通知可读，读完后通知读取完毕
+     */
+    private static final class BodyInputStream extends ServletInputStream {
+        private final InputStream in;
+        private long remaining;
+
+        private BodyInputStream(InputStream in, long size) {
+            this.in = in;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return remaining <= 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                if (!this.isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (this.isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            remaining = b == -1 ? 0 : remaining - 1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            remaining = n == -1 ? 0 : remaining - n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.github.dc.invoke.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ *     虚拟线程支持，Java 21及以上版本
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:30
+ */
+@UtilityClass
+public class VirtualThreads {
+
+    /**
+     * @return 当前运行时是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的线程池
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程池
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+}
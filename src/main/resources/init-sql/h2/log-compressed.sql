@@ -0,0 +1,4 @@
+-- 开启api-log.compression时在log.sql基础上增加的字段，压缩后的body写入BLOB字段，未达到压缩阈值的仍写入REQUEST_BODY、RESPONSE_CONTENT
+alter table DC_API_LOG add column REQUEST_BODY_COMPRESSED BLOB;
+alter table DC_API_LOG add column RESPONSE_CONTENT_COMPRESSED BLOB;
+alter table DC_API_LOG add column BODY_CODEC VARCHAR(30);
@@ -0,0 +1,25 @@
+create table DC_API_LOG
+(
+    ID                   BIGINT auto_increment not null,
+    BUSINESS_KEY         VARCHAR(300),
+    API_CODE             VARCHAR(300),
+    API_DESC             VARCHAR(300),
+    URL                  VARCHAR(500),
+    METHOD               VARCHAR(300),
+    IP                   VARCHAR(300),
+    REQUEST_HEADERS      CLOB,
+    REQUEST_QUERY        CLOB,
+    REQUEST_BODY         CLOB,
+    IS_SUCCESS           SMALLINT,
+    RESPONSE_CONTENT     CLOB,
+    EXCEPTION_STACK      CLOB,
+    CONSUME_TIME         BIGINT,
+    IS_INNER             SMALLINT,
+    REQUEST_CONTENT_TYPE VARCHAR(300),
+    REQUEST_DATE         TIMESTAMP,
+    RESPONSE_CODE        VARCHAR(300),
+    RESPONSE_HEADERS     CLOB,
+    constraint DC_API_LOG_PK primary key (ID)
+);
+
+comment on table DC_API_LOG is '系统统一接口日志';
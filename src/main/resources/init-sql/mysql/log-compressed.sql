@@ -0,0 +1,5 @@
+-- 开启api-log.compression时在log.sql（或log-partition.sql）基础上增加的字段，压缩后的body写入BLOB字段，未达到压缩阈值的仍写入REQUEST_BODY、RESPONSE_CONTENT
+alter table DC_API_LOG
+    add column REQUEST_BODY_COMPRESSED     LONGBLOB comment '压缩后的请求参数Body部分，有值时REQUEST_BODY为空',
+    add column RESPONSE_CONTENT_COMPRESSED LONGBLOB comment '压缩后的返回内容，有值时RESPONSE_CONTENT为空',
+    add column BODY_CODEC                  VARCHAR(30) comment '压缩算法：gzip、deflate或自定义算法名称';
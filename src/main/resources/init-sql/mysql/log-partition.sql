@@ -0,0 +1,28 @@
+-- 按REQUEST_DATE月分区的DC_API_LOG，分区表主键需包含分区键，新月份分区需定期追加（REORGANIZE PARTITION P_MAX）
+create table DC_API_LOG
+(
+    ID                   BIGINT       not null auto_increment comment '主键',
+    BUSINESS_KEY         VARCHAR(300) comment '业务主键',
+    API_CODE             VARCHAR(300) comment '接口代码',
+    API_DESC             VARCHAR(300) comment '接口描述',
+    URL                  VARCHAR(500) comment '请求地址',
+    METHOD               VARCHAR(300) comment '请求方法',
+    IP                   VARCHAR(300) comment '请求者IP地址',
+    REQUEST_HEADERS      LONGTEXT comment '请求头部信息',
+    REQUEST_QUERY        LONGTEXT comment '请求参数Query部分',
+    REQUEST_BODY         LONGTEXT comment '请求参数Body部分',
+    IS_SUCCESS           TINYINT(1) comment '是否成功',
+    RESPONSE_CONTENT     LONGTEXT comment '返回内容',
+    EXCEPTION_STACK      LONGTEXT comment '异常堆栈信息',
+    CONSUME_TIME         BIGINT comment '耗时',
+    IS_INNER             TINYINT(1) comment '是否系统内部接口，系统内部接口：true，外部接口：false',
+    REQUEST_CONTENT_TYPE VARCHAR(300) comment '请求的ContentType',
+    REQUEST_DATE         DATETIME     not null comment '请求时间',
+    RESPONSE_CODE        VARCHAR(300) comment '请求外部接口的返回状态码，当IS_INNER字段为false时有值',
+    RESPONSE_HEADERS     LONGTEXT comment '请求外部接口的返回头，当IS_INNER字段为false时有值',
+    constraint DC_API_LOG_PK primary key (ID, REQUEST_DATE)
+) comment '系统统一接口日志'
+    partition by range columns (REQUEST_DATE) (
+        partition P_INIT values less than ('2026-01-01'),
+        partition P_MAX values less than (maxvalue)
+    );
@@ -0,0 +1,17 @@
+-- 开启api-log.compression时在log.sql（或log-partition.sql）基础上增加的字段，压缩后的body写入BLOB字段，未达到压缩阈值的仍写入REQUEST_BODY、RESPONSE_CONTENT
+alter table DC_API_LOG add
+(
+    REQUEST_BODY_COMPRESSED     BLOB,
+    RESPONSE_CONTENT_COMPRESSED BLOB,
+    BODY_CODEC                  VARCHAR2(30)
+)
+/
+
+comment on column DC_API_LOG.REQUEST_BODY_COMPRESSED is '压缩后的请求参数Body部分，有值时REQUEST_BODY为空'
+/
+
+comment on column DC_API_LOG.RESPONSE_CONTENT_COMPRESSED is '压缩后的返回内容，有值时RESPONSE_CONTENT为空'
+/
+
+comment on column DC_API_LOG.BODY_CODEC is '压缩算法：gzip、deflate或自定义算法名称'
+/
@@ -0,0 +1,33 @@
+-- 按REQUEST_DATE月分区的DC_API_LOG，字段与log.sql一致，注释见log.sql
+create table DC_API_LOG
+(
+    ID                   NUMBER(22) not null
+        constraint DC_API_LOG_PK
+        primary key,
+    BUSINESS_KEY VARCHAR2(300),
+    API_CODE             VARCHAR2(300),
+    API_DESC             VARCHAR2(300),
+    URL                  VARCHAR2(500),
+    METHOD               VARCHAR2(300),
+    IP                   VARCHAR2(300),
+    REQUEST_HEADERS      CLOB,
+    REQUEST_QUERY        CLOB,
+    REQUEST_BODY         CLOB,
+    IS_SUCCESS           NUMBER(1),
+    RESPONSE_CONTENT     CLOB,
+    EXCEPTION_STACK      CLOB,
+    CONSUME_TIME         NUMBER(22),
+    IS_INNER             NUMBER(1),
+    REQUEST_CONTENT_TYPE VARCHAR2(300),
+    REQUEST_DATE         DATE not null,
+    RESPONSE_CODE        VARCHAR2(300),
+    RESPONSE_HEADERS      CLOB
+)
+    partition by range (REQUEST_DATE) interval (numtoyminterval(1, 'MONTH'))
+(
+    partition P_INIT values less than (date '2020-01-01')
+)
+    /
+
+comment on table DC_API_LOG is '系统统一接口日志'
+/
@@ -0,0 +1,5 @@
+create sequence DC_API_LOG_S
+    start with 1
+    increment by 1
+    cache 1000
+/
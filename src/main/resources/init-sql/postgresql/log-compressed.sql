@@ -0,0 +1,12 @@
+-- 开启api-log.compression时在log.sql（或log-partition.sql）基础上增加的字段，压缩后的body写入BYTEA字段，未达到压缩阈值的仍写入REQUEST_BODY、RESPONSE_CONTENT
+-- 压缩后的内容已无法再被TOAST压缩，关闭这两列的TOAST压缩避免无效的压缩尝试
+alter table DC_API_LOG
+    add column REQUEST_BODY_COMPRESSED     BYTEA,
+    add column RESPONSE_CONTENT_COMPRESSED BYTEA,
+    add column BODY_CODEC                  VARCHAR(30);
+alter table DC_API_LOG alter column REQUEST_BODY_COMPRESSED set storage external;
+alter table DC_API_LOG alter column RESPONSE_CONTENT_COMPRESSED set storage external;
+
+comment on column DC_API_LOG.REQUEST_BODY_COMPRESSED is '压缩后的请求参数Body部分，有值时REQUEST_BODY为空';
+comment on column DC_API_LOG.RESPONSE_CONTENT_COMPRESSED is '压缩后的返回内容，有值时RESPONSE_CONTENT为空';
+comment on column DC_API_LOG.BODY_CODEC is '压缩算法：gzip、deflate或自定义算法名称';
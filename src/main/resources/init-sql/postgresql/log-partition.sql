@@ -0,0 +1,32 @@
+-- 按REQUEST_DATE月分区的DC_API_LOG，分区表主键需包含分区键，新月份分区需定期创建，字段注释见log.sql
+create table DC_API_LOG
+(
+    ID                   BIGSERIAL not null,
+    BUSINESS_KEY         VARCHAR(300),
+    API_CODE             VARCHAR(300),
+    API_DESC             VARCHAR(300),
+    URL                  VARCHAR(500),
+    METHOD               VARCHAR(300),
+    IP                   VARCHAR(300),
+    REQUEST_HEADERS      TEXT,
+    REQUEST_QUERY        TEXT,
+    REQUEST_BODY         TEXT,
+    IS_SUCCESS           SMALLINT,
+    RESPONSE_CONTENT     TEXT,
+    EXCEPTION_STACK      TEXT,
+    CONSUME_TIME         BIGINT,
+    IS_INNER             SMALLINT,
+    REQUEST_CONTENT_TYPE VARCHAR(300),
+    REQUEST_DATE         TIMESTAMP not null,
+    RESPONSE_CODE        VARCHAR(300),
+    RESPONSE_HEADERS     TEXT,
+    constraint DC_API_LOG_PK primary key (ID, REQUEST_DATE)
+) partition by range (REQUEST_DATE);
+
+create table DC_API_LOG_DEFAULT partition of DC_API_LOG default;
+
+-- 示例：2026年10月分区
+create table DC_API_LOG_202610 partition of DC_API_LOG
+    for values from ('2026-10-01') to ('2026-11-01');
+
+comment on table DC_API_LOG is '系统统一接口日志';
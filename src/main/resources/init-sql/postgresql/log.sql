@@ -0,0 +1,44 @@
+create table DC_API_LOG
+(
+    ID                   BIGSERIAL not null
+        constraint DC_API_LOG_PK
+            primary key,
+    BUSINESS_KEY         VARCHAR(300),
+    API_CODE             VARCHAR(300),
+    API_DESC             VARCHAR(300),
+    URL                  VARCHAR(500),
+    METHOD               VARCHAR(300),
+    IP                   VARCHAR(300),
+    REQUEST_HEADERS      TEXT,
+    REQUEST_QUERY        TEXT,
+    REQUEST_BODY         TEXT,
+    IS_SUCCESS           SMALLINT,
+    RESPONSE_CONTENT     TEXT,
+    EXCEPTION_STACK      TEXT,
+    CONSUME_TIME         BIGINT,
+    IS_INNER             SMALLINT,
+    REQUEST_CONTENT_TYPE VARCHAR(300),
+    REQUEST_DATE         TIMESTAMP,
+    RESPONSE_CODE        VARCHAR(300),
+    RESPONSE_HEADERS     TEXT
+);
+
+comment on table DC_API_LOG is '系统统一接口日志';
+comment on column DC_API_LOG.BUSINESS_KEY is '业务主键';
+comment on column DC_API_LOG.API_CODE is '接口代码';
+comment on column DC_API_LOG.API_DESC is '接口描述';
+comment on column DC_API_LOG.URL is '请求地址';
+comment on column DC_API_LOG.METHOD is '请求方法';
+comment on column DC_API_LOG.IP is '请求者IP地址';
+comment on column DC_API_LOG.REQUEST_HEADERS is '请求头部信息';
+comment on column DC_API_LOG.REQUEST_QUERY is '请求参数Query部分';
+comment on column DC_API_LOG.REQUEST_BODY is '请求参数Body部分';
+comment on column DC_API_LOG.IS_SUCCESS is '是否成功';
+comment on column DC_API_LOG.RESPONSE_CONTENT is '返回内容';
+comment on column DC_API_LOG.EXCEPTION_STACK is '异常堆栈信息';
+comment on column DC_API_LOG.CONSUME_TIME is '耗时';
+comment on column DC_API_LOG.IS_INNER is '是否系统内部接口，系统内部接口：true，外部接口：false';
+comment on column DC_API_LOG.REQUEST_CONTENT_TYPE is '请求的ContentType';
+comment on column DC_API_LOG.REQUEST_DATE is '请求时间';
+comment on column DC_API_LOG.RESPONSE_CODE is '请求外部接口的返回状态码，当IS_INNER字段为false时有值';
+comment on column DC_API_LOG.RESPONSE_HEADERS is '请求外部接口的返回头，当IS_INNER字段为false时有值';
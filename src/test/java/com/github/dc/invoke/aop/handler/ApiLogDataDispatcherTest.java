@@ -0,0 +1,93 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.compress.ApiLogBodyCompressor;
+import com.github.dc.invoke.compress.BodyCodec;
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * <p>
+ *     接口日志投递器测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 18:00
+ */
+class ApiLogDataDispatcherTest {
+
+    @Test
+    void deliversEverythingWhenStoppingUnderLoad() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            ApiLogProperty property = new ApiLogProperty();
+            property.getAsync().setEnabled(true);
+            property.getAsync().setBufferSize(16);
+            property.getAsync().setIdleWaitMillis(1);
+            ApiLogDataDispatcher dispatcher = new ApiLogDataDispatcher(property, this.compressor(property));
+            CountingHandler handler = new CountingHandler();
+            dispatcher.start();
+
+            // 生产者在stop()前后持续投递，关闭后才写入缓冲区的日志也必须被处理
+            AtomicBoolean producing = new AtomicBoolean(true);
+            LongAdder dispatched = new LongAdder();
+            List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread producer = new Thread(() -> {
+                    while (producing.get()) {
+                        dispatcher.dispatch(handler, ApiLogData.builder().apiCode("race").build());
+                        dispatched.increment();
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+            dispatcher.stop();
+            TimeUnit.MILLISECONDS.sleep(5);
+            producing.set(false);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertFalse(dispatcher.isRunning());
+            assertEquals(0, dispatcher.getPendingCount(), "round " + round);
+            assertEquals(dispatched.sum(), handler.handled.sum(), "round " + round);
+        }
+    }
+
+    @Test
+    void handlesInlineWhenNotStarted() {
+        ApiLogProperty property = new ApiLogProperty();
+        property.getAsync().setEnabled(true);
+        ApiLogDataDispatcher dispatcher = new ApiLogDataDispatcher(property, this.compressor(property));
+        CountingHandler handler = new CountingHandler();
+
+        dispatcher.dispatch(handler, ApiLogData.builder().apiCode("inline").build());
+
+        assertEquals(1, handler.handled.sum());
+        assertEquals(0, dispatcher.getPublishedCount());
+    }
+
+    private ApiLogBodyCompressor compressor(ApiLogProperty property) {
+        return new ApiLogBodyCompressor(property, new StaticListableBeanFactory().getBeanProvider(BodyCodec.class));
+    }
+
+    private static class CountingHandler implements IApiLogDataHandler {
+        private final LongAdder handled = new LongAdder();
+
+        @Override
+        public void handle(ApiLogData apiLogData) {
+            handled.increment();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.dc.invoke.aop.handler;
+
+import com.github.dc.invoke.config.ApiLogProperty;
+import com.github.dc.invoke.pojo.ApiLogData;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     JDBC批量落库日志处理器测试，基于内嵌H2及init-sql/h2下的建表脚本
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 19:00
+ */
+class JdbcApiLogDataHandlerTest {
+    private JdbcDataSource dataSource;
+    private ApiLogProperty.Jdbc jdbcProperty;
+    private final List<JdbcApiLogDataHandler> handlers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        this.execute("init-sql/h2/log.sql");
+        jdbcProperty = new ApiLogProperty.Jdbc();
+        // 默认不按时间刷新，需要时单独设置
+        jdbcProperty.setFlushIntervalMillis(TimeUnit.HOURS.toMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        handlers.forEach(JdbcApiLogDataHandler::destroy);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void handleBatchSplitsIntoJdbcBatches() throws SQLException {
+        jdbcProperty.setBatchSize(3);
+        JdbcApiLogDataHandler handler = this.handler(false);
+
+        handler.handleBatch(Arrays.asList(this.apiLogData("a"), this.apiLogData("b"), this.apiLogData("c"),
+                this.apiLogData("d"), this.apiLogData("e"), this.apiLogData("f"), this.apiLogData("g")));
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), this.apiCodes());
+        assertEquals(7, handler.getInsertedRows());
+        assertEquals(0, handler.getFailedRows());
+        assertTrue(handler.getThroughput() > 0);
+    }
+
+    @Test
+    void handleFlushesWhenBatchIsFull() throws SQLException {
+        jdbcProperty.setBatchSize(5);
+        JdbcApiLogDataHandler handler = this.handler(false);
+
+        for (int i = 0; i < 4; i++) {
+            handler.handle(this.apiLogData("api-" + i));
+        }
+        assertEquals(0, this.apiCodes().size());
+
+        handler.handle(this.apiLogData("api-4"));
+        assertEquals(5, this.apiCodes().size());
+        assertEquals(5, handler.getInsertedRows());
+    }
+
+    @Test
+    void handleFlushesOnInterval() throws Exception {
+        jdbcProperty.setBatchSize(100);
+        jdbcProperty.setFlushIntervalMillis(50);
+        JdbcApiLogDataHandler handler = this.handler(false);
+
+        handler.handle(this.apiLogData("a"));
+        handler.handle(this.apiLogData("b"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (this.apiCodes().size() < 2 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertEquals(Arrays.asList("a", "b"), this.apiCodes());
+    }
+
+    @Test
+    void destroyFlushesPendingRows() throws SQLException {
+        JdbcApiLogDataHandler handler = this.handler(false);
+        handler.handle(this.apiLogData("pending"));
+
+        handler.destroy();
+
+        assertEquals(Arrays.asList("pending"), this.apiCodes());
+    }
+
+    @Test
+    void bindsLargeClobValues() throws SQLException {
+        JdbcApiLogDataHandler handler = this.handler(false);
+        String body = StringUtils.repeat("接口日志body-", 20000);
+        ApiLogData apiLogData = this.apiLogData("clob").toBuilder()
+                .requestBody(body)
+                .responseContent("{\"ok\":true}")
+                .exceptionStack("java.lang.IllegalStateException")
+                .build();
+
+        handler.handleBatch(Arrays.asList(apiLogData));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select REQUEST_BODY, RESPONSE_CONTENT, EXCEPTION_STACK from DC_API_LOG")) {
+            assertTrue(rs.next());
+            assertEquals(body, rs.getString(1));
+            assertEquals("{\"ok\":true}", rs.getString(2));
+            assertEquals("java.lang.IllegalStateException", rs.getString(3));
+        }
+    }
+
+    @Test
+    void bindsNullColumns() throws SQLException {
+        JdbcApiLogDataHandler handler = this.handler(false);
+
+        handler.handleBatch(Arrays.asList(ApiLogData.builder().apiCode("nulls").build()));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select BUSINESS_KEY, REQUEST_BODY, IS_SUCCESS, EXCEPTION_STACK, CONSUME_TIME, "
+                     + "REQUEST_DATE, RESPONSE_HEADERS from DC_API_LOG")) {
+            assertTrue(rs.next());
+            for (int i = 1; i <= 7; i++) {
+                assertNull(rs.getObject(i), "column " + i);
+            }
+        }
+    }
+
+    @Test
+    void writesCompressedColumns() throws Exception {
+        this.execute("init-sql/h2/log-compressed.sql");
+        JdbcApiLogDataHandler handler = this.handler(true);
+        byte[] compressed = {31, -117, 8, 0, 1, 2, 3};
+        ApiLogData withBlob = this.apiLogData("compressed").toBuilder()
+                .compressedRequestBody(compressed)
+                .responseContent("short")
+                .bodyCodec("gzip")
+                .build();
+        ApiLogData plain = this.apiLogData("plain").toBuilder().requestBody("plain").build();
+
+        handler.handleBatch(Arrays.asList(withBlob, plain));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select REQUEST_BODY, REQUEST_BODY_COMPRESSED, RESPONSE_CONTENT, "
+                     + "RESPONSE_CONTENT_COMPRESSED, BODY_CODEC from DC_API_LOG order by ID")) {
+            assertTrue(rs.next());
+            assertNull(rs.getString(1));
+            assertArrayEquals(compressed, rs.getBytes(2));
+            assertEquals("short", rs.getString(3));
+            assertNull(rs.getBytes(4));
+            assertEquals("gzip", rs.getString(5));
+            assertTrue(rs.next());
+            assertEquals("plain", rs.getString(1));
+            assertNull(rs.getBytes(2));
+            assertNull(rs.getString(5));
+        }
+    }
+
+    @Test
+    void handleBatchThrowsAndCountsFailedRows() throws SQLException {
+        JdbcApiLogDataHandler handler = this.handler(false);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table DC_API_LOG");
+        }
+
+        assertThrows(IllegalStateException.class, () -> handler.handleBatch(Arrays.asList(this.apiLogData("a"), this.apiLogData("b"))));
+
+        assertEquals(0, handler.getInsertedRows());
+        assertEquals(2, handler.getFailedRows());
+    }
+
+    private JdbcApiLogDataHandler handler(boolean compressed) {
+        JdbcApiLogDataHandler handler = new JdbcApiLogDataHandler(dataSource, jdbcProperty, compressed);
+        handlers.add(handler);
+        return handler;
+    }
+
+    private ApiLogData apiLogData(String apiCode) {
+        return ApiLogData.builder()
+                .businessKey("bk-" + apiCode)
+                .apiCode(apiCode)
+                .apiDesc("测试")
+                .url("http://localhost/" + apiCode)
+                .method("POST")
+                .isSuccess(true)
+                .consumeTime(12L)
+                .isInner(false)
+                .requestDate(new Date())
+                .build();
+    }
+
+    private List<String> apiCodes() throws SQLException {
+        List<String> apiCodes = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select API_CODE from DC_API_LOG order by ID")) {
+            while (rs.next()) {
+                apiCodes.add(rs.getString(1));
+            }
+        }
+        return apiCodes;
+    }
+
+    private void execute(String script) throws Exception {
+        String sql;
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(script)) {
+            sql = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        sql = sql.replaceAll("(?m)^\\s*--.*$", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String statementSql : sql.split(";")) {
+                if (StringUtils.isNotBlank(statementSql)) {
+                    statement.execute(statementSql);
+                }
+            }
+        }
+    }
+}
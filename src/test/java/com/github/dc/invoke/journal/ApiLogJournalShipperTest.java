@@ -0,0 +1,112 @@
+package com.github.dc.invoke.journal;
+
+import com.github.dc.invoke.aop.handler.IApiLogDataHandler;
+import com.github.dc.invoke.pojo.ApiLogData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     接口日志文件转发器测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 18:30
+ */
+class ApiLogJournalShipperTest {
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int RECORDS = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void downstreamFailureKeepsCheckpointAndSegments() throws IOException {
+        ApiLogJournal journal = this.journalWithRecords();
+        List<Long> segments = journal.listSegments();
+        assertTrue(segments.size() > 1);
+        RecordingHandler downstream = new RecordingHandler();
+        downstream.failing = true;
+        ApiLogJournalShipper shipper = new ApiLogJournalShipper(journal, () -> downstream, 16);
+
+        assertThrows(IllegalStateException.class, shipper::ship);
+
+        assertFalse(Files.exists(directory.resolve("checkpoint")));
+        assertEquals(segments, journal.listSegments());
+        assertTrue(downstream.received.isEmpty());
+
+        // 下游恢复后从头重发
+        downstream.failing = false;
+        assertEquals(RECORDS, shipper.ship());
+        assertEquals(RECORDS, downstream.received.size());
+        assertEquals("api-0", downstream.received.get(0));
+        assertEquals("api-" + (RECORDS - 1), downstream.received.get(RECORDS - 1));
+        assertTrue(Files.exists(directory.resolve("checkpoint")));
+        assertEquals(1, journal.listSegments().size());
+    }
+
+    @Test
+    void failureMidwayResumesFromLastCheckpoint() throws IOException {
+        ApiLogJournal journal = this.journalWithRecords();
+        RecordingHandler downstream = new RecordingHandler();
+        downstream.failAfter = 3;
+        ApiLogJournalShipper shipper = new ApiLogJournalShipper(journal, () -> downstream, 16);
+
+        assertThrows(IllegalStateException.class, shipper::ship);
+        assertEquals(48, downstream.received.size());
+
+        // 重启后从检查点继续，不重复已成功的批次
+        downstream.failAfter = -1;
+        ApiLogJournalShipper restarted = new ApiLogJournalShipper(new ApiLogJournal(directory, SEGMENT_SIZE), () -> downstream, 16);
+        assertEquals(RECORDS - 48, restarted.ship());
+        assertEquals(RECORDS, downstream.received.size());
+        for (int i = 0; i < RECORDS; i++) {
+            assertEquals("api-" + i, downstream.received.get(i));
+        }
+    }
+
+    private ApiLogJournal journalWithRecords() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        for (int i = 0; i < RECORDS; i++) {
+            journal.append(ApiLogData.builder()
+                    .apiCode("api-" + i)
+                    .requestBody("{\"index\":" + i + "}")
+                    .isSuccess(true)
+                    .build());
+        }
+        journal.force();
+        return journal;
+    }
+
+    private static class RecordingHandler implements IApiLogDataHandler {
+        private final List<String> received = new ArrayList<>();
+        private boolean failing;
+        private int failAfter = -1;
+        private int batches;
+
+        @Override
+        public void handle(ApiLogData apiLogData) {
+            received.add(apiLogData.getApiCode());
+        }
+
+        @Override
+        public void handleBatch(List<ApiLogData> apiLogDataList) {
+            if (failing || batches == failAfter) {
+                throw new IllegalStateException("下游不可用");
+            }
+            batches++;
+            IApiLogDataHandler.super.handleBatch(apiLogDataList);
+        }
+    }
+}
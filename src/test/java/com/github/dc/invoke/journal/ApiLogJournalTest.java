@@ -0,0 +1,147 @@
+package com.github.dc.invoke.journal;
+
+import com.github.dc.invoke.pojo.ApiLogData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * <p>
+ *     接口日志本地日志文件写入及重启恢复测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 18:00
+ */
+class ApiLogJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenContinuesAfterLastRecord() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        journal.append(this.apiLogData("a"));
+        journal.append(this.apiLogData("b"));
+        long committed = journal.getCommitted();
+        journal.close();
+
+        ApiLogJournal reopened = new ApiLogJournal(directory, SEGMENT_SIZE);
+        assertEquals(committed, reopened.getCommitted());
+        reopened.append(this.apiLogData("c"));
+        reopened.close();
+
+        assertEquals(Arrays.asList("a", "b", "c"), this.readApiCodes(reopened));
+    }
+
+    @Test
+    void recoveryDropsTornRecord() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        journal.append(this.apiLogData("a"));
+        journal.append(this.apiLogData("b"));
+        int tornOffset = (int) journal.getCommitted();
+        journal.append(this.apiLogData("c"));
+        journal.close();
+        // 模拟写入长度后内容未完整落盘：破坏第三条记录的内容
+        MappedByteBuffer segment = ApiLogJournal.map(journal.segmentPath(0), FileChannel.MapMode.READ_WRITE, -1);
+        int payloadOffset = tornOffset + ApiLogJournal.RECORD_HEADER_SIZE;
+        segment.put(payloadOffset + 2, (byte) ~segment.get(payloadOffset + 2));
+        segment.force();
+
+        ApiLogJournal recovered = new ApiLogJournal(directory, SEGMENT_SIZE);
+        assertEquals(tornOffset, (int) recovered.getCommitted());
+        recovered.append(this.apiLogData("d"));
+        recovered.close();
+
+        assertEquals(Arrays.asList("a", "b", "d"), this.readApiCodes(recovered));
+    }
+
+    @Test
+    void recoveryIgnoresLengthWithoutPayload() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        journal.append(this.apiLogData("a"));
+        int offset = (int) journal.getCommitted();
+        journal.close();
+        // 长度超出分段
+        MappedByteBuffer segment = ApiLogJournal.map(journal.segmentPath(0), FileChannel.MapMode.READ_WRITE, -1);
+        segment.putInt(offset, SEGMENT_SIZE);
+        segment.force();
+
+        ApiLogJournal recovered = new ApiLogJournal(directory, SEGMENT_SIZE);
+        assertEquals(offset, (int) recovered.getCommitted());
+        recovered.close();
+        assertEquals(Arrays.asList("a"), this.readApiCodes(recovered));
+    }
+
+    @Test
+    void rotatesSegmentsAndRecoversIntoLastOne() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add("api-" + i);
+            journal.append(this.apiLogData("api-" + i));
+        }
+        long committed = journal.getCommitted();
+        journal.close();
+        long lastSegment = committed >>> 32;
+        assertEquals(lastSegment + 1, journal.listSegments().size());
+
+        ApiLogJournal reopened = new ApiLogJournal(directory, SEGMENT_SIZE);
+        assertEquals(committed, reopened.getCommitted());
+        reopened.close();
+        assertEquals(expected, this.readApiCodes(reopened));
+    }
+
+    @Test
+    void recoveryOpensNextSegmentWhenLastOneIsClosed() throws IOException {
+        ApiLogJournal journal = new ApiLogJournal(directory, SEGMENT_SIZE);
+        while (journal.getCommitted() >>> 32 == 0) {
+            journal.append(this.apiLogData("x"));
+        }
+        journal.close();
+        // 模拟写入分段结束标记后、新分段创建前进程退出
+        Files.delete(journal.segmentPath(1));
+
+        ApiLogJournal recovered = new ApiLogJournal(directory, SEGMENT_SIZE);
+        assertEquals(1L << 32, recovered.getCommitted());
+        recovered.close();
+    }
+
+    private ApiLogData apiLogData(String apiCode) {
+        return ApiLogData.builder()
+                .apiCode(apiCode)
+                .url("http://localhost/" + apiCode)
+                .requestBody("{\"apiCode\":\"" + apiCode + "\"}")
+                .isSuccess(true)
+                .build();
+    }
+
+    private List<String> readApiCodes(ApiLogJournal journal) throws IOException {
+        List<String> apiCodes = new ArrayList<>();
+        for (Long index : journal.listSegments()) {
+            ByteBuffer segment = ApiLogJournal.map(journal.segmentPath(index), FileChannel.MapMode.READ_ONLY, -1);
+            int offset = 0;
+            int length;
+            while ((length = ApiLogJournal.validRecordLength(segment, offset, segment.capacity())) > 0) {
+                ByteBuffer payload = segment.duplicate();
+                payload.position(offset + ApiLogJournal.RECORD_HEADER_SIZE);
+                payload.limit(offset + ApiLogJournal.RECORD_HEADER_SIZE + length);
+                apiCodes.add(ApiLogDataCodec.decode(payload.slice()).getApiCode());
+                offset += ApiLogJournal.RECORD_HEADER_SIZE + length;
+            }
+        }
+        return apiCodes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.dc.invoke.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     耗时分布直方图测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 20:30
+ */
+class LatencyHistogramTest {
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    @Test
+    void bucketBoundaries() {
+        // 0~63每毫秒一个桶
+        assertEquals(0, LatencyHistogram.index(0));
+        assertEquals(63, LatencyHistogram.index(63));
+        assertEquals(63, LatencyHistogram.upperBound(63));
+        // 64~127每2ms一个桶
+        assertEquals(64, LatencyHistogram.index(64));
+        assertEquals(64, LatencyHistogram.index(65));
+        assertEquals(65, LatencyHistogram.upperBound(64));
+        assertEquals(95, LatencyHistogram.index(127));
+        assertEquals(127, LatencyHistogram.upperBound(95));
+        // 128~255每4ms一个桶
+        assertEquals(96, LatencyHistogram.index(128));
+        assertEquals(96, LatencyHistogram.index(131));
+        assertEquals(131, LatencyHistogram.upperBound(96));
+        assertEquals(97, LatencyHistogram.index(132));
+        // 最大值落在最后一个桶
+        assertEquals(1023, LatencyHistogram.index(MAX_VALUE));
+        assertEquals(MAX_VALUE, LatencyHistogram.upperBound(1023));
+    }
+
+    @Test
+    void bucketsAreContiguousWithBoundedError() {
+        int last = LatencyHistogram.index(MAX_VALUE);
+        for (int i = 0; i <= last; i++) {
+            long upperBound = LatencyHistogram.upperBound(i);
+            assertEquals(i, LatencyHistogram.index(upperBound), "bucket " + i);
+            if (i < last) {
+                assertEquals(i + 1, LatencyHistogram.index(upperBound + 1), "bucket " + i);
+            }
+            long lowerBound = i == 0 ? 0 : LatencyHistogram.upperBound(i - 1) + 1;
+            assertTrue((upperBound - lowerBound) * 32 <= Math.max(lowerBound, 1), "bucket " + i);
+        }
+    }
+
+    @Test
+    void valueAtPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getSum());
+        assertEquals(50.5, snapshot.getMean());
+        assertEquals(1, snapshot.valueAtPercentile(0));
+        assertEquals(50, snapshot.valueAtPercentile(50));
+        // 90落在90~91的桶，返回桶上界
+        assertEquals(91, snapshot.valueAtPercentile(90));
+        assertEquals(99, snapshot.valueAtPercentile(99));
+        // 100落在100~101的桶，不超过最大值
+        assertEquals(100, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(MAX_VALUE, snapshot.getMax());
+        assertEquals(0, snapshot.valueAtPercentile(50));
+        assertEquals(MAX_VALUE, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void snapshotAndResetClearsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().valueAtPercentile(99));
+        histogram.record(200);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(200, snapshot.valueAtPercentile(99));
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.dc.invoke.resttemplate.cache;
+
+import com.alibaba.fastjson2.JSON;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * <p>
+ *     缓存的GET响应测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 19:30
+ */
+class CachedResponseTest {
+
+    @Test
+    void mutableBodiesAreDecodedPerHit() {
+        CachedResponse cached = this.cachedResponse("{\"name\":\"dc\"}");
+        AtomicInteger decodes = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> first = cached.decode(Map.class, (response, type) -> this.decode(response, type, decodes));
+        first.put("name", "changed");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> second = cached.decode(Map.class, (response, type) -> this.decode(response, type, decodes));
+
+        assertNotSame(first, second);
+        assertEquals("dc", second.get("name"));
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void immutableBodiesAreShared() {
+        CachedResponse cached = this.cachedResponse("{\"name\":\"dc\"}");
+        AtomicInteger decodes = new AtomicInteger();
+
+        String first = cached.decode(String.class, (response, type) -> this.decode(response, type, decodes));
+        String second = cached.decode(String.class, (response, type) -> this.decode(response, type, decodes));
+
+        assertSame(first, second);
+        assertEquals(1, decodes.get());
+    }
+
+    private CachedResponse cachedResponse(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        CachedResponse cached = CachedResponse.of(ResponseEntity.ok().headers(headers).body(body.getBytes(StandardCharsets.UTF_8)), 1024);
+        assertNotNull(cached);
+        return cached;
+    }
+
+    private Object decode(CachedResponse response, Class<?> type, AtomicInteger decodes) {
+        decodes.incrementAndGet();
+        String text = new String(response.getBody(), StandardCharsets.UTF_8);
+        return type == String.class ? text : JSON.parseObject(text, type);
+    }
+}
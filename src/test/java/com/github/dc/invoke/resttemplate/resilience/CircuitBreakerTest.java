@@ -0,0 +1,198 @@
+package com.github.dc.invoke.resttemplate.resilience;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.error.exception.BulkheadFullException;
+import com.github.dc.invoke.resttemplate.error.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ *     熔断器及舱壁测试，时钟由测试推进
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 20:00
+ */
+class CircuitBreakerTest {
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+    private RestTemplateProperty.CircuitBreaker property;
+
+    @BeforeEach
+    void setUp() {
+        property = new RestTemplateProperty.CircuitBreaker();
+        property.setEnabled(true);
+        property.setWindowSeconds(10);
+        property.setMinimumCalls(4);
+        property.setFailureRateThreshold(50);
+        property.setOpenDurationMillis(1000);
+        property.setHalfOpenPermits(2);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+        this.call(circuitBreaker, true);
+        this.call(circuitBreaker, true);
+        this.call(circuitBreaker, false);
+        // 调用数未达到minimumCalls
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        this.call(circuitBreaker, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquire);
+        assertEquals(1, circuitBreaker.metrics().getNotPermittedCount());
+        assertEquals(2, circuitBreaker.metrics().getSuccessCount());
+        assertEquals(2, circuitBreaker.metrics().getFailureCount());
+    }
+
+    @Test
+    void halfOpenClosesAfterAllProbesSucceed() {
+        CircuitBreaker circuitBreaker = this.openCircuitBreaker();
+
+        this.advanceMillis(999);
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquire);
+        this.advanceMillis(1);
+
+        CallPermit first = circuitBreaker.acquire();
+        CallPermit second = circuitBreaker.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals("HALF_OPEN", first.getState());
+        // 试探名额已满
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquire);
+
+        first.complete(true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        second.complete(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals("CLOSED", circuitBreaker.acquire().getState());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() {
+        CircuitBreaker circuitBreaker = this.openCircuitBreaker();
+        this.advanceMillis(1000);
+
+        CallPermit probe = circuitBreaker.acquire();
+        this.advanceMillis(500);
+        probe.complete(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        // 重新打开后按新的打开时间计算
+        this.advanceMillis(999);
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquire);
+        this.advanceMillis(1);
+        assertEquals("HALF_OPEN", circuitBreaker.acquire().getState());
+    }
+
+    @Test
+    void failuresOutsideWindowAreNotCounted() {
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+        this.call(circuitBreaker, false);
+        this.call(circuitBreaker, false);
+        this.call(circuitBreaker, false);
+
+        // 滑出窗口后，同一下标的桶重新计数
+        this.advanceMillis(TimeUnit.SECONDS.toMillis(10));
+        this.call(circuitBreaker, false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void failuresWithinWindowAreSummedAcrossBuckets() {
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+        for (int i = 0; i < 3; i++) {
+            this.call(circuitBreaker, false);
+            this.advanceMillis(TimeUnit.SECONDS.toMillis(3));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        this.call(circuitBreaker, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        property.setSlowCallThresholdMillis(100);
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+
+        CallPermit fast = circuitBreaker.acquire();
+        this.advanceMillis(100);
+        fast.complete(true);
+        CallPermit slow = circuitBreaker.acquire();
+        this.advanceMillis(101);
+        slow.complete(true);
+
+        assertEquals(1, circuitBreaker.metrics().getSuccessCount());
+        assertEquals(1, circuitBreaker.metrics().getFailureCount());
+    }
+
+    @Test
+    void bulkheadRejectsAndReleasesOnComplete() {
+        property.setMaxConcurrentCalls(1);
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+
+        CallPermit permit = circuitBreaker.acquire();
+        assertThrows(BulkheadFullException.class, circuitBreaker::acquire);
+        assertEquals(1, circuitBreaker.metrics().getBulkheadRejectedCount());
+        assertEquals(1, circuitBreaker.metrics().getConcurrentCalls());
+
+        permit.complete(true);
+
+        assertEquals(0, circuitBreaker.metrics().getConcurrentCalls());
+        circuitBreaker.acquire().complete(true);
+    }
+
+    @Test
+    void bulkheadRejectionReleasesHalfOpenSlot() {
+        property.setMinimumCalls(1);
+        property.setMaxConcurrentCalls(2);
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+        CallPermit longRunning = circuitBreaker.acquire();
+        this.call(circuitBreaker, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        this.advanceMillis(1000);
+
+        CallPermit probe = circuitBreaker.acquire();
+        // 试探名额还有一个，但舱壁已满，被拒绝时须归还试探名额
+        assertThrows(BulkheadFullException.class, circuitBreaker::acquire);
+        longRunning.complete(true);
+        CallPermit secondProbe = circuitBreaker.acquire();
+
+        assertEquals("HALF_OPEN", secondProbe.getState());
+        probe.complete(true);
+        secondProbe.complete(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.metrics().getConcurrentCalls());
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return new CircuitBreaker("localhost:8080", property, nanos::get);
+    }
+
+    private CircuitBreaker openCircuitBreaker() {
+        CircuitBreaker circuitBreaker = this.circuitBreaker();
+        for (int i = 0; i < property.getMinimumCalls(); i++) {
+            this.call(circuitBreaker, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        return circuitBreaker;
+    }
+
+    private void call(CircuitBreaker circuitBreaker, boolean success) {
+        circuitBreaker.acquire().complete(success);
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
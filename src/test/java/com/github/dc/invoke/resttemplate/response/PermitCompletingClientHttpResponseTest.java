@@ -0,0 +1,126 @@
+package com.github.dc.invoke.resttemplate.response;
+
+import com.github.dc.invoke.config.RestTemplateProperty;
+import com.github.dc.invoke.resttemplate.resilience.CircuitBreaker;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     响应关闭时完成熔断器许可测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 20:00
+ */
+class PermitCompletingClientHttpResponseTest {
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplateProperty.CircuitBreaker property = new RestTemplateProperty.CircuitBreaker();
+        property.setEnabled(true);
+        property.setMaxConcurrentCalls(1);
+        circuitBreaker = new CircuitBreaker("localhost:8080", property);
+    }
+
+    @Test
+    void completesPermitOnlyOnClose() throws IOException {
+        StubResponse delegate = new StubResponse(new ByteArrayInputStream("ok".getBytes(StandardCharsets.UTF_8)));
+        PermitCompletingClientHttpResponse response = new PermitCompletingClientHttpResponse(delegate, circuitBreaker.acquire(), true);
+
+        assertEquals("ok", IOUtils.toString(response.getBody(), StandardCharsets.UTF_8));
+        // 读取body期间仍占用舱壁
+        assertEquals(1, circuitBreaker.metrics().getConcurrentCalls());
+        assertEquals(0, circuitBreaker.metrics().getSuccessCount());
+
+        response.close();
+        response.close();
+
+        assertTrue(delegate.closed);
+        assertEquals(0, circuitBreaker.metrics().getConcurrentCalls());
+        assertEquals(1, circuitBreaker.metrics().getSuccessCount());
+        assertEquals(0, circuitBreaker.metrics().getFailureCount());
+    }
+
+    @Test
+    void bodyReadFailureCompletesAsFailure() {
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+        PermitCompletingClientHttpResponse response = new PermitCompletingClientHttpResponse(new StubResponse(broken), circuitBreaker.acquire(), true);
+
+        assertThrows(IOException.class, () -> response.getBody().read());
+        response.close();
+
+        assertEquals(0, circuitBreaker.metrics().getConcurrentCalls());
+        assertEquals(0, circuitBreaker.metrics().getSuccessCount());
+        assertEquals(1, circuitBreaker.metrics().getFailureCount());
+    }
+
+    @Test
+    void errorStatusCompletesAsFailure() {
+        PermitCompletingClientHttpResponse response = new PermitCompletingClientHttpResponse(
+                new StubResponse(new ByteArrayInputStream(new byte[0])), circuitBreaker.acquire(), false);
+
+        response.close();
+
+        assertEquals(0, circuitBreaker.metrics().getConcurrentCalls());
+        assertEquals(1, circuitBreaker.metrics().getFailureCount());
+    }
+
+    private static class StubResponse implements ClientHttpResponse {
+        private final InputStream body;
+        private boolean closed;
+
+        StubResponse(InputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.dc.invoke.resttemplate.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ *     流式multipart请求体测试
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 21:00
+ */
+class MultipartStreamingBodyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void contentLengthMatchesWrittenBytes() throws IOException {
+        byte[] fileContent = new byte[100_000];
+        new Random(1).nextBytes(fileContent);
+        Path file = directory.resolve("report.xlsx");
+        Files.write(file, fileContent);
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file", new FileSystemResource(file));
+        form.add("file", this.resource("报表\"1\".xlsx", "second"));
+        form.add("bytes", new byte[]{1, 2, 3});
+        form.add("text", "中文说明");
+        form.add("count", 3);
+        form.add("empty", null);
+        form.add("json", Collections.singletonMap("key", "值"));
+        MultipartStreamingBody body = new MultipartStreamingBody(form);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        body.writeTo(os);
+
+        assertEquals(os.size(), body.contentLength());
+        String boundary = body.getContentType().getParameter("boundary");
+        String written = new String(os.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("--" + boundary + "\r\n"));
+        assertTrue(written.endsWith("\r\n--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    void encodesSpecialCharactersInFilename() throws IOException {
+        String written = this.write("file", this.resource("a\"b\r\nContent-Type: text/html.txt", "x"));
+
+        assertTrue(written.contains("Content-Disposition: form-data; name=\"file\"; filename=\"a%22b%0D%0AContent-Type: text/html.txt\"; "
+                + "filename*=UTF-8''a%22b%0D%0AContent-Type%3A%20text%2Fhtml.txt\r\n"));
+        // 注入的头部未形成独立的行
+        assertFalse(written.contains("\r\nContent-Type: text/html"));
+    }
+
+    @Test
+    void addsExtendedFilenameForNonAscii() throws IOException {
+        String written = this.write("file", this.resource("报表 1.xlsx", "x"));
+
+        assertTrue(written.contains("; filename=\"报表 1.xlsx\"; filename*=UTF-8''%E6%8A%A5%E8%A1%A8%201.xlsx\r\n"));
+    }
+
+    @Test
+    void keepsPlainAsciiFilename() throws IOException {
+        String written = this.write("file", this.resource("report-2026.csv", "x"));
+
+        assertTrue(written.contains("Content-Disposition: form-data; name=\"file\"; filename=\"report-2026.csv\"\r\n"));
+        assertFalse(written.contains("filename*"));
+    }
+
+    private String write(String name, Object value) throws IOException {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add(name, value);
+        MultipartStreamingBody body = new MultipartStreamingBody(form);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        body.writeTo(os);
+        assertEquals(os.size(), body.contentLength());
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private ByteArrayResource resource(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}